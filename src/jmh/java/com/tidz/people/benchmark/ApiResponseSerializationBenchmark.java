@@ -0,0 +1,55 @@
+package com.tidz.people.benchmark;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.tidz.people.model.Person;
+import com.tidz.people.response.ApiResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hand-written envelope serializers versus Jackson's reflective bean serializers. Run with
+ * {@code -prof gc} to see allocation per response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int size;
+
+    private final ObjectMapper handWritten = new ObjectMapper();
+    private final ObjectMapper reflective = JsonMapper.builder().disable(MapperFeature.USE_ANNOTATIONS).build();
+    private ApiResponse response;
+
+    @Setup
+    public void setUp() {
+        List<Person> people = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Person person = BenchmarkApplication.person(i);
+            person.setId((long) i + 1);
+            people.add(person);
+        }
+        response = new ApiResponse("Success", size == 1 ? people.get(0) : people);
+    }
+
+    @Benchmark
+    public void handWritten() throws IOException {
+        handWritten.writeValue(OutputStream.nullOutputStream(), response);
+    }
+
+    @Benchmark
+    public void reflective() throws IOException {
+        reflective.writeValue(OutputStream.nullOutputStream(), response);
+    }
+}
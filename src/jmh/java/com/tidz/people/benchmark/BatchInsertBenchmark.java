@@ -0,0 +1,62 @@
+package com.tidz.people.benchmark;
+
+import com.tidz.people.model.Person;
+import com.tidz.people.service.PersonBatchService;
+import com.tidz.people.service.PersonService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second written one save per row versus through the chunked batch endpoint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(BatchInsertBenchmark.ROWS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class BatchInsertBenchmark {
+
+    static final int ROWS = 1000;
+
+    private ConfigurableApplicationContext context;
+    private PersonService service;
+    private PersonBatchService batchService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("batch");
+        service = context.getBean(PersonService.class);
+        batchService = context.getBean(PersonBatchService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void singleRowSaves() {
+        for (Person person : people()) {
+            service.save(person);
+        }
+    }
+
+    @Benchmark
+    public void batchSaveAll() {
+        batchService.saveAll(people());
+    }
+
+    private static List<Person> people() {
+        List<Person> people = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            people.add(BenchmarkApplication.person(i));
+        }
+        return people;
+    }
+}
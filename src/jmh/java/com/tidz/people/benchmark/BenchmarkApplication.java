@@ -0,0 +1,78 @@
+package com.tidz.people.benchmark;
+
+import com.tidz.people.PeopleApplication;
+import com.tidz.people.model.Person;
+import com.tidz.people.service.PersonBatchService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the full application against an in-memory H2 database in MySQL mode, so benchmarks measure
+ * the same Spring, Hibernate and Jackson paths as production without needing a MySQL server.
+ */
+final class BenchmarkApplication {
+
+    static final String[] PROFESSIONS = {"Engineer", "Doctor", "Programmer", "Architect", "Teacher", "Nurse"};
+
+    private static final int SEED_CHUNK = 10_000;
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * {@code properties} are extra {@code name=value} settings; like the others they are passed as
+     * command-line arguments, so they override application.properties.
+     */
+    static ConfigurableApplicationContext start(String databaseName, String... properties) {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--server.port=0",
+                "--logging.level.root=WARN"));
+        for (String property : properties) {
+            arguments.add("--" + property);
+        }
+        return new SpringApplicationBuilder(PeopleApplication.class).run(arguments.toArray(String[]::new));
+    }
+
+    /**
+     * Boots the {@code reactive} profile (WebFlux over R2DBC) against its own in-memory H2 database.
+     */
+    static ConfigurableApplicationContext startReactive(String databaseName) {
+        return new SpringApplicationBuilder(PeopleApplication.class).profiles("reactive").run(
+                "--spring.r2dbc.url=r2dbc:h2:mem:///" + databaseName + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.r2dbc.username=sa",
+                "--spring.r2dbc.password=",
+                "--spring.flyway.url=jdbc:h2:mem:" + databaseName + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.flyway.user=sa",
+                "--spring.flyway.password=",
+                "--server.port=0",
+                "--logging.level.root=WARN");
+    }
+
+    /**
+     * Inserts {@code count} persons; with a fresh database their ids are 1..count.
+     */
+    static void seed(ConfigurableApplicationContext context, int count) {
+        PersonBatchService batchService = context.getBean(PersonBatchService.class);
+        for (int from = 0; from < count; from += SEED_CHUNK) {
+            int to = Math.min(from + SEED_CHUNK, count);
+            List<Person> people = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                people.add(person(i));
+            }
+            batchService.saveAll(people);
+        }
+    }
+
+    static Person person(int i) {
+        return new Person(null, "Person " + i, 18 + i % 60, PROFESSIONS[i % PROFESSIONS.length]);
+    }
+}
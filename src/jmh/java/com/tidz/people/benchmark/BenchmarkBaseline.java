@@ -0,0 +1,83 @@
+package com.tidz.people.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result file with a committed baseline and exits non-zero when any benchmark
+ * is slower than the baseline by more than the given tolerance, or when there is no baseline. With
+ * {@code record} the results replace the baseline instead, which is how a new one is made.
+ *
+ * <p>Usage: {@code BenchmarkBaseline <result.json> <baseline.json> <tolerance-percent> [record]}
+ */
+public final class BenchmarkBaseline {
+
+    private BenchmarkBaseline() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path result = Path.of(args[0]);
+        Path baseline = Path.of(args[1]);
+        double tolerance = Double.parseDouble(args[2]) / 100;
+
+        if (args.length > 3 && Boolean.parseBoolean(args[3])) {
+            Files.createDirectories(baseline.toAbsolutePath().getParent());
+            Files.copy(result, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Recorded " + result + " as " + baseline);
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            System.err.println("No baseline at " + baseline + "; record one with -Djmh.record=true");
+            System.exit(1);
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> expected = index(objectMapper.readTree(baseline.toFile()));
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, JsonNode> entry : index(objectMapper.readTree(result.toFile())).entrySet()) {
+            JsonNode before = expected.get(entry.getKey());
+            if (before == null) {
+                System.out.println("NEW        " + entry.getKey());
+                continue;
+            }
+            double oldScore = before.at("/primaryMetric/score").asDouble();
+            double newScore = entry.getValue().at("/primaryMetric/score").asDouble();
+            boolean higherIsBetter = "thrpt".equals(entry.getValue().get("mode").asText());
+            double change = higherIsBetter ? (oldScore - newScore) / oldScore : (newScore - oldScore) / oldScore;
+            String unit = entry.getValue().at("/primaryMetric/scoreUnit").asText();
+            String line = String.format("%-10s %s: %.3f -> %.3f %s (%+.1f%%)",
+                    change > tolerance ? "REGRESSED" : "OK", entry.getKey(), oldScore, newScore, unit, -change * 100);
+            System.out.println(line);
+            if (change > tolerance) {
+                regressions.add(line);
+            }
+        }
+
+        if (!regressions.isEmpty()) {
+            System.err.println(regressions.size() + " benchmark(s) regressed by more than " + args[2] + "%");
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode run : results) {
+            StringBuilder key = new StringBuilder(run.get("benchmark").asText());
+            JsonNode params = run.get("params");
+            if (params != null) {
+                params.fields().forEachRemaining(param -> key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            }
+            byKey.put(key.toString(), run);
+        }
+        return byKey;
+    }
+}
@@ -0,0 +1,78 @@
+package com.tidz.people.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load harness for sizing {@code people.db.max-concurrency}: 128 concurrent HTTP clients page through
+ * a table behind a pool of {@link #POOL_SIZE} connections, on Tomcat's platform threads or on virtual
+ * threads with the given number of database permits. SampleTime reports the p99; {@code rejected}
+ * counts the 503s of callers that did not get a permit within the acquire timeout.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(128)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class DatabaseConcurrencyBenchmark {
+
+    private static final int TABLE_SIZE = 10_000;
+    private static final int POOL_SIZE = 10;
+
+    @Param({"platform", "virtual-5", "virtual-10", "virtual-20"})
+    private String threads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Responses {
+        public long rejected;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean virtual = threads.startsWith("virtual-");
+        context = BenchmarkApplication.start("concurrency_" + threads.replace('-', '_'),
+                "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                "spring.datasource.hikari.minimum-idle=" + POOL_SIZE,
+                "spring.threads.virtual.enabled=" + virtual,
+                "people.db.max-concurrency=" + (virtual ? threads.substring("virtual-".length()) : POOL_SIZE));
+        BenchmarkApplication.seed(context, TABLE_SIZE);
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/people";
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int getPage(Responses responses) throws IOException, InterruptedException {
+        long after = ThreadLocalRandom.current().nextLong(TABLE_SIZE);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "?limit=100&after=" + after)).GET().build();
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status == 503) {
+            responses.rejected++;
+        }
+        return status;
+    }
+}
@@ -0,0 +1,66 @@
+package com.tidz.people.benchmark;
+
+import com.tidz.people.cache.PersonCache;
+import com.tidz.people.model.Person;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Concurrent {@code getPersonById} lookups of Zipf-distributed ids against a loader that parks for a
+ * simulated database round trip. {@code loads} counts the round trips actually made, so
+ * {@code loads / ops} is the share of lookups that reached the database:
+ * {@code direct} calls the loader every time, {@code single-flight} is the cache with a zero time to
+ * live so only concurrent lookups share a load, and {@code cached} is the cache as configured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Threads(16)
+@Fork(1)
+public class HotIdBenchmark {
+
+    private static final long ROUND_TRIP_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    @Param({"direct", "single-flight", "cached"})
+    private String mode;
+
+    private final Zipf ids = new Zipf(100_000, 1.1);
+    private PersonCache cache;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Loads {
+        public long loads;
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        cache = switch (mode) {
+            case "direct" -> null;
+            case "single-flight" -> new PersonCache(10_000, Duration.ZERO, Duration.ZERO);
+            case "cached" -> new PersonCache(10_000, Duration.ofSeconds(1), Duration.ofSeconds(1));
+            default -> throw new IllegalArgumentException(mode);
+        };
+    }
+
+    @Benchmark
+    public Optional<Person> getPersonById(Loads loads) {
+        long id = ids.next();
+        if (cache == null) {
+            return load(id, loads);
+        }
+        return cache.get(id, key -> load(key, loads));
+    }
+
+    private static Optional<Person> load(long id, Loads loads) {
+        loads.loads++;
+        LockSupport.parkNanos(ROUND_TRIP_NANOS);
+        return Optional.of(new Person(id, "Person " + id, 30, "Engineer"));
+    }
+}
@@ -0,0 +1,61 @@
+package com.tidz.people.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full MockMvc round trips through the real controller, service, repository and Jackson stack.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PersonControllerBenchmark {
+
+    private static final int TABLE_SIZE = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("controller");
+        BenchmarkApplication.seed(context, TABLE_SIZE);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult getPersonById() throws Exception {
+        long id = ThreadLocalRandom.current().nextLong(1, TABLE_SIZE + 1);
+        return mockMvc.perform(MockMvcRequestBuilders.get("/api/people/{id}", id)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getAllPeople() throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.get("/api/people")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult savePerson() throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.post("/api/people")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"John Doe\", \"age\": 30, \"profession\": \"Engineer\"}"))
+                .andReturn();
+    }
+}
@@ -0,0 +1,69 @@
+package com.tidz.people.benchmark;
+
+import com.tidz.people.memory.PersonColumns;
+import com.tidz.people.model.Person;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Retained heap per person of {@link PersonColumns} against a {@code HashMap<Long, Person>} of
+ * entities. Not a JMH benchmark: it builds each structure once and compares used heap after full
+ * collections. Run with {@code -Xmx4g}; the first argument is the number of persons (default 1M).
+ */
+public class PersonMemoryFootprint {
+
+    private static final String[] PROFESSIONS = {"Engineer", "Doctor", "Programmer", "Architect", "Teacher"};
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        IntFunction<Person> persons = i -> {
+            Person person = new Person((long) i + 1, "Person " + i, 18 + i % 60, PROFESSIONS[i % PROFESSIONS.length]);
+            person.setVersion(0L);
+            person.setUpdatedAt(Instant.ofEpochSecond(1_700_000_000L + i));
+            return person;
+        };
+
+        long columns = retained(() -> {
+            PersonColumns table = new PersonColumns(count);
+            for (int i = 0; i < count; i++) {
+                table.put(persons.apply(i));
+            }
+            return table;
+        });
+        long map = retained(() -> {
+            Map<Long, Person> table = new HashMap<>(count * 4 / 3 + 1);
+            for (int i = 0; i < count; i++) {
+                Person person = persons.apply(i);
+                table.put(person.getId(), person);
+            }
+            return table;
+        });
+
+        System.out.printf("persons: %d%n", count);
+        System.out.printf("PersonColumns:         %6.1f MB, %5.1f bytes/person%n", columns / 1e6, (double) columns / count);
+        System.out.printf("HashMap<Long, Person>: %6.1f MB, %5.1f bytes/person%n", map / 1e6, (double) map / count);
+    }
+
+    private static long retained(Supplier<Object> build) {
+        long before = usedAfterGc();
+        Object table = build.get();
+        long after = usedAfterGc();
+        // Keeps the table reachable until the second measurement.
+        System.out.println(table.getClass().getSimpleName() + " built");
+        return after - before;
+    }
+
+    private static long usedAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,95 @@
+package com.tidz.people.benchmark;
+
+import com.tidz.people.model.Person;
+import com.tidz.people.model.PersonField;
+import com.tidz.people.model.PersonView;
+import com.tidz.people.service.PersonService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PersonServiceBenchmark {
+
+    private static final Set<PersonField> ID_AND_NAME = EnumSet.of(PersonField.ID, PersonField.NAME);
+
+    @Param({"1000", "10000", "100000"})
+    private int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private PersonService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("service_" + tableSize);
+        BenchmarkApplication.seed(context, tableSize);
+        service = context.getBean(PersonService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Person getPersonById() {
+        return service.getPersonById(randomId());
+    }
+
+    @Benchmark
+    public List<PersonView> getPersonsFirstPage() {
+        return service.getPersons(null, PersonService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<PersonView> getPersonsMiddlePage() {
+        return service.getPersons((long) tableSize / 2, PersonService.DEFAULT_PAGE_SIZE);
+    }
+
+    /** Run with {@code -prof gc}: compare gc.alloc.rate.norm with the full-row pages above. */
+    @Benchmark
+    public List<PersonView> getPersonsFirstPageIdAndName() {
+        return service.getPersons(null, PersonService.DEFAULT_PAGE_SIZE, ID_AND_NAME);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public void streamAllPersons(Blackhole blackhole) {
+        service.streamAllPersons(blackhole::consume);
+    }
+
+    @Benchmark
+    public Person save() {
+        return service.save(BenchmarkApplication.person(ThreadLocalRandom.current().nextInt(tableSize)));
+    }
+
+    @Benchmark
+    public Person update() {
+        long id = randomId();
+        return service.update(id, BenchmarkApplication.person((int) id + 1));
+    }
+
+    @Benchmark
+    public void saveThenDelete() {
+        Person person = service.save(BenchmarkApplication.person(ThreadLocalRandom.current().nextInt(tableSize)));
+        service.delete(person.getId());
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, tableSize + 1);
+    }
+}
@@ -0,0 +1,37 @@
+package com.tidz.people.benchmark;
+
+import com.tidz.people.ratelimit.TokenBucketRateLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one rate-limit decision when Zipf-distributed clients hit the same limiter from several
+ * threads, so the hottest buckets are contended.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Threads(4)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private final Zipf clients = new Zipf(10_000, 1.1);
+    private final String[] names = new String[10_001];
+    private TokenBucketRateLimiter limiter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        for (int i = 1; i < names.length; i++) {
+            names[i] = "client-" + i;
+        }
+        limiter = new TokenBucketRateLimiter(new TokenBucketRateLimiter.Limit(100, 200), 100_000);
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        return limiter.tryAcquire(names[clients.next()]);
+    }
+}
@@ -0,0 +1,112 @@
+package com.tidz.people.benchmark;
+
+import com.tidz.people.model.Person;
+import com.tidz.people.model.PersonView;
+import com.tidz.people.response.ApiResponse;
+import com.tidz.people.response.PersonProtobufHttpMessageConverter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Encode and decode time of a 10k-person page in each representation {@code GET /api/people} can
+ * negotiate, through the same message converters the application uses. Jackson formats decode into
+ * {@link Envelope}, protobuf into an {@link ApiResponse} of person views. Payload sizes, plain and
+ * gzipped, are printed by {@link ResponseFormatSizes}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ResponseFormatBenchmark {
+
+    static final int PAGE_SIZE = 10_000;
+
+    @Param({"JSON", "SMILE", "CBOR", "PROTOBUF"})
+    private Format format;
+
+    private HttpMessageConverter<Object> converter;
+    private ApiResponse response;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        converter = format.converter();
+        response = page();
+        encoded = format.encode(converter, response);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return format.encode(converter, response);
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        return converter.read(format.decodedType(), new MockHttpInputMessage(encoded));
+    }
+
+    static ApiResponse page() {
+        List<PersonView> people = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Person person = BenchmarkApplication.person(i);
+            person.setId((long) i + 1);
+            person.setVersion(0L);
+            people.add(PersonView.of(person));
+        }
+        return new ApiResponse("Success", people);
+    }
+
+    /**
+     * Jackson has no deserializer for the envelope, whose serializer is hand-written, so the Jackson
+     * formats are read back into this equivalent record.
+     */
+    public record Envelope(String message, List<PersonView> body) {
+    }
+
+    public enum Format {
+
+        JSON(MediaType.APPLICATION_JSON, () -> new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build())),
+        SMILE(new MediaType("application", "x-jackson-smile"),
+                () -> new MappingJackson2SmileHttpMessageConverter(Jackson2ObjectMapperBuilder.smile().build())),
+        CBOR(MediaType.APPLICATION_CBOR, () -> new MappingJackson2CborHttpMessageConverter(Jackson2ObjectMapperBuilder.cbor().build())),
+        PROTOBUF(PersonProtobufHttpMessageConverter.PROTOBUF, PersonProtobufHttpMessageConverter::new);
+
+        private final MediaType mediaType;
+        private final Supplier<HttpMessageConverter<?>> converter;
+
+        Format(MediaType mediaType, Supplier<HttpMessageConverter<?>> converter) {
+            this.mediaType = mediaType;
+            this.converter = converter;
+        }
+
+        @SuppressWarnings("unchecked")
+        HttpMessageConverter<Object> converter() {
+            return (HttpMessageConverter<Object>) converter.get();
+        }
+
+        Class<?> decodedType() {
+            return this == PROTOBUF ? ApiResponse.class : Envelope.class;
+        }
+
+        byte[] encode(HttpMessageConverter<Object> converter, ApiResponse response) throws IOException {
+            MockHttpOutputMessage output = new MockHttpOutputMessage();
+            converter.write(response, mediaType, output);
+            return output.getBodyAsBytes();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.tidz.people.benchmark;
+
+import com.tidz.people.benchmark.ResponseFormatBenchmark.Format;
+import com.tidz.people.response.ApiResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Payload bytes of the 10k-person page of {@link ResponseFormatBenchmark} in every format, as
+ * written and after the gzip {@code server.compression} applies. Not a JMH benchmark.
+ */
+public class ResponseFormatSizes {
+
+    public static void main(String[] args) throws IOException {
+        ApiResponse page = ResponseFormatBenchmark.page();
+        System.out.printf("persons: %d%n", ResponseFormatBenchmark.PAGE_SIZE);
+        for (Format format : Format.values()) {
+            byte[] encoded = format.encode(format.converter(), page);
+            int gzipped = gzip(encoded);
+            System.out.printf("%-9s %9d bytes %6.1f bytes/person, gzip %8d bytes %5.1f bytes/person%n", format,
+                    encoded.length, (double) encoded.length / ResponseFormatBenchmark.PAGE_SIZE,
+                    gzipped, (double) gzipped / ResponseFormatBenchmark.PAGE_SIZE);
+        }
+    }
+
+    private static int gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(bytes);
+        }
+        return compressed.size();
+    }
+}
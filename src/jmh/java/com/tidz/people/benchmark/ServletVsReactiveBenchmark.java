@@ -0,0 +1,77 @@
+package com.tidz.people.benchmark;
+
+import com.tidz.people.repository.ReactivePersonRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Real HTTP requests from 64 concurrent clients against the servlet (MVC + JPA) and the reactive
+ * (WebFlux + R2DBC) stacks, each with its own H2 database of the same size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(64)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ServletVsReactiveBenchmark {
+
+    private static final int TABLE_SIZE = 10_000;
+
+    @Param({"servlet", "reactive"})
+    private String stack;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (stack.equals("reactive")) {
+            context = BenchmarkApplication.startReactive("stack_reactive");
+            ReactivePersonRepository repository = context.getBean(ReactivePersonRepository.class);
+            Flux.range(0, TABLE_SIZE).concatMap(i -> repository.insert(BenchmarkApplication.person(i))).blockLast();
+        } else {
+            context = BenchmarkApplication.start("stack_servlet");
+            BenchmarkApplication.seed(context, TABLE_SIZE);
+        }
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/people";
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int getPersonById() throws IOException, InterruptedException {
+        long id = ThreadLocalRandom.current().nextLong(1, TABLE_SIZE + 1);
+        return send(baseUrl + "/" + id);
+    }
+
+    @Benchmark
+    public int getAllPeople() throws IOException, InterruptedException {
+        return send(baseUrl + "?limit=100");
+    }
+
+    private int send(String url) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,92 @@
+package com.tidz.people.benchmark;
+
+import com.tidz.people.model.Person;
+import com.tidz.people.model.PersonMatch;
+import com.tidz.people.service.PersonBatchService;
+import com.tidz.people.service.PersonService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code PersonService.searchText} over a table of realistic first and last names, answered by
+ * {@code like}, the substring scan used without the search index, or by the {@code index}. The
+ * queries are a common surname, a first and last name, a prefix and a misspelled surname; the scan
+ * finds nothing for the last two, which is what makes them worth indexing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TextSearchBenchmark {
+
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael", "Linda", "William", "Elizabeth",
+            "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen",
+            "Christopher", "Nancy", "Daniel", "Lisa", "Matthew", "Betty", "Anthony", "Margaret", "Mark", "Sandra",
+            "Maria", "Jose", "Luis", "Ana", "Carlos", "Sofia", "Juan", "Lucia", "Miguel", "Elena"};
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+            "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez", "Clark", "Ramirez", "Lewis", "Robinson",
+            "Walker", "Young", "Allen", "King", "Wright", "Scott", "Torres", "Nguyen", "Hill", "Flores",
+            "Green", "Adams", "Nelson", "Baker", "Hall", "Rivera", "Campbell", "Mitchell", "Carter", "Roberts"};
+    private static final int SEED_CHUNK = 10_000;
+    private static final int LIMIT = 20;
+
+    @Param({"like", "index"})
+    private String mode;
+
+    @Param({"1000000"})
+    private int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private PersonService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("text_" + mode, "people.search.enabled=" + mode.equals("index"));
+        PersonBatchService batchService = context.getBean(PersonBatchService.class);
+        Random random = new Random(42);
+        for (int from = 0; from < tableSize; from += SEED_CHUNK) {
+            List<Person> people = new ArrayList<>(SEED_CHUNK);
+            for (int i = from; i < Math.min(from + SEED_CHUNK, tableSize); i++) {
+                String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                people.add(new Person(null, name, 18 + i % 60, BenchmarkApplication.PROFESSIONS[i % BenchmarkApplication.PROFESSIONS.length]));
+            }
+            batchService.saveAll(people);
+        }
+        service = context.getBean(PersonService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PersonMatch> surname() {
+        return service.searchText("Rodriguez", LIMIT);
+    }
+
+    @Benchmark
+    public List<PersonMatch> fullName() {
+        return service.searchText("Maria Garcia", LIMIT);
+    }
+
+    @Benchmark
+    public List<PersonMatch> prefix() {
+        return service.searchText("Rodr", LIMIT);
+    }
+
+    @Benchmark
+    public List<PersonMatch> misspelled() {
+        return service.searchText("Rodriguex", LIMIT);
+    }
+}
@@ -0,0 +1,102 @@
+package com.tidz.people.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tidz.people.model.Person;
+import com.tidz.people.response.ImportProgress;
+import com.tidz.people.service.PersonImportService;
+import com.tidz.people.service.PersonService;
+import com.tidz.people.transfer.PersonReader;
+import com.tidz.people.transfer.PersonWriter;
+import com.tidz.people.transfer.TransferFormat;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * One full export and one full import of a multi-million-row table through the same readers,
+ * writers and services the endpoints use. Each run also checks that every row made it through.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TransferBenchmark {
+
+    @Param({"2000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private PersonService service;
+    private PersonImportService importService;
+    private ObjectMapper objectMapper;
+    private Path fixture;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkApplication.start("transfer");
+        service = context.getBean(PersonService.class);
+        importService = context.getBean(PersonImportService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        BenchmarkApplication.seed(context, rows);
+
+        fixture = Files.createTempFile("people", ".csv.gz");
+        try (PersonWriter writer = TransferFormat.CSV.writer(new GZIPOutputStream(Files.newOutputStream(fixture), TransferFormat.BUFFER_SIZE), objectMapper)) {
+            for (int i = 0; i < rows; i++) {
+                Person person = BenchmarkApplication.person(i);
+                person.setId((long) i);
+                writer.write(person);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        Files.deleteIfExists(fixture);
+    }
+
+    @Benchmark
+    public long exportCsvGzip() throws IOException {
+        AtomicLong exported = new AtomicLong();
+        try (PersonWriter writer = TransferFormat.CSV.writer(new GZIPOutputStream(OutputStream.nullOutputStream(), TransferFormat.BUFFER_SIZE), objectMapper)) {
+            service.streamPersons(null, person -> {
+                try {
+                    writer.write(person);
+                    exported.incrementAndGet();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        if (exported.get() < rows) {
+            throw new IllegalStateException("Exported " + exported.get() + " of at least " + rows + " rows");
+        }
+        return exported.get();
+    }
+
+    @Benchmark
+    public ImportProgress importCsvGzip() throws IOException {
+        try (InputStream input = new GZIPInputStream(new BufferedInputStream(Files.newInputStream(fixture)), TransferFormat.BUFFER_SIZE);
+             PersonReader reader = TransferFormat.CSV.reader(input, objectMapper)) {
+            ImportProgress result = importService.importPeople(reader, 0, progress -> {
+            });
+            if (result.imported() != rows || result.error() != null) {
+                throw new IllegalStateException("Imported " + result + " of " + rows + " rows");
+            }
+            return result;
+        }
+    }
+}
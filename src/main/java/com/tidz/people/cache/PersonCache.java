@@ -0,0 +1,142 @@
+package com.tidz.people.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.tidz.people.model.Person;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of persons by id. Ids that do not exist are cached as empty entries
+ * with their own, shorter time to live so repeated 404s do not reach the database either.
+ * <p>
+ * Loads are single-flight: the first miss for an id puts a pending future in the cache and runs
+ * the loader on its own thread, and concurrent misses for the same id wait on that future instead
+ * of querying again. No map lock is held while the loader runs, so a slow load never blocks
+ * lookups of other ids, and an eviction during the load keeps its result out of the cache.
+ * <p>
+ * Only this instance's writes evict entries, so unless {@code people.cache.enabled} is set the
+ * cache keeps nothing once a load completes and only coalesces concurrent loads of one id.
+ */
+@Component
+public class PersonCache implements MeterBinder {
+
+    public static final String NAME = "persons";
+
+    private final AsyncCache<Long, Optional<Person>> cache;
+
+    @Autowired
+    public PersonCache(@Value("${people.cache.enabled:false}") boolean enabled,
+                       @Value("${people.cache.maximum-size:10000}") long maximumSize,
+                       @Value("${people.cache.ttl:10m}") Duration ttl,
+                       @Value("${people.cache.negative-ttl:30s}") Duration negativeTtl) {
+        this(maximumSize, enabled ? ttl : Duration.ZERO, enabled ? negativeTtl : Duration.ZERO);
+    }
+
+    public PersonCache(long maximumSize, Duration ttl, Duration negativeTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new PersonExpiry(ttl.toNanos(), negativeTtl.toNanos()))
+                .recordStats()
+                .buildAsync();
+    }
+
+    public Optional<Person> get(Long id, Function<Long, Optional<Person>> loader) {
+        CompletableFuture<Optional<Person>> load = new CompletableFuture<>();
+        CompletableFuture<Optional<Person>> person = cache.get(id, (key, executor) -> load);
+        if (person == load) {
+            try {
+                load.complete(loader.apply(id));
+            } catch (Throwable e) {
+                // A failed load is dropped from the cache; callers sharing it see the same exception.
+                load.completeExceptionally(e);
+            }
+        }
+        try {
+            return person.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the cached person without loading it, or {@code null} when it is not cached or is
+     * cached as missing.
+     */
+    public Person getIfPresent(Long id) {
+        CompletableFuture<Optional<Person>> person = cache.getIfPresent(id);
+        if (person == null || !person.isDone() || person.isCompletedExceptionally()) {
+            return null;
+        }
+        return person.join().orElse(null);
+    }
+
+    /**
+     * Drops the entry now and, when called inside a transaction, once more after it commits so a
+     * concurrent read cannot put the pre-commit row back into the cache.
+     */
+    public void evict(Long id) {
+        if (id == null) {
+            return;
+        }
+        cache.synchronous().invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.synchronous().invalidate(id);
+                }
+            });
+        }
+    }
+
+    public void evictAll(Iterable<Long> ids) {
+        ids.forEach(this::evict);
+    }
+
+    public long size() {
+        return cache.synchronous().estimatedSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, NAME);
+    }
+
+    private record PersonExpiry(long ttlNanos, long negativeTtlNanos) implements Expiry<Long, Optional<Person>> {
+
+        @Override
+        public long expireAfterCreate(Long id, Optional<Person> person, long currentTime) {
+            return person.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Long id, Optional<Person> person, long currentTime, long currentDuration) {
+            return expireAfterCreate(id, person, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long id, Optional<Person> person, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.tidz.people.changes;
+
+import com.tidz.people.exceptions.ChangesCompactedException;
+import com.tidz.people.model.PersonChange;
+import com.tidz.people.repository.PersonChangeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Outbox of person writes. Rows are appended in the writing transaction and numbered by a
+ * sequencer once committed, so a late commit never gets a number a consumer has already passed.
+ */
+@Component
+@Profile("!reactive")
+public class PersonChangeLog implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PersonChangeLog.class);
+
+    private final PersonChangeRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+    private final int batchSize;
+    private final long sequenceIntervalNanos;
+    private final long compactIntervalNanos;
+    private final Duration compactAfter;
+    private final Duration tombstoneRetention;
+    private final ReentrantLock sequencedLock = new ReentrantLock();
+    private final Condition sequenced = sequencedLock.newCondition();
+    private final Counter superseded;
+    private final Counter purged;
+
+    private volatile long latestSeq;
+    private volatile boolean running;
+    private volatile Thread sequencer;
+
+    @Autowired
+    public PersonChangeLog(PersonChangeRepository repository, PlatformTransactionManager transactionManager,
+                           MeterRegistry registry,
+                           @Value("${people.changes.batch-size:1000}") int batchSize,
+                           @Value("${people.changes.sequence-interval:200ms}") Duration sequenceInterval,
+                           @Value("${people.changes.compact-interval:5m}") Duration compactInterval,
+                           @Value("${people.changes.compact-after:1h}") Duration compactAfter,
+                           @Value("${people.changes.tombstone-retention:7d}") Duration tombstoneRetention) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.batchSize = batchSize;
+        this.sequenceIntervalNanos = sequenceInterval.toNanos();
+        this.compactIntervalNanos = compactInterval.toNanos();
+        this.compactAfter = compactAfter;
+        this.tombstoneRetention = tombstoneRetention;
+
+        Gauge.builder("people.changes.latest-seq", this, PersonChangeLog::latestSeq)
+                .description("Highest sequence number published to the change feed")
+                .register(registry);
+        this.superseded = Counter.builder("people.changes.compacted").tag("reason", "superseded").register(registry);
+        this.purged = Counter.builder("people.changes.compacted").tag("reason", "tombstone").register(registry);
+    }
+
+    /**
+     * Must run in the writing transaction, after the write.
+     */
+    public void upserted(Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            repository.appendUpserts(ids, Instant.now());
+            wakeAfterCommit();
+        }
+    }
+
+    public void upserted(Long id) {
+        upserted(List.of(id));
+    }
+
+    /**
+     * Must run in the deleting transaction, before the delete.
+     */
+    public void deleting(Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            repository.appendDeletes(ids, Instant.now());
+            wakeAfterCommit();
+        }
+    }
+
+    /**
+     * @throws ChangesCompactedException when tombstones after {@code since} have been purged
+     */
+    public List<PersonChange> read(long since, int limit) {
+        return readOnlyTemplate.execute(status -> {
+            long purgedThrough = repository.findPurgedThrough();
+            if (since > 0 && since < purgedThrough) {
+                throw new ChangesCompactedException("Changes up to " + purgedThrough + " have been compacted; read again from 0");
+            }
+            return repository.findBySeqGreaterThanOrderBySeqAsc(since, Limit.of(limit));
+        });
+    }
+
+    /**
+     * Changes numbered by other instances are seen within one sequence interval.
+     */
+    public boolean await(long since, Duration timeout) throws InterruptedException {
+        long remaining = timeout.toNanos();
+        sequencedLock.lock();
+        try {
+            while (latestSeq <= since) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = sequenced.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            sequencedLock.unlock();
+        }
+    }
+
+    public long latestSeq() {
+        return latestSeq;
+    }
+
+    public int sequence() {
+        long[] latest = new long[1];
+        Integer numbered = transactionTemplate.execute(status -> {
+            long next = repository.lockNextSeq();
+            List<PersonChange> pending = repository.findBySeqIsNullOrderByIdAsc(Limit.of(batchSize));
+            for (PersonChange change : pending) {
+                change.setSeq(next++);
+            }
+            if (!pending.isEmpty()) {
+                repository.setNextSeq(next);
+            }
+            latest[0] = next - 1;
+            return pending.size();
+        });
+        published(latest[0]);
+        return numbered;
+    }
+
+    /**
+     * Dropping a superseded change does not move the purge watermark: the person's later change is
+     * still ahead of any cursor that skipped it.
+     */
+    public void compact() {
+        Instant now = Instant.now();
+        Instant supersededBefore = now.minus(compactAfter);
+        Instant purgedBefore = now.minus(tombstoneRetention);
+        int dropped;
+        do {
+            dropped = transactionTemplate.execute(status -> {
+                List<Long> seqs = repository.findSupersededSeqs(supersededBefore, Limit.of(batchSize));
+                return seqs.isEmpty() ? 0 : repository.deleteBySeqs(seqs);
+            });
+            superseded.increment(dropped);
+        } while (dropped >= batchSize);
+        do {
+            dropped = transactionTemplate.execute(status -> {
+                List<Long> seqs = repository.findExpiredTombstoneSeqs(purgedBefore, Limit.of(batchSize));
+                if (seqs.isEmpty()) {
+                    return 0;
+                }
+                repository.setPurgedThrough(seqs.getLast());
+                return repository.deleteBySeqs(seqs);
+            });
+            purged.increment(dropped);
+        } while (dropped >= batchSize);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        sequencer = Thread.ofPlatform().name("people-change-sequencer").start(this::sequenceLoop);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = sequencer;
+        if (thread == null) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join(Duration.ofSeconds(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void sequenceLoop() {
+        long nextCompaction = System.nanoTime();
+        while (running) {
+            int numbered = 0;
+            try {
+                numbered = sequence();
+                if (System.nanoTime() - nextCompaction >= 0) {
+                    compact();
+                    nextCompaction = System.nanoTime() + compactIntervalNanos;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Sequencing person changes failed", e);
+            }
+            if (numbered < batchSize) {
+                LockSupport.parkNanos(this, sequenceIntervalNanos);
+            }
+        }
+    }
+
+    private void published(long seq) {
+        if (seq <= latestSeq) {
+            return;
+        }
+        sequencedLock.lock();
+        try {
+            latestSeq = Math.max(latestSeq, seq);
+            sequenced.signalAll();
+        } finally {
+            sequencedLock.unlock();
+        }
+    }
+
+    private void wakeAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    LockSupport.unpark(sequencer);
+                }
+            });
+        } else {
+            LockSupport.unpark(sequencer);
+        }
+    }
+}
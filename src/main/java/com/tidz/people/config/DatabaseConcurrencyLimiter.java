@@ -0,0 +1,170 @@
+package com.tidz.people.config;
+
+import com.tidz.people.exceptions.DatabaseBusyException;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * With virtual threads every request gets its own thread, so nothing stops thousands of them from
+ * queueing on the Hikari pool and failing with connection timeouts. This wraps the application's
+ * {@code dataSource} so that each connection handed out holds a permit of a fair semaphore until it
+ * is closed; callers that cannot get one within the acquire timeout fail fast with 503. Work that
+ * never opens a connection, such as cache and in-memory replica hits, takes no permit.
+ * <p>
+ * With read/write splitting the primary and every replica pool are wrapped instead, each with a
+ * semaphore of its own, so reads queueing for a replica never hold the permits writes need.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class DatabaseConcurrencyLimiter implements BeanPostProcessor, MeterBinder {
+
+    static final String DATA_SOURCE_BEAN = "dataSource";
+
+    private final int maxConcurrency;
+    private final long acquireTimeoutNanos;
+    private final List<LimitedDataSource> limited = new CopyOnWriteArrayList<>();
+    private volatile MeterRegistry registry;
+
+    @Autowired
+    public DatabaseConcurrencyLimiter(@Value("${people.db.max-concurrency:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrency,
+                                      @Value("${people.db.acquire-timeout:2s}") Duration acquireTimeout) {
+        this.maxConcurrency = maxConcurrency;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof ReplicaRoutingDataSource routing) {
+            routing.decorateTargets(this::wrap);
+            return bean;
+        }
+        if (bean instanceof DataSource dataSource && DATA_SOURCE_BEAN.equals(beanName) && !routes(dataSource)) {
+            return wrap(dataSource);
+        }
+        return bean;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        limited.forEach(dataSource -> dataSource.bindTo(registry));
+    }
+
+    private DataSource wrap(DataSource target) {
+        LimitedDataSource dataSource = new LimitedDataSource(target);
+        limited.add(dataSource);
+        MeterRegistry meterRegistry = registry;
+        if (meterRegistry != null) {
+            dataSource.bindTo(meterRegistry);
+        }
+        return dataSource;
+    }
+
+    /**
+     * Whether the pools behind {@code dataSource} are reached through a {@link ReplicaRoutingDataSource},
+     * whose targets are limited one by one.
+     */
+    private static boolean routes(DataSource dataSource) {
+        return dataSource instanceof DelegatingDataSource delegating
+                && delegating.getTargetDataSource() instanceof ReplicaRoutingDataSource;
+    }
+
+    private class LimitedDataSource extends DelegatingDataSource {
+
+        private final Semaphore permits = new Semaphore(maxConcurrency, true);
+        private final String pool;
+
+        LimitedDataSource(DataSource target) {
+            super(target);
+            this.pool = target instanceof HikariDataSource hikari && hikari.getPoolName() != null
+                    ? hikari.getPoolName() : DATA_SOURCE_BEAN;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            acquire();
+            try {
+                return limit(obtainTargetDataSource().getConnection());
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            acquire();
+            try {
+                return limit(obtainTargetDataSource().getConnection(username, password));
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        void bindTo(MeterRegistry registry) {
+            Gauge.builder("people.db.limiter.active", permits, p -> maxConcurrency - p.availablePermits())
+                    .description("Connections currently holding a database permit")
+                    .tag("pool", pool)
+                    .register(registry);
+            Gauge.builder("people.db.limiter.waiting", permits, Semaphore::getQueueLength)
+                    .description("Callers waiting for a database permit")
+                    .tag("pool", pool)
+                    .register(registry);
+        }
+
+        private void acquire() {
+            try {
+                if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                    throw new DatabaseBusyException("Database is busy, try again later");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DatabaseBusyException("Interrupted while waiting for the database");
+            }
+        }
+
+        private Connection limit(Connection connection) {
+            AtomicBoolean released = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("close")) {
+                            if (released.compareAndSet(false, true)) {
+                                try {
+                                    connection.close();
+                                } finally {
+                                    permits.release();
+                                }
+                            }
+                            return null;
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.tidz.people.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.tidz.people.controller.PersonController;
+import com.tidz.people.response.PersonProtobufHttpMessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Binary representations offered next to JSON through the {@code Accept} header: Jackson Smile
+ * ({@code application/x-jackson-smile}), CBOR ({@code application/cbor}) and protobuf
+ * ({@code application/x-protobuf}). The Smile and CBOR converters take the place of Spring's
+ * defaults, which come after JSON, and are built from Boot's mapper settings; protobuf is appended
+ * last and only offered by {@link PersonController}. JSON therefore stays the answer to {@code Accept: *}{@code /*} and to requests without one.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("!reactive")
+public class MessageFormatConfig {
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.createXmlMapper(false).factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.createXmlMapper(false).factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public WebMvcConfigurer protobufConfigurer() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+                converters.add(new PersonProtobufHttpMessageConverter(PersonController.class));
+            }
+        };
+    }
+}
@@ -0,0 +1,56 @@
+package com.tidz.people.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    @Profile("!reactive")
+    public HibernatePropertiesCustomizer queryCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCounter());
+    }
+
+    @Bean
+    @Profile("!reactive")
+    public WebMvcConfigurer queryCountInterceptorConfigurer(MeterRegistry registry) {
+        QueryCountInterceptor interceptor = new QueryCountInterceptor(registry);
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry interceptors) {
+                interceptors.addInterceptor(interceptor).addPathPatterns("/api/**");
+            }
+        };
+    }
+
+    @Bean
+    @Profile("!reactive")
+    public FilterRegistrationBean<StartupTimer> startupTimer(MeterRegistry registry) {
+        FilterRegistrationBean<StartupTimer> registration = new FilterRegistrationBean<>(new StartupTimer(registry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean(destroyMethod = "close")
+    @Profile("!reactive")
+    public SlowQueryLogSampler slowQueryLogSampler(MeterRegistry registry,
+                                                   @Value("${people.db.slow-query-log.max-per-second:5}") int maxPerSecond) {
+        return new SlowQueryLogSampler(registry, maxPerSecond).install();
+    }
+}
@@ -0,0 +1,23 @@
+package com.tidz.people.config;
+
+import com.tidz.people.controller.PreferenceHandlerMapping;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+@Configuration(proxyBeanMethods = false)
+@Profile("!reactive")
+public class PreferenceMappingConfig {
+
+    @Bean
+    public WebMvcRegistrations preferenceHandlerMapping() {
+        return new WebMvcRegistrations() {
+            @Override
+            public RequestMappingHandlerMapping getRequestMappingHandlerMapping() {
+                return new PreferenceHandlerMapping();
+            }
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package com.tidz.people.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Records the number of SQL statements each handler executed as the {@code people.db.statements}
+ * distribution, tagged with the handler method.
+ */
+public class QueryCountInterceptor implements HandlerInterceptor {
+
+    private final MeterRegistry registry;
+
+    public QueryCountInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryCounter.reset();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            DistributionSummary.builder("people.db.statements")
+                    .description("SQL statements executed per request")
+                    .tag("endpoint", handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName())
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(QueryCounter.count());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.tidz.people.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tidz.people.ratelimit.RateLimitInterceptor;
+import com.tidz.people.ratelimit.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Map;
+
+/**
+ * Per-client rate limiting of the {@code @RateLimited} handlers, switched on by
+ * {@code people.rate-limit.enabled}. Limits are read from {@code people.rate-limit.limits.<name>}.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("!reactive")
+@ConditionalOnProperty(name = "people.rate-limit.enabled", havingValue = "true")
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimitInterceptor rateLimitInterceptor(Environment environment, ObjectMapper objectMapper, MeterRegistry registry,
+                                                     @Value("${people.rate-limit.max-clients:100000}") long maxClients) {
+        Map<String, TokenBucketRateLimiter.Limit> limits = Binder.get(environment)
+                .bind("people.rate-limit.limits", Bindable.mapOf(String.class, TokenBucketRateLimiter.Limit.class))
+                .orElse(Map.of());
+        return new RateLimitInterceptor(limits, maxClients, objectMapper, registry);
+    }
+
+    @Bean
+    public WebMvcConfigurer rateLimitConfigurer(RateLimitInterceptor rateLimitInterceptor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry interceptors) {
+                interceptors.addInterceptor(rateLimitInterceptor).addPathPatterns("/api/**").order(Ordered.HIGHEST_PRECEDENCE);
+            }
+        };
+    }
+}
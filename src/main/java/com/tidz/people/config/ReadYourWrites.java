@@ -0,0 +1,89 @@
+package com.tidz.people.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.util.WebUtils;
+
+import java.time.Duration;
+
+/**
+ * Keeps a client's reads on the primary for a while after it wrote, so it never reads a replica that
+ * has not caught up with its own write yet. The time of the last write travels in a cookie: a
+ * request that carries a recent one is pinned to the primary for its whole duration, and a request
+ * that writes sets it.
+ */
+public class ReadYourWrites implements AsyncHandlerInterceptor {
+
+    public static final String COOKIE = "people-last-write";
+
+    private enum State {
+        PINNED, WROTE
+    }
+
+    private static final ThreadLocal<State> STATE = new ThreadLocal<>();
+
+    private final Duration window;
+
+    public ReadYourWrites(Duration window) {
+        this.window = window;
+    }
+
+    public boolean isPinned() {
+        return STATE.get() != null;
+    }
+
+    /**
+     * Called when the current thread takes a connection for a read-write transaction. The first
+     * write of a request pins the rest of it and, while the response is still open, sets the cookie.
+     * Outside a request there is no client to track and nothing would clear the pin, so it is ignored.
+     */
+    public void recordWrite() {
+        if (STATE.get() == State.WROTE
+                || !(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return;
+        }
+        STATE.set(State.WROTE);
+        if (attributes.getResponse() != null && !attributes.getResponse().isCommitted()) {
+            ResponseCookie cookie = ResponseCookie.from(COOKIE, String.valueOf(System.currentTimeMillis()))
+                    .maxAge(Duration.ofSeconds(Math.max(1, (window.toMillis() + 999) / 1000)))
+                    .path("/")
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build();
+            attributes.getResponse().addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Cookie cookie = WebUtils.getCookie(request, COOKIE);
+        if (cookie != null && wroteRecently(cookie.getValue())) {
+            STATE.set(State.PINNED);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        STATE.remove();
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        STATE.remove();
+    }
+
+    private boolean wroteRecently(String value) {
+        try {
+            return System.currentTimeMillis() - Long.parseLong(value) < window.toMillis();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.tidz.people.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the primary. It has to sit behind
+ * a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction
+ * manager asks for a connection before the read-only flag of the transaction is published, and the
+ * proxy defers that until the first statement, when the flag can be seen here.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    public enum Selection {
+        ROUND_ROBIN, LEAST_CONNECTIONS;
+
+        public static Selection of(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final Selection selection;
+    private final ReadYourWrites readYourWrites;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Selection selection, ReadYourWrites readYourWrites) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.selection = selection;
+        this.readYourWrites = readYourWrites;
+        decorateTargets(UnaryOperator.identity());
+    }
+
+    /**
+     * Routes to what {@code decorator} makes of the primary and of each replica, every pool wrapped
+     * on its own. Least-connections selection keeps looking at the pools themselves.
+     */
+    public void decorateTargets(UnaryOperator<DataSource> decorator) {
+        DataSource decoratedPrimary = decorator.apply(primary);
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, decoratedPrimary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, decorator.apply(replicas.get(i)));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(decoratedPrimary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readYourWrites.recordWrite();
+            return PRIMARY;
+        }
+        if (readYourWrites.isPinned() || replicas.isEmpty()) {
+            return PRIMARY;
+        }
+        return selection == Selection.LEAST_CONNECTIONS ? leastConnections() : Math.floorMod(next.getAndIncrement(), replicas.size());
+    }
+
+    /**
+     * Closes the replica pools, which are owned here rather than by the application context.
+     */
+    @Override
+    public void close() throws IOException {
+        for (DataSource replica : replicas) {
+            if (replica instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private int leastConnections() {
+        int best = 0;
+        int bestActive = Integer.MAX_VALUE;
+        for (int i = 0; i < replicas.size(); i++) {
+            int active = activeConnections(replicas.get(i));
+            if (active < bestActive) {
+                best = i;
+                bestActive = active;
+            }
+        }
+        return best;
+    }
+
+    private static int activeConnections(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            return pool == null ? 0 : pool.getActiveConnections();
+        }
+        return 0;
+    }
+}
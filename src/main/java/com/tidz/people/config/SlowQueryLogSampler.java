@@ -0,0 +1,95 @@
+package com.tidz.people.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Caps Hibernate's slow query log, {@code org.hibernate.SQL_SLOW}, at a number of lines per second;
+ * under load every statement can be slow and the log would drown in them. Each second with lines
+ * dropped is summed up in one line of its own, and every slow query is counted in the
+ * {@code people.db.slow-queries} counter whether it was logged or not.
+ */
+public class SlowQueryLogSampler extends TurboFilter implements AutoCloseable {
+
+    static final String SLOW_QUERY_LOGGER = "org.hibernate.SQL_SLOW";
+
+    private static final org.slf4j.Logger log = LoggerFactory.getLogger(SlowQueryLogSampler.class);
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Counter slowQueries;
+    private final int maxPerSecond;
+    private final LongSupplier nanoTime;
+    private long windowStart;
+    private int logged;
+    private int dropped;
+
+    public SlowQueryLogSampler(MeterRegistry registry, int maxPerSecond) {
+        this(registry, maxPerSecond, System::nanoTime);
+    }
+
+    SlowQueryLogSampler(MeterRegistry registry, int maxPerSecond, LongSupplier nanoTime) {
+        this.slowQueries = Counter.builder("people.db.slow-queries")
+                .description("Statements slower than hibernate.log_slow_query")
+                .register(registry);
+        this.maxPerSecond = maxPerSecond;
+        this.nanoTime = nanoTime;
+        this.windowStart = nanoTime.getAsLong();
+    }
+
+    /**
+     * Adds the filter to the Logback context; {@link #close()} takes it out again.
+     */
+    public SlowQueryLogSampler install() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        setContext(context);
+        start();
+        context.addTurboFilter(this);
+        return this;
+    }
+
+    @Override
+    public void close() {
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).getTurboFilterList().remove(this);
+        stop();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // Level checks come without a message and are not log lines.
+        if (format == null || !SLOW_QUERY_LOGGER.equals(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        slowQueries.increment();
+        int droppedLastWindow = 0;
+        boolean allowed;
+        synchronized (this) {
+            long now = nanoTime.getAsLong();
+            if (now - windowStart >= WINDOW_NANOS) {
+                droppedLastWindow = dropped;
+                windowStart = now;
+                logged = 0;
+                dropped = 0;
+            }
+            allowed = logged < maxPerSecond;
+            if (allowed) {
+                logged++;
+            } else {
+                dropped++;
+            }
+        }
+        if (droppedLastWindow > 0) {
+            log.info("Dropped {} slow query log lines over the limit of {} per second", droppedLastWindow, maxPerSecond);
+        }
+        return allowed ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
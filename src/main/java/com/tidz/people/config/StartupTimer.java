@@ -0,0 +1,77 @@
+package com.tidz.people.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.AotDetector;
+import org.springframework.core.NativeDetector;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Measures the time from process start until the first request of any kind, health probes
+ * included, has been answered. It is logged once and published as the
+ * {@code people.startup.first-request} gauge, tagged with the startup mode: {@code native},
+ * or {@code jvm} with {@code +aot} and {@code +cds} when those are in use.
+ */
+public class StartupTimer implements Filter {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimer.class);
+
+    private final MeterRegistry registry;
+    private final Instant processStart;
+    private final AtomicBoolean served = new AtomicBoolean();
+
+    public StartupTimer(MeterRegistry registry) {
+        this(registry, processStart());
+    }
+
+    StartupTimer(MeterRegistry registry, Instant processStart) {
+        this.registry = registry;
+        this.processStart = processStart;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        chain.doFilter(request, response);
+        if (!served.get() && served.compareAndSet(false, true)) {
+            Duration elapsed = Duration.between(processStart, Instant.now());
+            String mode = mode();
+            TimeGauge.builder("people.startup.first-request", elapsed, TimeUnit.MILLISECONDS, Duration::toMillis)
+                    .description("Time from process start until the first request was served")
+                    .tag("mode", mode)
+                    .register(registry);
+            log.info("Served the first request {} ms after process start (mode: {})", elapsed.toMillis(), mode);
+        }
+    }
+
+    static String mode() {
+        if (NativeDetector.inNativeImage()) {
+            return "native";
+        }
+        String mode = "jvm";
+        if (AotDetector.useGeneratedArtifacts()) {
+            mode += "+aot";
+        }
+        if (ManagementFactory.getRuntimeMXBean().getInputArguments().stream().anyMatch(argument -> argument.startsWith("-XX:SharedArchiveFile"))) {
+            mode += "+cds";
+        }
+        return mode;
+    }
+
+    private static Instant processStart() {
+        return ProcessHandle.current().info().startInstant()
+                .orElseGet(() -> Instant.ofEpochMilli(ManagementFactory.getRuntimeMXBean().getStartTime()));
+    }
+}
@@ -0,0 +1,60 @@
+package com.tidz.people.controller;
+
+import com.tidz.people.exceptions.ChangesCompactedException;
+import com.tidz.people.exceptions.DatabaseBusyException;
+import com.tidz.people.exceptions.InvalidFieldsException;
+import com.tidz.people.exceptions.InvalidHistogramException;
+import com.tidz.people.exceptions.InvalidQueryException;
+import com.tidz.people.exceptions.InvalidRecordException;
+import com.tidz.people.exceptions.PreconditionFailedException;
+import com.tidz.people.exceptions.ReindexRunningException;
+import com.tidz.people.exceptions.ResourceNotFoundException;
+import com.tidz.people.exceptions.UnsupportedFormatException;
+import com.tidz.people.response.ApiResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Answers the exceptions that escape a controller with the same {@link ApiResponse} body that
+ * {@link PersonController} returns for its own 404 and 412, rather than Spring's error page.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    @ExceptionHandler({InvalidFieldsException.class, InvalidHistogramException.class, InvalidQueryException.class,
+            InvalidRecordException.class, UnsupportedFormatException.class})
+    public ResponseEntity<ApiResponse> badRequest(RuntimeException e) {
+        return error(HttpStatus.BAD_REQUEST, e);
+    }
+
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ApiResponse> notFound(ResourceNotFoundException e) {
+        return error(HttpStatus.NOT_FOUND, e);
+    }
+
+    @ExceptionHandler(ReindexRunningException.class)
+    public ResponseEntity<ApiResponse> conflict(ReindexRunningException e) {
+        return error(HttpStatus.CONFLICT, e);
+    }
+
+    @ExceptionHandler(ChangesCompactedException.class)
+    public ResponseEntity<ApiResponse> gone(ChangesCompactedException e) {
+        return error(HttpStatus.GONE, e);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ApiResponse> preconditionFailed(PreconditionFailedException e) {
+        return error(HttpStatus.PRECONDITION_FAILED, e);
+    }
+
+    @ExceptionHandler(DatabaseBusyException.class)
+    public ResponseEntity<ApiResponse> serviceUnavailable(DatabaseBusyException e) {
+        return error(HttpStatus.SERVICE_UNAVAILABLE, e);
+    }
+
+    private static ResponseEntity<ApiResponse> error(HttpStatus status, RuntimeException e) {
+        return ResponseEntity.status(status).body(new ApiResponse(e.getMessage(), null));
+    }
+}
@@ -0,0 +1,47 @@
+package com.tidz.people.controller;
+
+import com.tidz.people.model.Person;
+import com.tidz.people.ratelimit.RateLimited;
+import com.tidz.people.response.ApiResponse;
+import com.tidz.people.response.BatchItemResult;
+import com.tidz.people.service.PersonBatchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/people/batch")
+@Profile("!reactive")
+public class PersonBatchController {
+
+    private final PersonBatchService service;
+
+    @Autowired
+    public PersonBatchController(PersonBatchService service) {
+        this.service = service;
+    }
+
+    @PostMapping("")
+    @RateLimited("write")
+    public ResponseEntity<ApiResponse> savePeople(@RequestBody List<Person> people) {
+        List<BatchItemResult> results = service.saveAll(people);
+        return ResponseEntity.ok(new ApiResponse("Success", results));
+    }
+
+    @PutMapping("")
+    @RateLimited("write")
+    public ResponseEntity<ApiResponse> updatePeople(@RequestBody List<Person> people) {
+        List<BatchItemResult> results = service.updateAll(people);
+        return ResponseEntity.ok(new ApiResponse("Success", results));
+    }
+
+    @DeleteMapping("")
+    @RateLimited("write")
+    public ResponseEntity<ApiResponse> deletePeople(@RequestBody List<Long> ids) {
+        List<BatchItemResult> results = service.deleteAll(ids);
+        return ResponseEntity.ok(new ApiResponse("Success", results));
+    }
+}
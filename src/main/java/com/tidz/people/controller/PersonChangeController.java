@@ -0,0 +1,65 @@
+package com.tidz.people.controller;
+
+import com.tidz.people.changes.PersonChangeLog;
+import com.tidz.people.model.PersonChange;
+import com.tidz.people.ratelimit.RateLimited;
+import com.tidz.people.response.ApiResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+@RestController
+@RequestMapping("/api/people/changes")
+@Profile("!reactive")
+public class PersonChangeController {
+
+    public static final int DEFAULT_LIMIT = 500;
+    public static final int MAX_LIMIT = 5000;
+
+    private final PersonChangeLog changeLog;
+    private final Duration maxWait;
+    private final Semaphore waiters;
+
+    @Autowired
+    public PersonChangeController(PersonChangeLog changeLog, @Value("${people.changes.max-wait:30s}") Duration maxWait,
+                                  @Value("${people.changes.max-waiters:100}") int maxWaiters) {
+        this.changeLog = changeLog;
+        this.maxWait = maxWait;
+        this.waiters = new Semaphore(maxWaiters);
+    }
+
+    /**
+     * Answers 410 once tombstones after {@code since} have been purged; the consumer then reads
+     * again from 0.
+     */
+    @GetMapping("")
+    @RateLimited("read")
+    public ResponseEntity<ApiResponse> getChanges(@RequestParam(value = "since", defaultValue = "0") long since,
+                                                  @RequestParam(value = "limit", defaultValue = "" + DEFAULT_LIMIT) int limit,
+                                                  @RequestParam(value = "wait", defaultValue = "0") long wait) throws InterruptedException {
+        int pageLimit = Math.clamp(limit, 1, MAX_LIMIT);
+        List<PersonChange> changes = changeLog.read(since, pageLimit);
+        if (changes.isEmpty() && wait > 0 && waiters.tryAcquire()) {
+            try {
+                if (changeLog.await(since, Duration.ofSeconds(Math.min(wait, maxWait.toSeconds())))) {
+                    changes = changeLog.read(since, pageLimit);
+                }
+            } finally {
+                waiters.release();
+            }
+        }
+        long next = changes.isEmpty() ? since : changes.getLast().getSeq();
+        return ResponseEntity.ok()
+                .header(PersonController.NEXT_CURSOR_HEADER, String.valueOf(next))
+                .body(new ApiResponse("Success", changes));
+    }
+}
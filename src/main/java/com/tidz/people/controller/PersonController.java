@@ -1,44 +1,126 @@
 package com.tidz.people.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.tidz.people.exceptions.PreconditionFailedException;
 import com.tidz.people.exceptions.ResourceNotFoundException;
 import com.tidz.people.model.Person;
+import com.tidz.people.model.PersonField;
+import com.tidz.people.model.PersonVersion;
+import com.tidz.people.model.PersonView;
+import com.tidz.people.ratelimit.RateLimited;
 import com.tidz.people.response.ApiResponse;
 import com.tidz.people.service.PersonService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/people")
+@Profile("!reactive")
 public class PersonController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final PersonService service;
+    private final ObjectWriter personWriter;
 
     @Autowired
-    public PersonController(PersonService service) {
+    public PersonController(PersonService service, ObjectMapper objectMapper) {
         this.service = service;
+        this.personWriter = objectMapper.writerFor(Person.class);
     }
 
     @PostMapping("")
+    @RateLimited("write")
     public ResponseEntity<ApiResponse> savePerson(@RequestBody Person person) {
         Person savedPerson = service.save(person);
         return ResponseEntity.ok(new ApiResponse("Success", savedPerson));
     }
 
+    /**
+     * {@code fields=id,name} selects only those columns; pages are read as records either way, never
+     * as managed entities.
+     */
     @GetMapping("")
-    public ResponseEntity<ApiResponse> getAllPeople() {
-        List<Person> people = service.getAllPersons();
-        return ResponseEntity.ok(new ApiResponse("Success", people));
+    @RateLimited("list")
+    public ResponseEntity<ApiResponse> getAllPeople(@RequestParam(value = "after", required = false) Long after,
+                                                    @RequestParam(value = "limit", defaultValue = "" + PersonService.DEFAULT_PAGE_SIZE) int limit,
+                                                    @RequestParam(value = "fields", required = false) String fields,
+                                                    WebRequest request) {
+        Set<PersonField> selected = PersonField.parse(fields);
+        List<PersonView> people = service.getPersons(after, limit, selected);
+        return page(people, selected, limit, request);
+    }
+
+    @GetMapping("/search")
+    @RateLimited("search")
+    public ResponseEntity<ApiResponse> searchPeople(@RequestParam(value = "profession", required = false) String profession,
+                                                    @RequestParam(value = "name", required = false) String namePrefix,
+                                                    @RequestParam(value = "minAge", required = false) Integer minAge,
+                                                    @RequestParam(value = "maxAge", required = false) Integer maxAge,
+                                                    @RequestParam(value = "after", required = false) Long after,
+                                                    @RequestParam(value = "limit", defaultValue = "" + PersonService.DEFAULT_PAGE_SIZE) int limit,
+                                                    @RequestParam(value = "fields", required = false) String fields,
+                                                    WebRequest request) {
+        Set<PersonField> selected = PersonField.parse(fields);
+        List<PersonView> people = service.searchPersons(profession, namePrefix, minAge, maxAge, after, limit, selected);
+        return page(people, selected, limit, request);
+    }
+
+    @GetMapping(value = "", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @RateLimited("list")
+    public ResponseEntity<StreamingResponseBody> streamAllPeople() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = personWriter.createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                service.streamAllPersons(person -> {
+                    try {
+                        personWriter.writeValue(generator, person);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
+    /**
+     * Conditional reads are answered from the version alone, so a matching {@code If-None-Match} or
+     * {@code If-Modified-Since} gets its 304 without the person being loaded or serialized.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse> getPersonById(@PathVariable("id") Long id) {
+    @RateLimited("get")
+    public ResponseEntity<ApiResponse> getPersonById(@PathVariable("id") Long id,
+                                                     @RequestParam(value = "fields", required = false) String fields,
+                                                     WebRequest request) {
         try {
+            Set<PersonField> selected = PersonField.parse(fields);
+            if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+                PersonVersion version = service.getPersonVersion(id);
+                if (request.checkNotModified(etag(version.version()), lastModified(version))) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+                }
+            }
             Person person = service.getPersonById(id);
-            return ResponseEntity.ok(new ApiResponse("Success", person));
+            Object body = fields == null ? person : PersonView.of(person).only(selected);
+            return validators(ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT), person).body(new ApiResponse("Success", body));
 
         } catch (ResourceNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse(e.getMessage(), null));
@@ -46,22 +128,147 @@ public class PersonController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<ApiResponse> updatePerson(@PathVariable("id") Long id, @RequestBody Person person) {
+    @RateLimited("write")
+    public ResponseEntity<ApiResponse> updatePerson(@PathVariable("id") Long id, @RequestBody Person person,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            Person updatedPerson = service.update(id, person);
-            return ResponseEntity.ok(new ApiResponse("Success", updatedPerson));
+            Person updatedPerson = service.update(id, person, expectedVersion(id, ifMatch));
+            return validators(ResponseEntity.ok(), updatedPerson).body(new ApiResponse("Success", updatedPerson));
         } catch (ResourceNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse(e.getMessage(), null));
+        } catch (PreconditionFailedException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(new ApiResponse(e.getMessage(), null));
+        }
+    }
+
+    @PatchMapping("/{id}")
+    @RateLimited("write")
+    public ResponseEntity<ApiResponse> patchPerson(@PathVariable("id") Long id, @RequestBody Person person,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            Person patchedPerson = service.patch(id, person, expectedVersion(id, ifMatch));
+            return validators(ResponseEntity.ok(), patchedPerson).body(new ApiResponse("Success", patchedPerson));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse(e.getMessage(), null));
+        } catch (PreconditionFailedException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(new ApiResponse(e.getMessage(), null));
         }
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<ApiResponse> deletePerson(@PathVariable("id") Long id) {
+    @RateLimited("write")
+    public ResponseEntity<ApiResponse> deletePerson(@PathVariable("id") Long id,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            service.delete(id);
+            service.delete(id, expectedVersion(id, ifMatch));
             return ResponseEntity.ok(new ApiResponse("Person deleted", null));
         } catch (ResourceNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse(e.getMessage(), null));
+        } catch (PreconditionFailedException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(new ApiResponse(e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Pages are tagged from the ids and versions of their rows, which changes whenever a row in the
+     * page is inserted, updated or deleted without counting or hashing the rest of the table. The
+     * selected fields are part of the tag since they change the representation. The tag is weak: it
+     * names the rows, not the bytes of one format or encoding, and Tomcat leaves responses with a
+     * strong tag uncompressed.
+     */
+    private static ResponseEntity<ApiResponse> page(List<PersonView> people, Set<PersonField> fields, int limit, WebRequest request) {
+        String etag = pageTag(people, fields);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        // The tag is the same in every format, so caches must tell the negotiated formats apart.
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT);
+        if (!people.isEmpty() && people.size() >= Math.min(limit, PersonService.MAX_PAGE_SIZE)) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(people.get(people.size() - 1).id()));
+        }
+        // The id is always read for the cursor and the tag, so it is only dropped here.
+        if (!fields.contains(PersonField.ID)) {
+            people = people.stream().map(person -> person.only(fields)).toList();
+        }
+        return response.body(new ApiResponse("Success", people));
+    }
+
+    static String pageTag(List<PersonView> people, Set<PersonField> fields) {
+        long hash = 17;
+        for (PersonField field : fields) {
+            hash = 31 * hash + field.ordinal();
+        }
+        for (PersonView person : people) {
+            hash = 31 * hash + Objects.hashCode(person.id());
+            hash = 31 * hash + Objects.hashCode(person.version());
+        }
+        return "W/\"" + people.size() + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * The tag of one person is weak for the same reason as a page's: it names the version, which the
+     * JSON, Smile, CBOR and protobuf bodies and every {@code fields=} selection of it share, not the
+     * bytes of any one of them.
+     */
+    static String etag(Long version) {
+        return version == null ? null : "W/\"" + version + "\"";
+    }
+
+    /**
+     * Reads the version a write is conditioned on out of an {@code If-Match} list. {@code *} and a
+     * missing header put no condition on the write. Tags are compared on the version they name,
+     * weak or not, since that is what the write depends on; when several are listed, the current
+     * version is the expected one if it is among them. Unrecognised tags never match.
+     */
+    private Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        Set<Long> versions = new LinkedHashSet<>();
+        for (String entry : ifMatch.split(",")) {
+            String tag = entry.trim();
+            if (tag.equals("*")) {
+                return null;
+            }
+            Long version = version(tag.startsWith("W/") ? tag.substring(2) : tag);
+            if (version != null) {
+                versions.add(version);
+            }
+        }
+        if (versions.size() == 1) {
+            return versions.iterator().next();
+        }
+        if (!versions.isEmpty()) {
+            Long current = service.getPersonVersion(id).version();
+            if (versions.contains(current)) {
+                return current;
+            }
+        }
+        throw new PreconditionFailedException("Person with id " + id + " does not match " + ifMatch);
+    }
+
+    private static Long version(String tag) {
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.valueOf(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static long lastModified(PersonVersion version) {
+        return version.updatedAt() == null ? -1 : version.updatedAt().toEpochMilli();
+    }
+
+    private static ResponseEntity.BodyBuilder validators(ResponseEntity.BodyBuilder response, Person person) {
+        if (person.getVersion() != null) {
+            response.eTag(etag(person.getVersion()));
+        }
+        if (person.getUpdatedAt() != null) {
+            response.lastModified(person.getUpdatedAt());
         }
+        return response;
     }
 }
@@ -0,0 +1,65 @@
+package com.tidz.people.controller;
+
+import com.tidz.people.ingest.PersonIngestQueue;
+import com.tidz.people.model.Person;
+import com.tidz.people.ratelimit.RateLimited;
+import com.tidz.people.response.ApiResponse;
+import com.tidz.people.response.IngestTicket;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+/**
+ * Asynchronous variant of {@code POST /api/people}, chosen per request with
+ * {@code Prefer: respond-async} (RFC 7240), alone or among other preferences, once
+ * {@code people.ingest.enabled} is set. Without it, or with ingestion disabled, the synchronous
+ * endpoint answers as before.
+ */
+@RestController
+@RequestMapping("/api/people")
+@Profile("!reactive")
+@ConditionalOnProperty(name = "people.ingest.enabled", havingValue = "true")
+public class PersonIngestController {
+
+    public static final String PREFER_HEADER = PreferenceHandlerMapping.PREFER_HEADER;
+    public static final String RESPOND_ASYNC = "respond-async";
+
+    private final PersonIngestQueue ingestQueue;
+
+    @Autowired
+    public PersonIngestController(PersonIngestQueue ingestQueue) {
+        this.ingestQueue = ingestQueue;
+    }
+
+    @PostMapping("")
+    @Preferred(RESPOND_ASYNC)
+    @RateLimited("write")
+    public ResponseEntity<ApiResponse> ingestPerson(@RequestBody Person person) {
+        IngestTicket ticket = ingestQueue.submit(person);
+        if (ticket == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new ApiResponse("Ingest queue is full, try again later", null));
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/people/ingest/" + ticket.id()))
+                .header("Preference-Applied", RESPOND_ASYNC)
+                .body(new ApiResponse("Accepted", ticket));
+    }
+
+    @GetMapping("/ingest/{ticket}")
+    @RateLimited("get")
+    public ResponseEntity<ApiResponse> getTicket(@PathVariable("ticket") String ticketId) {
+        IngestTicket ticket = ingestQueue.status(ticketId);
+        if (ticket == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse("Ticket " + ticketId + " not found", null));
+        }
+        return ResponseEntity.ok(new ApiResponse("Success", ticket));
+    }
+}
@@ -0,0 +1,41 @@
+package com.tidz.people.controller;
+
+import com.tidz.people.exceptions.InvalidQueryException;
+import com.tidz.people.ratelimit.RateLimited;
+import com.tidz.people.response.ApiResponse;
+import com.tidz.people.service.PersonService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/people/search")
+@Profile("!reactive")
+public class PersonSearchController {
+
+    private final PersonService service;
+
+    @Autowired
+    public PersonSearchController(PersonService service) {
+        this.service = service;
+    }
+
+    /**
+     * Persons whose name or profession matches the words of {@code q}, best match first. With
+     * {@code people.search.enabled} a word also matches longer words it starts and words one typo
+     * away, e.g. {@code ?q=jon smit} finds John Smith.
+     */
+    @GetMapping("/text")
+    @RateLimited("search")
+    public ResponseEntity<ApiResponse> searchText(@RequestParam(value = "q", required = false) String q,
+                                                 @RequestParam(value = "limit", defaultValue = "" + PersonService.DEFAULT_MATCH_LIMIT) int limit) {
+        if (q == null || q.isBlank()) {
+            throw new InvalidQueryException("q is required");
+        }
+        return ResponseEntity.ok(new ApiResponse("Success", service.searchText(q, limit)));
+    }
+}
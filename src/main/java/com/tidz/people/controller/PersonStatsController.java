@@ -0,0 +1,51 @@
+package com.tidz.people.controller;
+
+import com.tidz.people.ratelimit.RateLimited;
+import com.tidz.people.response.ApiResponse;
+import com.tidz.people.service.PersonStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/people/stats")
+@Profile("!reactive")
+public class PersonStatsController {
+
+    private final PersonStatsService statsService;
+
+    @Autowired
+    public PersonStatsController(PersonStatsService statsService) {
+        this.statsService = statsService;
+    }
+
+    @GetMapping("/professions")
+    @RateLimited("read")
+    public ResponseEntity<ApiResponse> countByProfession() {
+        return ResponseEntity.ok(new ApiResponse("Success", statsService.countByProfession()));
+    }
+
+    @GetMapping("/professions/ages")
+    @RateLimited("read")
+    public ResponseEntity<ApiResponse> ageStatsByProfession() {
+        return ResponseEntity.ok(new ApiResponse("Success", statsService.ageStatsByProfession()));
+    }
+
+    /**
+     * Age histogram in buckets of {@code width} years, or starting at each of the given
+     * {@code bounds} when those are passed, e.g. {@code ?bounds=18,30,65}.
+     */
+    @GetMapping("/ages")
+    @RateLimited("read")
+    public ResponseEntity<ApiResponse> ageHistogram(@RequestParam(value = "width", defaultValue = "" + PersonStatsService.DEFAULT_BUCKET_WIDTH) int width,
+                                                    @RequestParam(value = "bounds", required = false) List<Integer> bounds) {
+        return ResponseEntity.ok(new ApiResponse("Success",
+                bounds == null ? statsService.ageHistogram(width) : statsService.ageHistogram(bounds)));
+    }
+}
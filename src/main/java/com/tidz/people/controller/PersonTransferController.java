@@ -0,0 +1,152 @@
+package com.tidz.people.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.tidz.people.ratelimit.RateLimited;
+import com.tidz.people.response.ImportProgress;
+import com.tidz.people.service.PersonImportService;
+import com.tidz.people.service.PersonService;
+import com.tidz.people.transfer.PersonReader;
+import com.tidz.people.transfer.PersonWriter;
+import com.tidz.people.transfer.TransferFormat;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bulk export and import of the whole table. Both directions stream: the export is written straight
+ * from the database cursor and the import is parsed record by record while it is being uploaded.
+ */
+@RestController
+@RequestMapping("/api/people")
+@Profile("!reactive")
+public class PersonTransferController {
+
+    private static final String GZIP = "gzip";
+
+    private final PersonService service;
+    private final PersonImportService importService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter progressWriter;
+
+    @Autowired
+    public PersonTransferController(PersonService service, PersonImportService importService, ObjectMapper objectMapper) {
+        this.service = service;
+        this.importService = importService;
+        this.objectMapper = objectMapper;
+        this.progressWriter = objectMapper.writerFor(ImportProgress.class);
+    }
+
+    /**
+     * Streams every person after the {@code after} id, gzip-compressed when the client accepts it.
+     * A client that loses the connection resumes with the last id it received.
+     */
+    @GetMapping("/export")
+    @RateLimited("read")
+    public ResponseEntity<StreamingResponseBody> exportPeople(@RequestParam(value = "format", defaultValue = "csv") String format,
+                                                              @RequestParam(value = "after", required = false) Long after,
+                                                              @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        TransferFormat transferFormat = TransferFormat.of(format);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = outputStream -> {
+            OutputStream target = gzip ? new GZIPOutputStream(outputStream, TransferFormat.BUFFER_SIZE) : outputStream;
+            try (PersonWriter writer = transferFormat.writer(target, objectMapper)) {
+                service.streamPersons(after, person -> {
+                    try {
+                        writer.write(person);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(transferFormat.mediaType())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("people." + transferFormat.extension()).build().toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Imports a raw CSV or NDJSON body, optionally sent with {@code Content-Encoding: gzip}, and
+     * answers with one NDJSON progress line per committed chunk.
+     */
+    @PostMapping(value = "/import", consumes = {TransferFormat.TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @RateLimited("write")
+    public ResponseEntity<StreamingResponseBody> importPeople(@RequestParam(value = "offset", defaultValue = "0") long offset,
+                                                              HttpServletRequest request) throws IOException {
+        TransferFormat format = TransferFormat.of(MediaType.parseMediaType(request.getContentType()));
+        boolean gzip = GZIP.equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING));
+        return importFrom(format, request.getInputStream(), gzip, offset);
+    }
+
+    /**
+     * Imports an uploaded file; the format comes from the {@code format} parameter or else from the
+     * file name, and a {@code .gz} file name means the file is gzip-compressed.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @RateLimited("write")
+    public ResponseEntity<StreamingResponseBody> importFile(@RequestParam("file") MultipartFile file,
+                                                            @RequestParam(value = "format", required = false) String format,
+                                                            @RequestParam(value = "offset", defaultValue = "0") long offset) throws IOException {
+        String fileName = file.getOriginalFilename() == null ? "" : file.getOriginalFilename();
+        TransferFormat transferFormat = TransferFormat.of(format != null ? format : fileName);
+        return importFrom(transferFormat, file.getInputStream(), fileName.endsWith(".gz"), offset);
+    }
+
+    /**
+     * Opens the reader before the response starts, so a missing CSV column or a broken gzip header is
+     * still answered with a 400 instead of a truncated 200.
+     */
+    private ResponseEntity<StreamingResponseBody> importFrom(TransferFormat format, InputStream input, boolean gzip, long offset) throws IOException {
+        PersonReader reader = format.reader(gzip ? new GZIPInputStream(input, TransferFormat.BUFFER_SIZE) : input, objectMapper);
+        StreamingResponseBody body = outputStream -> {
+            try (reader; JsonGenerator generator = progressWriter.createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                importService.importPeople(reader, offset, progress -> {
+                    try {
+                        progressWriter.writeValue(generator, progress);
+                        generator.writeRaw('\n');
+                        generator.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase(GZIP)) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
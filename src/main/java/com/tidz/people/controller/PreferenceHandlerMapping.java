@@ -0,0 +1,66 @@
+package com.tidz.people.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.servlet.mvc.condition.RequestCondition;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Request mapping that honours {@link Preferred}. A plain {@code headers = "Prefer=..."} condition
+ * compares the whole header, so it misses {@code respond-async, wait=10} and the like.
+ */
+public class PreferenceHandlerMapping extends RequestMappingHandlerMapping {
+
+    public static final String PREFER_HEADER = "Prefer";
+
+    @Override
+    protected RequestCondition<?> getCustomMethodCondition(Method method) {
+        Preferred preferred = AnnotatedElementUtils.findMergedAnnotation(method, Preferred.class);
+        return preferred == null ? null : new PreferenceCondition(preferred.value().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * The names of the preferences in the given {@code Prefer} header values, lower-cased. Preferences
+     * are separated by {@code ,}; anything after a {@code ;} is a parameter of the preference before it
+     * (RFC 7240), so {@code return=minimal; respond-async} names {@code return} only.
+     */
+    static Set<String> preferences(Iterable<String> headerValues) {
+        Set<String> names = new HashSet<>();
+        for (String value : headerValues) {
+            for (String preference : value.split(",")) {
+                int end = preference.indexOf(';');
+                String token = end < 0 ? preference : preference.substring(0, end);
+                int equals = token.indexOf('=');
+                String name = (equals < 0 ? token : token.substring(0, equals)).trim();
+                if (!name.isEmpty()) {
+                    names.add(name.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return names;
+    }
+
+    private record PreferenceCondition(String preference) implements RequestCondition<PreferenceCondition> {
+
+        @Override
+        public PreferenceCondition combine(PreferenceCondition other) {
+            return other;
+        }
+
+        @Override
+        public PreferenceCondition getMatchingCondition(HttpServletRequest request) {
+            return preferences(Collections.list(request.getHeaders(PREFER_HEADER))).contains(preference) ? this : null;
+        }
+
+        @Override
+        public int compareTo(PreferenceCondition other, HttpServletRequest request) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.tidz.people.controller;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Narrows a handler method to requests whose {@code Prefer} header (RFC 7240) asks for the named
+ * preference, wherever it appears among the others. Such a handler wins over one for the same path
+ * without the annotation. Needs {@link PreferenceHandlerMapping}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Preferred {
+
+    String value();
+}
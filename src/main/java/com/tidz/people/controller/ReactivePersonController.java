@@ -0,0 +1,91 @@
+package com.tidz.people.controller;
+
+import com.tidz.people.exceptions.ResourceNotFoundException;
+import com.tidz.people.model.Person;
+import com.tidz.people.response.ApiResponse;
+import com.tidz.people.service.PersonService;
+import com.tidz.people.service.ReactivePersonService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * WebFlux version of {@link PersonController}, active with the {@code reactive} profile. It serves
+ * only the create, read, update, delete, paging and NDJSON endpoints of {@code /api/people}, in the
+ * same {@link ApiResponse} envelope; conditional requests, {@code fields=} and search are not offered.
+ */
+@RestController
+@RequestMapping("/api/people")
+@Profile("reactive")
+public class ReactivePersonController {
+
+    private final ReactivePersonService service;
+
+    @Autowired
+    public ReactivePersonController(ReactivePersonService service) {
+        this.service = service;
+    }
+
+    @PostMapping("")
+    public Mono<ResponseEntity<ApiResponse>> savePerson(@RequestBody Person person) {
+        return service.save(person).map(savedPerson -> ResponseEntity.ok(new ApiResponse("Success", savedPerson)));
+    }
+
+    @GetMapping("")
+    public Mono<ResponseEntity<ApiResponse>> getAllPeople(@RequestParam(value = "after", required = false) Long after,
+                                                          @RequestParam(value = "limit", defaultValue = "" + PersonService.DEFAULT_PAGE_SIZE) int limit) {
+        return service.getPersons(after, limit).collectList().map(people -> page(people, limit));
+    }
+
+    @GetMapping(value = "", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Person> streamAllPeople() {
+        return service.streamAllPersons();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ApiResponse>> getPersonById(@PathVariable("id") Long id) {
+        return service.getPersonById(id)
+                .map(person -> ResponseEntity.ok(new ApiResponse("Success", person)))
+                .onErrorResume(ResourceNotFoundException.class, ReactivePersonController::notFound);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<ApiResponse>> updatePerson(@PathVariable("id") Long id, @RequestBody Person person) {
+        return service.update(id, person)
+                .map(updatedPerson -> ResponseEntity.ok(new ApiResponse("Success", updatedPerson)))
+                .onErrorResume(ResourceNotFoundException.class, ReactivePersonController::notFound);
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<ApiResponse>> patchPerson(@PathVariable("id") Long id, @RequestBody Person person) {
+        return service.patch(id, person)
+                .map(patchedPerson -> ResponseEntity.ok(new ApiResponse("Success", patchedPerson)))
+                .onErrorResume(ResourceNotFoundException.class, ReactivePersonController::notFound);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<ApiResponse>> deletePerson(@PathVariable("id") Long id) {
+        return service.delete(id)
+                .thenReturn(ResponseEntity.ok(new ApiResponse("Person deleted", null)))
+                .onErrorResume(ResourceNotFoundException.class, ReactivePersonController::notFound);
+    }
+
+    private static Mono<ResponseEntity<ApiResponse>> notFound(ResourceNotFoundException e) {
+        return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse(e.getMessage(), null)));
+    }
+
+    private static ResponseEntity<ApiResponse> page(List<Person> people, int limit) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!people.isEmpty() && people.size() >= Math.min(limit, PersonService.MAX_PAGE_SIZE)) {
+            response.header(PersonController.NEXT_CURSOR_HEADER, String.valueOf(people.get(people.size() - 1).getId()));
+        }
+        return response.body(new ApiResponse("Success", people));
+    }
+}
@@ -0,0 +1,8 @@
+package com.tidz.people.exceptions;
+
+public class ChangesCompactedException extends RuntimeException {
+
+    public ChangesCompactedException(String message) {
+        super(message);
+    }
+}
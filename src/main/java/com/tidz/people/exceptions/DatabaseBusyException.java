@@ -0,0 +1,8 @@
+package com.tidz.people.exceptions;
+
+public class DatabaseBusyException extends RuntimeException {
+
+    public DatabaseBusyException(String message) {
+        super(message);
+    }
+}
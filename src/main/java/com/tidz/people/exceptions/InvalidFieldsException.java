@@ -0,0 +1,8 @@
+package com.tidz.people.exceptions;
+
+public class InvalidFieldsException extends RuntimeException {
+
+    public InvalidFieldsException(String message) {
+        super(message);
+    }
+}
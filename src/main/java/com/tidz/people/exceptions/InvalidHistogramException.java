@@ -0,0 +1,8 @@
+package com.tidz.people.exceptions;
+
+public class InvalidHistogramException extends RuntimeException {
+
+    public InvalidHistogramException(String message) {
+        super(message);
+    }
+}
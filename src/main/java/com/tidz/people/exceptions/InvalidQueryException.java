@@ -0,0 +1,8 @@
+package com.tidz.people.exceptions;
+
+public class InvalidQueryException extends RuntimeException {
+
+    public InvalidQueryException(String message) {
+        super(message);
+    }
+}
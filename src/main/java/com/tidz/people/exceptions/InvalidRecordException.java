@@ -0,0 +1,8 @@
+package com.tidz.people.exceptions;
+
+public class InvalidRecordException extends RuntimeException {
+
+    public InvalidRecordException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.tidz.people.exceptions;
+
+public class ReindexRunningException extends RuntimeException {
+
+    public ReindexRunningException(String message) {
+        super(message);
+    }
+}
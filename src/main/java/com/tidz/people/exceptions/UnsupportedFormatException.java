@@ -0,0 +1,8 @@
+package com.tidz.people.exceptions;
+
+public class UnsupportedFormatException extends RuntimeException {
+
+    public UnsupportedFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,237 @@
+package com.tidz.people.ingest;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tidz.people.model.Person;
+import com.tidz.people.response.BatchItemResult;
+import com.tidz.people.response.IngestTicket;
+import com.tidz.people.service.PersonBatchService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind buffer for single-person writes. Submitted persons are queued and acknowledged
+ * with a ticket straight away. One flusher thread persists them through {@link PersonBatchService},
+ * so many requests share one transaction and one batched multi-row insert. A batch is written once
+ * it has {@code people.ingest.batch-size} persons or once its oldest person has waited
+ * {@code people.ingest.flush-interval}.
+ * <p>
+ * The queue is a lock-free linked queue, bounded by a CAS-maintained depth, so producers never
+ * block each other; a full queue rejects instead of waiting. On shutdown new submissions are
+ * refused and the flusher drains everything already accepted before the context closes.
+ * <p>
+ * Tickets of persons not yet written are held until they are, which the queue's capacity bounds;
+ * only finished tickets go to the cache that evicts them by size and age.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "people.ingest.enabled", havingValue = "true")
+public class PersonIngestQueue implements SmartLifecycle {
+
+    /**
+     * Stops after the web server has finished its graceful shutdown, so writes accepted by in-flight
+     * requests are still drained.
+     */
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private static final Logger log = LoggerFactory.getLogger(PersonIngestQueue.class);
+
+    private final PersonBatchService batchService;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Duration shutdownTimeout;
+    private final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final ConcurrentMap<String, IngestTicket> pending = new ConcurrentHashMap<>();
+    private final Cache<String, IngestTicket> tickets;
+    private final Timer flushTimer;
+    private final Counter accepted;
+    private final Counter rejected;
+
+    private volatile boolean running;
+    private volatile Thread flusher;
+
+    @Autowired
+    public PersonIngestQueue(PersonBatchService batchService, MeterRegistry registry,
+                             @Value("${people.ingest.queue-capacity:10000}") int capacity,
+                             @Value("${people.ingest.batch-size:500}") int batchSize,
+                             @Value("${people.ingest.flush-interval:50ms}") Duration flushInterval,
+                             @Value("${people.ingest.ticket-ttl:10m}") Duration ticketTtl,
+                             @Value("${people.ingest.shutdown-timeout:30s}") Duration shutdownTimeout) {
+        this.batchService = batchService;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.shutdownTimeout = shutdownTimeout;
+        this.tickets = Caffeine.newBuilder()
+                .maximumSize(Math.max(capacity, batchSize) * 10L)
+                .expireAfterWrite(ticketTtl)
+                .build();
+
+        Gauge.builder("people.ingest.queue.depth", depth, AtomicInteger::get)
+                .description("Persons accepted but not yet written")
+                .register(registry);
+        this.flushTimer = Timer.builder("people.ingest.flush")
+                .description("Time taken to write one batch of queued persons")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.accepted = Counter.builder("people.ingest.submitted").tag("result", "accepted").register(registry);
+        this.rejected = Counter.builder("people.ingest.submitted").tag("result", "rejected").register(registry);
+    }
+
+    /**
+     * Queues the person and returns its ticket, or {@code null} when the queue is full or shutting
+     * down and the caller should retry later.
+     */
+    public IngestTicket submit(Person person) {
+        int size;
+        do {
+            size = depth.get();
+            if (size >= capacity || !running) {
+                rejected.increment();
+                return null;
+            }
+        } while (!depth.compareAndSet(size, size + 1));
+
+        IngestTicket ticket = IngestTicket.queued(UUID.randomUUID().toString());
+        pending.put(ticket.id(), ticket);
+        queue.offer(new Entry(ticket.id(), person, System.nanoTime()));
+        accepted.increment();
+        if (size + 1 >= batchSize) {
+            LockSupport.unpark(flusher);
+        }
+        return ticket;
+    }
+
+    /**
+     * Returns the ticket's current state, or {@code null} once it is unknown or has expired. A ticket
+     * is finished before it stops pending, so looking in that order never misses it.
+     */
+    public IngestTicket status(String ticketId) {
+        IngestTicket ticket = pending.get(ticketId);
+        return ticket != null ? ticket : tickets.getIfPresent(ticketId);
+    }
+
+    public int depth() {
+        return depth.get();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        flusher = Thread.ofPlatform().name("people-ingest-flusher").start(this::flushLoop);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = flusher;
+        if (thread == null) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join(shutdownTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            log.warn("Ingest queue still holds {} persons after waiting {}", depth.get(), shutdownTimeout);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * A submission counts towards the depth before it is in the queue, so once stopping the flusher
+     * keeps going until the depth reaches zero rather than until the queue merely looks empty.
+     */
+    private void flushLoop() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (true) {
+            boolean stopping = !running;
+            Entry entry;
+            while (batch.size() < batchSize && (entry = queue.poll()) != null) {
+                depth.decrementAndGet();
+                batch.add(entry);
+            }
+            long waited = batch.isEmpty() ? 0 : System.nanoTime() - batch.get(0).enqueuedAt();
+            if (!batch.isEmpty() && (batch.size() >= batchSize || stopping || waited >= flushIntervalNanos)) {
+                flush(batch);
+                batch = new ArrayList<>(batchSize);
+            } else if (stopping && depth.get() == 0) {
+                return;
+            } else {
+                LockSupport.parkNanos(this, flushIntervalNanos - waited);
+            }
+        }
+    }
+
+    private void flush(List<Entry> batch) {
+        List<Person> people = new ArrayList<>(batch.size());
+        batch.forEach(entry -> people.add(entry.person()));
+        Timer.Sample sample = Timer.start();
+        try {
+            List<BatchItemResult> results = batchService.saveAll(people);
+            for (BatchItemResult result : results) {
+                Entry entry = batch.get(result.index());
+                finish(new IngestTicket(entry.ticketId(), status(result.status()), result.id(), result.message()));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to write {} queued persons", batch.size(), e);
+            batch.forEach(entry -> finish(new IngestTicket(entry.ticketId(), IngestTicket.Status.FAILED, null, e.getMessage())));
+        } finally {
+            batch.forEach(entry -> {
+                if (pending.containsKey(entry.ticketId())) {
+                    finish(new IngestTicket(entry.ticketId(), IngestTicket.Status.FAILED, null, "No result was returned"));
+                }
+            });
+            sample.stop(flushTimer);
+        }
+    }
+
+    private void finish(IngestTicket ticket) {
+        tickets.put(ticket.id(), ticket);
+        pending.remove(ticket.id());
+    }
+
+    private static IngestTicket.Status status(BatchItemResult.Status status) {
+        return switch (status) {
+            case CREATED -> IngestTicket.Status.CREATED;
+            case INVALID -> IngestTicket.Status.INVALID;
+            default -> IngestTicket.Status.FAILED;
+        };
+    }
+
+    private record Entry(String ticketId, Person person, long enqueuedAt) {
+    }
+}
@@ -0,0 +1,159 @@
+package com.tidz.people.memory;
+
+import com.tidz.people.model.Person;
+import com.tidz.people.model.PersonRow;
+import com.tidz.people.model.PersonVersion;
+import com.tidz.people.model.PersonView;
+import com.tidz.people.repository.PersonRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Whole-table copy of the persons, from which {@code PersonService} answers every read when
+ * {@code people.memory.enabled} is set. Writes are applied once their transactions commit.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "people.memory.enabled", havingValue = "true")
+public class InMemoryPersonReplica implements SmartInitializingSingleton, MeterBinder {
+
+    private final PersonRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final int loadPageSize;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Tombstones tombstones = new Tombstones();
+    private PersonColumns columns = new PersonColumns(0);
+
+    @Autowired
+    public InMemoryPersonReplica(PersonRepository repository, PlatformTransactionManager transactionManager,
+                                 @Value("${people.memory.load-page-size:10000}") int loadPageSize) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.loadPageSize = loadPageSize;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        load();
+    }
+
+    /**
+     * Copies the table page by page in one read-write transaction, so every page comes from the
+     * primary's same snapshot.
+     */
+    public void load() {
+        PersonColumns loaded = transactionTemplate.execute(status -> {
+            PersonColumns table = new PersonColumns((int) Math.min(Integer.MAX_VALUE - 8, repository.count()));
+            List<PersonRow> page = repository.findAllByOrderByIdAsc(Limit.of(loadPageSize), PersonRow.class);
+            while (!page.isEmpty()) {
+                page.forEach(row -> table.put(row.toPerson()));
+                if (page.size() < loadPageSize) {
+                    break;
+                }
+                page = repository.findByIdGreaterThanOrderByIdAsc(page.getLast().id(), Limit.of(loadPageSize), PersonRow.class);
+            }
+            return table;
+        });
+        lock.writeLock().lock();
+        try {
+            columns = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Person get(Long id) {
+        return read(() -> columns.get(id));
+    }
+
+    public PersonVersion version(Long id) {
+        return read(() -> columns.version(id));
+    }
+
+    public List<PersonView> page(Long after, int limit) {
+        return read(() -> columns.page(after, limit));
+    }
+
+    public List<PersonView> search(String profession, String namePrefix, Integer minAge, Integer maxAge,
+                                   Long after, int limit) {
+        return read(() -> columns.search(profession, namePrefix, minAge, maxAge, after, limit));
+    }
+
+    public int size() {
+        return read(() -> columns.size());
+    }
+
+    public void saved(Person person) {
+        afterCommit(() -> {
+            if (!tombstones.buries(person)) {
+                columns.put(person);
+            }
+        });
+    }
+
+    public void deleted(Long id) {
+        deleted(id, null);
+    }
+
+    public void deleted(Long id, Long version) {
+        afterCommit(() -> {
+            columns.remove(id);
+            tombstones.add(id, version);
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("people.memory.persons", this, InMemoryPersonReplica::size)
+                .description("Persons held by the in-memory replica")
+                .register(registry);
+    }
+
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    write(change);
+                }
+            });
+        } else {
+            write(change);
+        }
+    }
+
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private <T> T read(Supplier<T> query) {
+        lock.readLock().lock();
+        try {
+            return query.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
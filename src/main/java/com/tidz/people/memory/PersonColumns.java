@@ -0,0 +1,376 @@
+package com.tidz.people.memory;
+
+import com.tidz.people.model.Person;
+import com.tidz.people.model.PersonVersion;
+import com.tidz.people.model.PersonView;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Column-oriented copy of the persons table: parallel arrays in id order, an id-to-slot map and an
+ * age index. An id below the highest is shifted into place; deleted slots are reclaimed once they
+ * make up half of the table. Professions and name prefixes are compared ignoring case, as MySQL's
+ * default collation compares them in the database. Not thread-safe.
+ */
+public final class PersonColumns {
+
+    private static final int DELETED = -1;
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] ids;
+    private String[] names;
+    private int[] ages;
+    private int[] professions;
+    private long[] versions;
+    private long[] updatedAt;
+    private int slots;
+    private int size;
+
+    private final LongIntHashMap slotsById;
+    private final List<String> professionNames = new ArrayList<>();
+    private final Map<String, Integer> professionCodes = new HashMap<>();
+    private final TreeMap<Integer, SlotList> ageIndex = new TreeMap<>();
+
+    public PersonColumns(int expectedSize) {
+        int capacity = Math.max(MIN_CAPACITY, expectedSize);
+        ids = new long[capacity];
+        names = new String[capacity];
+        ages = new int[capacity];
+        professions = new int[capacity];
+        versions = new long[capacity];
+        updatedAt = new long[capacity];
+        slotsById = new LongIntHashMap(capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Inserts or overwrites the person; incomplete persons and versions not above the stored one are
+     * ignored.
+     */
+    public void put(Person person) {
+        if (person.getId() == null || person.getAge() == null || person.getProfession() == null) {
+            return;
+        }
+        long id = person.getId();
+        int slot = slotsById.get(id);
+        if (slot == LongIntHashMap.MISSING) {
+            insert(person);
+            return;
+        }
+        if (person.getVersion() != null && person.getVersion() <= versions[slot]) {
+            return;
+        }
+        if (ages[slot] != person.getAge()) {
+            unindexAge(slot);
+            ages[slot] = person.getAge();
+            ageIndex.computeIfAbsent(ages[slot], age -> new SlotList()).insert(slot);
+        }
+        names[slot] = person.getName();
+        professions[slot] = professionCode(person.getProfession());
+        versions[slot] = person.getVersion() == null ? 0 : person.getVersion();
+        updatedAt[slot] = micros(person.getUpdatedAt());
+    }
+
+    public boolean remove(long id) {
+        int slot = slotsById.remove(id);
+        if (slot == LongIntHashMap.MISSING) {
+            return false;
+        }
+        unindexAge(slot);
+        professions[slot] = DELETED;
+        names[slot] = null;
+        size--;
+        if (size < slots / 2 && slots > MIN_CAPACITY) {
+            compact();
+        }
+        return true;
+    }
+
+    public Person get(long id) {
+        int slot = slotsById.get(id);
+        if (slot == LongIntHashMap.MISSING) {
+            return null;
+        }
+        Person person = new Person(ids[slot], names[slot], ages[slot], professionNames.get(professions[slot]));
+        person.setVersion(versions[slot]);
+        person.setUpdatedAt(instant(updatedAt[slot]));
+        return person;
+    }
+
+    public PersonVersion version(long id) {
+        int slot = slotsById.get(id);
+        return slot == LongIntHashMap.MISSING ? null : new PersonVersion(versions[slot], instant(updatedAt[slot]));
+    }
+
+    /**
+     * At most {@code limit} persons ordered by id, starting right after the {@code after} cursor.
+     */
+    public List<PersonView> page(Long after, int limit) {
+        return search(null, null, null, null, after, limit);
+    }
+
+    /**
+     * At most {@code limit} persons matching every non-null filter, ordered by id and starting right
+     * after the {@code after} cursor.
+     */
+    public List<PersonView> search(String profession, String namePrefix, Integer minAge, Integer maxAge,
+                                   Long after, int limit) {
+        boolean[] wanted = null;
+        if (profession != null) {
+            wanted = matchingProfessions(profession);
+            if (wanted == null) {
+                return List.of();
+            }
+        }
+        String prefix = namePrefix == null || namePrefix.isEmpty() ? null : namePrefix;
+        int from = after == null ? 0 : firstSlotAfter(after);
+        List<PersonView> result = new ArrayList<>(Math.min(limit, size));
+
+        if (minAge == null && maxAge == null) {
+            for (int slot = from; slot < slots && result.size() < limit; slot++) {
+                if (matches(slot, wanted, prefix)) {
+                    result.add(view(slot));
+                }
+            }
+            return result;
+        }
+
+        NavigableMap<Integer, SlotList> range = ageRange(minAge, maxAge);
+        if (range.isEmpty()) {
+            return result;
+        }
+        PriorityQueue<int[]> cursors = new PriorityQueue<>(range.size(), (left, right) -> Integer.compare(left[0], right[0]));
+        List<SlotList> lists = new ArrayList<>(range.values());
+        for (int i = 0; i < lists.size(); i++) {
+            int position = lists.get(i).firstAtOrAfter(from);
+            if (position < lists.get(i).size) {
+                cursors.add(new int[]{lists.get(i).slots[position], i, position});
+            }
+        }
+        while (!cursors.isEmpty() && result.size() < limit) {
+            int[] cursor = cursors.poll();
+            int slot = cursor[0];
+            if (matches(slot, wanted, prefix)) {
+                result.add(view(slot));
+            }
+            SlotList list = lists.get(cursor[1]);
+            int next = cursor[2] + 1;
+            if (next < list.size) {
+                cursor[0] = list.slots[next];
+                cursor[2] = next;
+                cursors.add(cursor);
+            }
+        }
+        return result;
+    }
+
+    private boolean matches(int slot, boolean[] wanted, String prefix) {
+        int code = professions[slot];
+        return code != DELETED
+                && (wanted == null || wanted[code])
+                && (prefix == null || names[slot] != null && names[slot].regionMatches(true, 0, prefix, 0, prefix.length()));
+    }
+
+    /**
+     * The codes of every stored spelling of {@code profession}, or {@code null} when there is none.
+     */
+    private boolean[] matchingProfessions(String profession) {
+        boolean[] codes = new boolean[professionNames.size()];
+        boolean any = false;
+        for (int code = 0; code < codes.length; code++) {
+            if (professionNames.get(code).equalsIgnoreCase(profession)) {
+                codes[code] = true;
+                any = true;
+            }
+        }
+        return any ? codes : null;
+    }
+
+    private NavigableMap<Integer, SlotList> ageRange(Integer minAge, Integer maxAge) {
+        if (minAge != null && maxAge != null) {
+            return minAge > maxAge ? new TreeMap<>() : ageIndex.subMap(minAge, true, maxAge, true);
+        }
+        return minAge != null ? ageIndex.tailMap(minAge, true) : ageIndex.headMap(maxAge, true);
+    }
+
+    private void unindexAge(int slot) {
+        SlotList list = ageIndex.get(ages[slot]);
+        list.remove(slot);
+        if (list.size == 0) {
+            ageIndex.remove(ages[slot]);
+        }
+    }
+
+    private PersonView view(int slot) {
+        return new PersonView(ids[slot], names[slot], ages[slot], professionNames.get(professions[slot]), versions[slot]);
+    }
+
+    private int firstSlotAfter(long after) {
+        int low = 0;
+        int high = slots;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ids[middle] <= after) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void insert(Person person) {
+        if (slots == ids.length) {
+            grow(ids.length + (ids.length >> 1));
+        }
+        int slot = firstSlotAfter(person.getId());
+        if (slot < slots) {
+            shiftUp(slot);
+        }
+        slots++;
+        ids[slot] = person.getId();
+        names[slot] = person.getName();
+        ages[slot] = person.getAge();
+        professions[slot] = professionCode(person.getProfession());
+        versions[slot] = person.getVersion() == null ? 0 : person.getVersion();
+        updatedAt[slot] = micros(person.getUpdatedAt());
+        slotsById.put(ids[slot], slot);
+        ageIndex.computeIfAbsent(ages[slot], age -> new SlotList()).insert(slot);
+        size++;
+    }
+
+    /**
+     * Moves every slot from {@code from} on up by one, so an id below the highest can be inserted in
+     * order. Costs the length of the tail, not a sort of the table.
+     */
+    private void shiftUp(int from) {
+        int moved = slots - from;
+        System.arraycopy(ids, from, ids, from + 1, moved);
+        System.arraycopy(names, from, names, from + 1, moved);
+        System.arraycopy(ages, from, ages, from + 1, moved);
+        System.arraycopy(professions, from, professions, from + 1, moved);
+        System.arraycopy(versions, from, versions, from + 1, moved);
+        System.arraycopy(updatedAt, from, updatedAt, from + 1, moved);
+        for (int slot = from + 1; slot <= slots; slot++) {
+            if (professions[slot] != DELETED) {
+                slotsById.put(ids[slot], slot);
+            }
+        }
+        for (SlotList list : ageIndex.values()) {
+            list.shiftFrom(from);
+        }
+    }
+
+    private void compact() {
+        int capacity = Math.max(MIN_CAPACITY, size + (size >> 1));
+        long[] oldIds = ids;
+        String[] oldNames = names;
+        int[] oldAges = ages;
+        int[] oldProfessions = professions;
+        long[] oldVersions = versions;
+        long[] oldUpdatedAt = updatedAt;
+        ids = new long[capacity];
+        names = new String[capacity];
+        ages = new int[capacity];
+        professions = new int[capacity];
+        versions = new long[capacity];
+        updatedAt = new long[capacity];
+        slotsById.clear();
+        ageIndex.clear();
+        int slot = 0;
+        for (int old = 0; old < slots; old++) {
+            if (oldProfessions[old] == DELETED) {
+                continue;
+            }
+            ids[slot] = oldIds[old];
+            names[slot] = oldNames[old];
+            ages[slot] = oldAges[old];
+            professions[slot] = oldProfessions[old];
+            versions[slot] = oldVersions[old];
+            updatedAt[slot] = oldUpdatedAt[old];
+            slotsById.put(ids[slot], slot);
+            ageIndex.computeIfAbsent(ages[slot], age -> new SlotList()).add(slot);
+            slot++;
+        }
+        slots = size;
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        names = Arrays.copyOf(names, capacity);
+        ages = Arrays.copyOf(ages, capacity);
+        professions = Arrays.copyOf(professions, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        updatedAt = Arrays.copyOf(updatedAt, capacity);
+    }
+
+    private int professionCode(String profession) {
+        return professionCodes.computeIfAbsent(profession, name -> {
+            professionNames.add(name);
+            return professionNames.size() - 1;
+        });
+    }
+
+    private static long micros(Instant instant) {
+        return instant == null ? NO_TIMESTAMP : ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+
+    private static Instant instant(long micros) {
+        return micros == NO_TIMESTAMP ? null : Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+
+    private static final class SlotList {
+
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        void insert(int slot) {
+            int position = firstAtOrAfter(slot);
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            System.arraycopy(slots, position, slots, position + 1, size - position);
+            slots[position] = slot;
+            size++;
+        }
+
+        void remove(int slot) {
+            int position = Arrays.binarySearch(slots, 0, size, slot);
+            if (position >= 0) {
+                System.arraycopy(slots, position + 1, slots, position, size - position - 1);
+                size--;
+            }
+        }
+
+        void shiftFrom(int slot) {
+            for (int position = firstAtOrAfter(slot); position < size; position++) {
+                slots[position]++;
+            }
+        }
+
+        int firstAtOrAfter(int slot) {
+            int position = Arrays.binarySearch(slots, 0, size, slot);
+            return position >= 0 ? position : -position - 1;
+        }
+    }
+}
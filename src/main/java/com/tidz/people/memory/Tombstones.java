@@ -0,0 +1,57 @@
+package com.tidz.people.memory;
+
+import com.tidz.people.model.Person;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Recently deleted ids and the version they were deleted at, so a write that committed before the
+ * delete but arrives after it cannot bring the person back. An unknown version buries every write,
+ * as ids are never reused. Kept for a minute. Not thread-safe.
+ */
+public final class Tombstones {
+
+    static final long RETENTION_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Map<Long, Tombstone> byId = new LinkedHashMap<>();
+    private final LongSupplier nanoTime;
+
+    public Tombstones() {
+        this(System::nanoTime);
+    }
+
+    Tombstones(LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+    }
+
+    public void add(long id, Long version) {
+        long now = nanoTime.getAsLong();
+        prune(now);
+        byId.remove(id);
+        byId.put(id, new Tombstone(version == null ? Long.MAX_VALUE : version, now));
+    }
+
+    public boolean buries(Person person) {
+        prune(nanoTime.getAsLong());
+        Tombstone tombstone = byId.get(person.getId());
+        return tombstone != null && (person.getVersion() == null || person.getVersion() <= tombstone.version());
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    private void prune(long now) {
+        Iterator<Tombstone> oldestFirst = byId.values().iterator();
+        while (oldestFirst.hasNext() && now - oldestFirst.next().deletedAt() >= RETENTION_NANOS) {
+            oldestFirst.remove();
+        }
+    }
+
+    private record Tombstone(long version, long deletedAt) {
+    }
+}
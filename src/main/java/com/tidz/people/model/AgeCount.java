@@ -0,0 +1,7 @@
+package com.tidz.people.model;
+
+/**
+ * Number of persons of exactly one age; the raw material of the age histogram.
+ */
+public record AgeCount(int age, long count) {
+}
@@ -0,0 +1,6 @@
+package com.tidz.people.model;
+
+public enum ChangeOperation {
+    UPSERT,
+    DELETE
+}
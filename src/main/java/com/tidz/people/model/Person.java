@@ -1,13 +1,25 @@
 package com.tidz.people.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.tidz.people.response.PersonSerializer;
 import jakarta.persistence.*;
 
+import java.time.Instant;
+
 @Entity
-@Table(name = "persons")
+@JsonSerialize(using = PersonSerializer.class)
+@Table(name = "persons", indexes = {
+        @Index(name = "idx_persons_profession_age", columnList = "profession, age"),
+        @Index(name = "idx_persons_name", columnList = "name"),
+        @Index(name = "idx_persons_age", columnList = "age"),
+        @Index(name = "idx_persons_updated_at", columnList = "updated_at")
+})
 public class Person {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "persons_seq")
+    @SequenceGenerator(name = "persons_seq", sequenceName = "persons_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -17,6 +29,14 @@ public class Person {
     @Column(nullable = false)
     private String profession;
 
+    @Version
+    @JsonIgnore
+    @Column(nullable = false)
+    private Long version;
+    @JsonIgnore
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
     public Person() {
 
     }
@@ -59,4 +79,26 @@ public class Person {
     public void setProfession(String profession) {
         this.profession = profession;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now();
+    }
 }
@@ -0,0 +1,91 @@
+package com.tidz.people.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "person_changes", indexes = {
+        @Index(name = "idx_person_changes_seq", columnList = "seq", unique = true),
+        @Index(name = "idx_person_changes_person_id_seq", columnList = "person_id, seq")
+})
+public class PersonChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @JsonIgnore
+    private Long id;
+
+    private Long seq;
+    @Column(name = "person_id", nullable = false)
+    private Long personId;
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 8)
+    private ChangeOperation operation;
+    private String name;
+    private Integer age;
+    private String profession;
+    private Long version;
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    public PersonChange() {
+
+    }
+
+    public PersonChange(Long seq, Long personId, ChangeOperation operation, String name, Integer age, String profession,
+                        Long version, Instant changedAt) {
+        this.seq = seq;
+        this.personId = personId;
+        this.operation = operation;
+        this.name = name;
+        this.age = age;
+        this.profession = profession;
+        this.version = version;
+        this.changedAt = changedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+
+    public Long getPersonId() {
+        return personId;
+    }
+
+    public ChangeOperation getOperation() {
+        return operation;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public String getProfession() {
+        return profession;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+}
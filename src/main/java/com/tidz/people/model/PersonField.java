@@ -0,0 +1,56 @@
+package com.tidz.people.model;
+
+import com.tidz.people.exceptions.InvalidFieldsException;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The columns of a person a client can pick with {@code fields=}, named as they appear in JSON.
+ */
+public enum PersonField {
+
+    ID("id"), NAME("name"), AGE("age"), PROFESSION("profession");
+
+    public static final Set<PersonField> ALL = Collections.unmodifiableSet(EnumSet.allOf(PersonField.class));
+
+    private final String attribute;
+
+    PersonField(String attribute) {
+        this.attribute = attribute;
+    }
+
+    public String attribute() {
+        return attribute;
+    }
+
+    /**
+     * Parses a comma-separated list such as {@code id,name}; a missing list selects every field. A
+     * list naming no field at all, such as {@code ,} or an empty one, is rejected.
+     */
+    public static Set<PersonField> parse(String fields) {
+        if (fields == null) {
+            return ALL;
+        }
+        Set<PersonField> selected = EnumSet.noneOf(PersonField.class);
+        for (String name : fields.split(",")) {
+            if (!name.isBlank()) {
+                selected.add(of(name.trim()));
+            }
+        }
+        if (selected.isEmpty()) {
+            throw new InvalidFieldsException("No fields selected, expected any of id, name, age, profession");
+        }
+        return selected;
+    }
+
+    private static PersonField of(String attribute) {
+        for (PersonField field : values()) {
+            if (field.attribute.equals(attribute)) {
+                return field;
+            }
+        }
+        throw new InvalidFieldsException("Unknown field '" + attribute + "', expected any of id, name, age, profession");
+    }
+}
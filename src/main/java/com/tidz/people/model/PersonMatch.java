@@ -0,0 +1,12 @@
+package com.tidz.people.model;
+
+/**
+ * A text search hit. The score only ranks hits of one query against each other; it is {@code null}
+ * when the hits come from the unranked substring scan used without the search index.
+ */
+public record PersonMatch(Long id, String name, Integer age, String profession, Double score) {
+
+    public static PersonMatch unranked(PersonView person) {
+        return new PersonMatch(person.id(), person.name(), person.age(), person.profession(), null);
+    }
+}
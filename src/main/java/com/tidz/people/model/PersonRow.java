@@ -0,0 +1,16 @@
+package com.tidz.people.model;
+
+import java.time.Instant;
+
+/**
+ * Every column of a person, selected straight into a record for bulk copies of the table.
+ */
+public record PersonRow(Long id, String name, Integer age, String profession, Long version, Instant updatedAt) {
+
+    public Person toPerson() {
+        Person person = new Person(id, name, age, profession);
+        person.setVersion(version);
+        person.setUpdatedAt(updatedAt);
+        return person;
+    }
+}
@@ -0,0 +1,14 @@
+package com.tidz.people.model;
+
+import java.time.Instant;
+
+/**
+ * The validators of a single person row, read without loading the entity so conditional requests
+ * can be answered from the primary key alone.
+ */
+public record PersonVersion(Long version, Instant updatedAt) {
+
+    public static PersonVersion of(Person person) {
+        return new PersonVersion(person.getVersion(), person.getUpdatedAt());
+    }
+}
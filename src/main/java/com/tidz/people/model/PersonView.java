@@ -0,0 +1,34 @@
+package com.tidz.people.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.tidz.people.response.PersonViewSerializer;
+
+import java.util.Set;
+
+/**
+ * Immutable, unmanaged read model of a person. Pages are selected straight into it, so Hibernate
+ * neither tracks the rows nor keeps dirty-check snapshots of them. Every column is mandatory, so a
+ * {@code null} component simply means the column was not selected and is left out of the JSON.
+ * The version is only kept for validators and is never written.
+ */
+@JsonSerialize(using = PersonViewSerializer.class)
+public record PersonView(Long id, String name, Integer age, String profession, Long version) {
+
+    public static PersonView of(Person person) {
+        return new PersonView(person.getId(), person.getName(), person.getAge(), person.getProfession(), person.getVersion());
+    }
+
+    /**
+     * Drops the components that are not in {@code fields}; the version is kept.
+     */
+    public PersonView only(Set<PersonField> fields) {
+        if (fields.containsAll(PersonField.ALL)) {
+            return this;
+        }
+        return new PersonView(fields.contains(PersonField.ID) ? id : null,
+                fields.contains(PersonField.NAME) ? name : null,
+                fields.contains(PersonField.AGE) ? age : null,
+                fields.contains(PersonField.PROFESSION) ? profession : null,
+                version);
+    }
+}
@@ -0,0 +1,12 @@
+package com.tidz.people.model;
+
+/**
+ * The two columns the statistics are grouped by, read for a single row so a write can tell the
+ * rollup what it is replacing.
+ */
+public record ProfessionAge(String profession, Integer age) {
+
+    public static ProfessionAge of(Person person) {
+        return new ProfessionAge(person.getProfession(), person.getAge());
+    }
+}
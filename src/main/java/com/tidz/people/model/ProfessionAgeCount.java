@@ -0,0 +1,7 @@
+package com.tidz.people.model;
+
+/**
+ * Number of persons per profession and age, the finest grouping the statistics need.
+ */
+public record ProfessionAgeCount(String profession, int age, long count) {
+}
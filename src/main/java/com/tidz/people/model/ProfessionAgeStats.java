@@ -0,0 +1,7 @@
+package com.tidz.people.model;
+
+/**
+ * Count and age spread of the persons sharing a profession.
+ */
+public record ProfessionAgeStats(String profession, long count, int minAge, double averageAge, int maxAge) {
+}
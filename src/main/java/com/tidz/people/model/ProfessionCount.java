@@ -0,0 +1,7 @@
+package com.tidz.people.model;
+
+/**
+ * Number of persons with a given profession, as grouped by the database.
+ */
+public record ProfessionCount(String profession, long count) {
+}
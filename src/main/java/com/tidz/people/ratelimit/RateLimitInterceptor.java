@@ -0,0 +1,72 @@
+package com.tidz.people.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tidz.people.response.ApiResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the {@link RateLimited} limits of handler methods. Clients are told apart by their
+ * authenticated principal, and by remote address when there is none; nothing the client merely
+ * sends is trusted for it. A client without a permit gets 429 with a {@code Retry-After} of the
+ * whole seconds until it has one.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final Map<String, TokenBucketRateLimiter> limiters = new HashMap<>();
+    private final Map<String, Counter> rejections = new HashMap<>();
+    private final ObjectMapper objectMapper;
+
+    public RateLimitInterceptor(Map<String, TokenBucketRateLimiter.Limit> limits, long maxClients, ObjectMapper objectMapper,
+                                MeterRegistry registry) {
+        limits.forEach((name, limit) -> {
+            limiters.put(name, new TokenBucketRateLimiter(limit, maxClients));
+            rejections.put(name, Counter.builder("people.rate-limit.rejected")
+                    .description("Requests refused with 429 because the client ran out of permits")
+                    .tag("limit", name)
+                    .register(registry));
+        });
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        RateLimited rateLimited = handlerMethod.getMethodAnnotation(RateLimited.class);
+        TokenBucketRateLimiter limiter = rateLimited == null ? null : limiters.get(rateLimited.value());
+        if (limiter == null) {
+            return true;
+        }
+        long waitNanos = limiter.tryAcquire(client(request));
+        if (waitNanos == 0) {
+            return true;
+        }
+        rejections.get(rateLimited.value()).increment();
+        long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ApiResponse("Too many requests, try again later", null));
+        return false;
+    }
+
+    private static String client(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return principal == null ? "address:" + request.getRemoteAddr() : "principal:" + principal.getName();
+    }
+}
@@ -0,0 +1,20 @@
+package com.tidz.people.ratelimit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts a handler method under the named limit configured in
+ * {@code people.rate-limit.limits.<name>}. Each client has its own bucket per limit, so handlers
+ * sharing a name also share the client's budget. A name without configuration is not limited.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimited {
+
+    String value();
+}
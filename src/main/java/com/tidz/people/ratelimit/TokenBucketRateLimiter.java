@@ -0,0 +1,67 @@
+package com.tidz.people.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per client, refilled at {@code permitsPerSecond} up to {@code burst} permits.
+ * Each bucket is one {@link AtomicLong} holding the time at which it will next be full (the
+ * generic cell rate algorithm), so taking a permit is a single compare-and-set with no lock and no
+ * refill bookkeeping. Buckets idle long enough to have refilled completely are dropped, which
+ * loses nothing; {@code maxClients} bounds the rest.
+ */
+public final class TokenBucketRateLimiter {
+
+    public record Limit(double permitsPerSecond, int burst) {
+
+        public Limit {
+            if (!(permitsPerSecond > 0) || burst < 1) {
+                throw new IllegalArgumentException("A rate limit needs permits-per-second > 0 and burst >= 1");
+            }
+        }
+    }
+
+    private final Cache<String, AtomicLong> buckets;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final LongSupplier clock;
+
+    public TokenBucketRateLimiter(Limit limit, long maxClients) {
+        this(limit, maxClients, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(Limit limit, long maxClients, LongSupplier clock) {
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000d / limit.permitsPerSecond()));
+        this.toleranceNanos = intervalNanos * (limit.burst() - 1);
+        this.clock = clock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofNanos(toleranceNanos + intervalNanos))
+                .build();
+    }
+
+    /**
+     * Takes a permit from the client's bucket.
+     *
+     * @return {@code 0} when the permit was granted, otherwise the nanoseconds until one is free
+     */
+    public long tryAcquire(String client) {
+        AtomicLong bucket = buckets.get(client, key -> new AtomicLong(clock.getAsLong()));
+        while (true) {
+            long now = clock.getAsLong();
+            long full = bucket.get();
+            long start = full - now > 0 ? full : now;
+            long wait = start - toleranceNanos - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(full, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.tidz.people.repository;
+
+import com.tidz.people.model.PersonChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface PersonChangeRepository extends JpaRepository<PersonChange, Long> {
+
+    @Modifying
+    @Query("insert into PersonChange (personId, operation, name, age, profession, version, changedAt) "
+            + "select p.id, com.tidz.people.model.ChangeOperation.UPSERT, p.name, p.age, p.profession, p.version, :changedAt "
+            + "from Person p where p.id in :ids order by p.id")
+    int appendUpserts(@Param("ids") Collection<Long> ids, @Param("changedAt") Instant changedAt);
+
+    @Modifying
+    @Query("insert into PersonChange (personId, operation, version, changedAt) "
+            + "select p.id, com.tidz.people.model.ChangeOperation.DELETE, p.version, :changedAt "
+            + "from Person p where p.id in :ids order by p.id")
+    int appendDeletes(@Param("ids") Collection<Long> ids, @Param("changedAt") Instant changedAt);
+
+    @Transactional(readOnly = true)
+    List<PersonChange> findBySeqGreaterThanOrderBySeqAsc(long since, Limit limit);
+
+    List<PersonChange> findBySeqIsNullOrderByIdAsc(Limit limit);
+
+    @Query(value = "select next_seq from person_change_sequence where id = 1 for update", nativeQuery = true)
+    long lockNextSeq();
+
+    @Modifying
+    @Query(value = "update person_change_sequence set next_seq = :nextSeq where id = 1", nativeQuery = true)
+    void setNextSeq(@Param("nextSeq") long nextSeq);
+
+    @Query(value = "select purged_through from person_change_sequence where id = 1", nativeQuery = true)
+    long findPurgedThrough();
+
+    @Modifying
+    @Query(value = "update person_change_sequence set purged_through = greatest(purged_through, :seq) where id = 1",
+            nativeQuery = true)
+    void setPurgedThrough(@Param("seq") long seq);
+
+    @Query("select c.seq from PersonChange c where c.seq is not null and c.changedAt < :before and exists "
+            + "(select 1 from PersonChange n where n.personId = c.personId and n.seq > c.seq) order by c.seq")
+    List<Long> findSupersededSeqs(@Param("before") Instant before, Limit limit);
+
+    @Query("select c.seq from PersonChange c where c.seq is not null and c.changedAt < :before "
+            + "and c.operation = com.tidz.people.model.ChangeOperation.DELETE order by c.seq")
+    List<Long> findExpiredTombstoneSeqs(@Param("before") Instant before, Limit limit);
+
+    @Modifying
+    @Query("delete from PersonChange c where c.seq in :seqs")
+    int deleteBySeqs(@Param("seqs") Collection<Long> seqs);
+}
@@ -1,7 +1,124 @@
 package com.tidz.people.repository;
 
+import com.tidz.people.model.AgeCount;
 import com.tidz.people.model.Person;
+import com.tidz.people.model.PersonVersion;
+import com.tidz.people.model.ProfessionAge;
+import com.tidz.people.model.ProfessionAgeCount;
+import com.tidz.people.model.ProfessionAgeStats;
+import com.tidz.people.model.ProfessionCount;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface PersonRepository extends JpaRepository<Person, Long> {
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface PersonRepository extends JpaRepository<Person, Long>, JpaSpecificationExecutor<Person>, PersonViewRepository {
+
+    String STREAM_FETCH_SIZE = "500";
+
+    /*
+     * Pages are read into the requested type, usually the PersonView record, which Spring Data selects
+     * with a constructor expression instead of materialising managed entities.
+     */
+    @Transactional(readOnly = true)
+    <T> List<T> findAllByOrderByIdAsc(Limit limit, Class<T> type);
+
+    @Transactional(readOnly = true)
+    <T> List<T> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit, Class<T> type);
+
+    @Query("select p from Person p order by p.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Person> streamAll();
+
+    @Query("select p from Person p where p.id > :after order by p.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Person> streamAfter(@Param("after") Long after);
+
+    @Query("select p.id from Person p where p.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Transactional(readOnly = true)
+    @Query("select new com.tidz.people.model.PersonVersion(p.version, p.updatedAt) from Person p where p.id = :id")
+    Optional<PersonVersion> findVersionById(@Param("id") Long id);
+
+    /*
+     * The statistics below are grouped in the database and come back as a handful of small records
+     * instead of one entity per row.
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.tidz.people.model.ProfessionCount(p.profession, count(p)) from Person p "
+            + "group by p.profession order by count(p) desc, p.profession")
+    List<ProfessionCount> countByProfession();
+
+    @Transactional(readOnly = true)
+    @Query("select new com.tidz.people.model.AgeCount(p.age, count(p)) from Person p group by p.age order by p.age")
+    List<AgeCount> countByAge();
+
+    @Transactional(readOnly = true)
+    @Query("select new com.tidz.people.model.ProfessionAgeStats(p.profession, count(p), min(p.age), avg(p.age), max(p.age)) "
+            + "from Person p group by p.profession order by p.profession")
+    List<ProfessionAgeStats> ageStatsByProfession();
+
+    // Read-write on purpose: the rollup is built from this once, so it must come from the primary.
+    @Transactional
+    @Query("select new com.tidz.people.model.ProfessionAgeCount(p.profession, p.age, count(p)) from Person p "
+            + "group by p.profession, p.age")
+    List<ProfessionAgeCount> countByProfessionAndAge();
+
+    /*
+     * Locks the rows about to be written so the profession and age read here are still the ones
+     * being replaced when the statistics rollup is told about the change.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.tidz.people.model.ProfessionAge(p.profession, p.age) from Person p where p.id = :id")
+    Optional<ProfessionAge> lockProfessionAgeById(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.tidz.people.model.ProfessionAge(p.profession, p.age) from Person p where p.id in :ids")
+    List<ProfessionAge> lockProfessionAgesByIds(@Param("ids") Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Person p where p.id in :ids")
+    List<Person> lockAllByIds(@Param("ids") Collection<Long> ids);
+
+    /*
+     * The writes below bump the version and timestamp themselves because bulk statements bypass
+     * Hibernate's optimistic locking. A null expected version matches any row.
+     */
+    @Modifying
+    @Query("update Person p set p.name = :name, p.age = :age, p.profession = :profession, "
+            + "p.version = p.version + 1, p.updatedAt = instant "
+            + "where p.id = :id and (:version is null or p.version = :version)")
+    int updateById(@Param("id") Long id, @Param("name") String name, @Param("age") Integer age,
+                   @Param("profession") String profession, @Param("version") Long expectedVersion);
+
+    @Modifying
+    @Query("update Person p set p.name = coalesce(:name, p.name), p.age = coalesce(:age, p.age), "
+            + "p.profession = coalesce(:profession, p.profession), p.version = p.version + 1, p.updatedAt = instant "
+            + "where p.id = :id and (:version is null or p.version = :version)")
+    int patchById(@Param("id") Long id, @Param("name") String name, @Param("age") Integer age,
+                  @Param("profession") String profession, @Param("version") Long expectedVersion);
+
+    @Modifying
+    @Query("delete from Person p where p.id = :id and (:version is null or p.version = :version)")
+    int removeById(@Param("id") Long id, @Param("version") Long expectedVersion);
 }
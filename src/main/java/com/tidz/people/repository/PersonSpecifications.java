@@ -0,0 +1,68 @@
+package com.tidz.people.repository;
+
+import com.tidz.people.model.Person;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Locale;
+
+/**
+ * Search predicates for {@link PersonRepository}. Each one lines up with an index declared on
+ * {@link Person}: profession and age share a composite index, name is matched by prefix only.
+ * {@link #nameOrProfessionContains(String)} is the exception and scans the table.
+ */
+public final class PersonSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private PersonSpecifications() {
+    }
+
+    public static Specification<Person> search(String profession, String namePrefix, Integer minAge, Integer maxAge, Long after) {
+        return Specification.allOf(
+                professionEquals(profession),
+                nameStartsWith(namePrefix),
+                ageAtLeast(minAge),
+                ageAtMost(maxAge),
+                idAfter(after));
+    }
+
+    public static Specification<Person> professionEquals(String profession) {
+        return (root, query, cb) -> profession == null ? null : cb.equal(root.get("profession"), profession);
+    }
+
+    public static Specification<Person> nameStartsWith(String prefix) {
+        return (root, query, cb) -> prefix == null || prefix.isEmpty() ? null
+                : cb.like(root.get("name"), escapeLike(prefix) + "%", LIKE_ESCAPE);
+    }
+
+    /**
+     * Case-insensitive substring match on name or profession. No index serves a leading wildcard,
+     * so this is only the fallback for text search without the search index.
+     */
+    public static Specification<Person> nameOrProfessionContains(String text) {
+        return (root, query, cb) -> {
+            if (text == null || text.isBlank()) {
+                return null;
+            }
+            String pattern = "%" + escapeLike(text.strip().toLowerCase(Locale.ROOT)) + "%";
+            return cb.or(cb.like(cb.lower(root.get("name")), pattern, LIKE_ESCAPE),
+                    cb.like(cb.lower(root.get("profession")), pattern, LIKE_ESCAPE));
+        };
+    }
+
+    public static Specification<Person> ageAtLeast(Integer minAge) {
+        return (root, query, cb) -> minAge == null ? null : cb.greaterThanOrEqualTo(root.get("age"), minAge);
+    }
+
+    public static Specification<Person> ageAtMost(Integer maxAge) {
+        return (root, query, cb) -> maxAge == null ? null : cb.lessThanOrEqualTo(root.get("age"), maxAge);
+    }
+
+    public static Specification<Person> idAfter(Long after) {
+        return (root, query, cb) -> after == null ? null : cb.greaterThan(root.get("id"), after);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
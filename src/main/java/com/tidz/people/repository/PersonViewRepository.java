@@ -0,0 +1,24 @@
+package com.tidz.people.repository;
+
+import com.tidz.people.model.Person;
+import com.tidz.people.model.PersonField;
+import com.tidz.people.model.PersonView;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Field-selecting reads, mixed into {@link PersonRepository}. The selected columns are only known
+ * per request, which a declared projection cannot express.
+ */
+public interface PersonViewRepository {
+
+    /**
+     * Returns at most {@code limit} persons matching {@code specification} ordered by id, selecting
+     * only the id, the version and the given {@code fields}. No entity is created.
+     */
+    @Transactional(readOnly = true)
+    List<PersonView> findViews(Specification<Person> specification, Set<PersonField> fields, int limit);
+}
@@ -0,0 +1,66 @@
+package com.tidz.people.repository;
+
+import com.tidz.people.model.Person;
+import com.tidz.people.model.PersonField;
+import com.tidz.people.model.PersonView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builds a tuple query over exactly the requested columns. The id and version are always selected,
+ * for the page cursor and validators, and the tuples are copied into {@link PersonView} records.
+ */
+class PersonViewRepositoryImpl implements PersonViewRepository {
+
+    private static final String ID = "id";
+    private static final String VERSION = "version";
+
+    private final EntityManager entityManager;
+
+    PersonViewRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<PersonView> findViews(Specification<Person> specification, Set<PersonField> fields, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Person> root = query.from(Person.class);
+
+        List<Selection<?>> selections = new ArrayList<>(fields.size() + 2);
+        selections.add(root.get(ID).alias(ID));
+        selections.add(root.get(VERSION).alias(VERSION));
+        for (PersonField field : fields) {
+            if (field != PersonField.ID) {
+                selections.add(root.get(field.attribute()).alias(field.attribute()));
+            }
+        }
+        query.multiselect(selections);
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(root.get(ID)));
+
+        List<Tuple> rows = entityManager.createQuery(query).setMaxResults(limit).getResultList();
+        List<PersonView> people = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            people.add(new PersonView(row.get(ID, Long.class),
+                    fields.contains(PersonField.NAME) ? row.get(PersonField.NAME.attribute(), String.class) : null,
+                    fields.contains(PersonField.AGE) ? row.get(PersonField.AGE.attribute(), Integer.class) : null,
+                    fields.contains(PersonField.PROFESSION) ? row.get(PersonField.PROFESSION.attribute(), String.class) : null,
+                    row.get(VERSION, Long.class)));
+        }
+        return people;
+    }
+}
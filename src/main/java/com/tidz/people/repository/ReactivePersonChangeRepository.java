@@ -0,0 +1,42 @@
+package com.tidz.people.repository;
+
+import com.tidz.people.model.ChangeOperation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Appends to the {@code person_changes} outbox over R2DBC, like the JPA {@link PersonChangeRepository}.
+ * The rows are left unnumbered for the change log sequencer of a servlet instance.
+ */
+@Repository
+@Profile("reactive")
+public class ReactivePersonChangeRepository {
+
+    private final DatabaseClient client;
+
+    @Autowired
+    public ReactivePersonChangeRepository(DatabaseClient client) {
+        this.client = client;
+    }
+
+    public Mono<Long> appendUpsert(Long id) {
+        return client.sql("insert into person_changes (person_id, operation, name, age, profession, version, changed_at) "
+                        + "select id, :operation, name, age, profession, version, current_timestamp from persons where id = :id")
+                .bind("operation", ChangeOperation.UPSERT.name())
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> appendDelete(Long id) {
+        return client.sql("insert into person_changes (person_id, operation, version, changed_at) "
+                        + "select id, :operation, version, current_timestamp from persons where id = :id")
+                .bind("operation", ChangeOperation.DELETE.name())
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+}
@@ -0,0 +1,179 @@
+package com.tidz.people.repository;
+
+import com.tidz.people.model.Person;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Non-blocking access to the {@code persons} table over R2DBC, used by the {@code reactive} profile.
+ * Ids are taken from the same {@code persons_seq} Hibernate uses for {@link Person}, a table on MySQL
+ * and a sequence elsewhere, reserving blocks the way Hibernate's pooled optimizer does, so both
+ * stacks can write to one schema.
+ */
+@Repository
+@Profile("reactive")
+public class ReactivePersonRepository {
+
+    /** Must match the allocationSize of the persons_seq generator on {@link Person}. */
+    static final int ID_BLOCK_SIZE = 50;
+    static final int STREAM_FETCH_SIZE = 500;
+
+    private static final String COLUMNS = "select id, name, age, profession, version from persons";
+
+    private final DatabaseClient client;
+    private final TransactionalOperator transactionalOperator;
+    private final boolean sequenceTable;
+    private final AtomicReference<IdBlock> ids = new AtomicReference<>(new IdBlock(new AtomicLong(1), 0));
+
+    @Autowired
+    public ReactivePersonRepository(DatabaseClient client, ReactiveTransactionManager transactionManager) {
+        this.client = client;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager,
+                new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        this.sequenceTable = client.getConnectionFactory().getMetadata().getName().toLowerCase(Locale.ROOT).contains("mysql");
+    }
+
+    public Mono<Person> findById(Long id) {
+        return client.sql(COLUMNS + " where id = :id")
+                .bind("id", id)
+                .map(ReactivePersonRepository::toPerson)
+                .one();
+    }
+
+    public Mono<Boolean> existsById(Long id) {
+        return client.sql("select 1 from persons where id = :id")
+                .bind("id", id)
+                .map(row -> true)
+                .one()
+                .hasElement();
+    }
+
+    public Flux<Person> findPage(Long after, int limit) {
+        return client.sql(COLUMNS + " where id > :after order by id limit :limit")
+                .bind("after", after == null ? 0L : after)
+                .bind("limit", limit)
+                .map(ReactivePersonRepository::toPerson)
+                .all();
+    }
+
+    /**
+     * Streams the whole table in id order; rows are pulled from the cursor only as fast as the
+     * subscriber requests them.
+     */
+    public Flux<Person> streamAll() {
+        return client.sql(COLUMNS + " order by id")
+                .filter(statement -> statement.fetchSize(STREAM_FETCH_SIZE))
+                .map(ReactivePersonRepository::toPerson)
+                .all();
+    }
+
+    public Mono<Person> insert(Person person) {
+        return nextId().flatMap(id -> client.sql("insert into persons (id, name, age, profession, version, updated_at) "
+                        + "values (:id, :name, :age, :profession, 0, current_timestamp)")
+                .bind("id", id)
+                .bind("name", person.getName())
+                .bind("age", person.getAge())
+                .bind("profession", person.getProfession())
+                .fetch()
+                .rowsUpdated()
+                .thenReturn(inserted(id, person)));
+    }
+
+    public Mono<Long> updateById(Long id, String name, Integer age, String profession) {
+        DatabaseClient.GenericExecuteSpec spec = client.sql("update persons set name = :name, age = :age, profession = :profession, "
+                        + "version = version + 1, updated_at = current_timestamp where id = :id")
+                .bind("id", id);
+        return bindFields(spec, name, age, profession).fetch().rowsUpdated();
+    }
+
+    public Mono<Long> patchById(Long id, String name, Integer age, String profession) {
+        DatabaseClient.GenericExecuteSpec spec = client.sql("update persons set name = coalesce(:name, name), age = coalesce(:age, age), "
+                        + "profession = coalesce(:profession, profession), version = version + 1, updated_at = current_timestamp where id = :id")
+                .bind("id", id);
+        return bindFields(spec, name, age, profession).fetch().rowsUpdated();
+    }
+
+    public Mono<Long> removeById(Long id) {
+        return client.sql("delete from persons where id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            IdBlock block = ids.get();
+            long id = block.take();
+            if (id > 0) {
+                return Mono.just(id);
+            }
+            return allocateBlock().flatMap(hi -> {
+                ids.compareAndSet(block, new IdBlock(new AtomicLong(Math.max(1, hi - ID_BLOCK_SIZE + 1)), hi));
+                return nextId();
+            });
+        });
+    }
+
+    /**
+     * Reserves the next block of ids and returns its upper bound. Like Hibernate's table generator,
+     * the MySQL table is read under a row lock and advanced by one block, in a transaction of its own
+     * so a rolled back insert cannot hand the block out again.
+     */
+    private Mono<Long> allocateBlock() {
+        if (!sequenceTable) {
+            return client.sql("select next value for persons_seq")
+                    .map(row -> row.get(0, Long.class))
+                    .one();
+        }
+        return client.sql("select next_val from persons_seq for update")
+                .map(row -> row.get("next_val", Long.class))
+                .one()
+                .flatMap(hi -> client.sql("update persons_seq set next_val = :next where next_val = :current")
+                        .bind("next", hi + ID_BLOCK_SIZE)
+                        .bind("current", hi)
+                        .fetch()
+                        .rowsUpdated()
+                        .thenReturn(hi))
+                .as(transactionalOperator::transactional);
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindFields(DatabaseClient.GenericExecuteSpec spec, String name, Integer age, String profession) {
+        spec = name == null ? spec.bindNull("name", String.class) : spec.bind("name", name);
+        spec = age == null ? spec.bindNull("age", Integer.class) : spec.bind("age", age);
+        return profession == null ? spec.bindNull("profession", String.class) : spec.bind("profession", profession);
+    }
+
+    private static Person inserted(Long id, Person person) {
+        Person inserted = new Person(id, person.getName(), person.getAge(), person.getProfession());
+        inserted.setVersion(0L);
+        return inserted;
+    }
+
+    private static Person toPerson(Readable row) {
+        Person person = new Person(row.get("id", Long.class), row.get("name", String.class), row.get("age", Integer.class),
+                row.get("profession", String.class));
+        person.setVersion(row.get("version", Long.class));
+        return person;
+    }
+
+    private record IdBlock(AtomicLong next, long last) {
+
+        long take() {
+            long id = next.getAndIncrement();
+            return id <= last ? id : -1;
+        }
+    }
+}
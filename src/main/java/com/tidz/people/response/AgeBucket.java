@@ -0,0 +1,8 @@
+package com.tidz.people.response;
+
+/**
+ * One bar of the age histogram: persons aged {@code from} (inclusive) to {@code to} (exclusive).
+ * A {@code null} bound leaves that side open.
+ */
+public record AgeBucket(Integer from, Integer to, long count) {
+}
@@ -1,5 +1,8 @@
 package com.tidz.people.response;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+@JsonSerialize(using = ApiResponseSerializer.class)
 public class ApiResponse {
 
     private String message;
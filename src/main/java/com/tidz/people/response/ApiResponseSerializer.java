@@ -0,0 +1,81 @@
+package com.tidz.people.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.tidz.people.model.Person;
+import com.tidz.people.model.PersonView;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Writes the {@link ApiResponse} envelope straight to the generator. Persons, person views and lists
+ * of either go through {@link PersonSerializer} or {@link PersonViewSerializer} directly, so the
+ * {@code Object}-typed body does not cost a serializer lookup per element; any other body falls back
+ * to the regular Jackson path.
+ */
+public class ApiResponseSerializer extends StdSerializer<ApiResponse> {
+
+    private static final SerializedString MESSAGE = new SerializedString("message");
+    private static final SerializedString BODY = new SerializedString("body");
+    private static final String SUCCESS = "Success";
+    private static final SerializedString SUCCESS_VALUE = new SerializedString(SUCCESS);
+
+    private final PersonSerializer personSerializer = new PersonSerializer();
+    private final PersonViewSerializer personViewSerializer = new PersonViewSerializer();
+
+    public ApiResponseSerializer() {
+        super(ApiResponse.class);
+    }
+
+    @Override
+    public void serialize(ApiResponse response, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(response);
+        generator.writeFieldName(MESSAGE);
+        if (SUCCESS.equals(response.getMessage())) {
+            generator.writeString(SUCCESS_VALUE);
+        } else {
+            generator.writeString(response.getMessage());
+        }
+        generator.writeFieldName(BODY);
+        writeBody(response.getBody(), generator, provider);
+        generator.writeEndObject();
+    }
+
+    private void writeBody(Object body, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        if (body == null) {
+            generator.writeNull();
+        } else if (body instanceof Person person) {
+            personSerializer.serialize(person, generator, provider);
+        } else if (body instanceof PersonView person) {
+            personViewSerializer.serialize(person, generator, provider);
+        } else if (body instanceof List<?> list && list instanceof RandomAccess) {
+            generator.writeStartArray(list, list.size());
+            for (int i = 0; i < list.size(); i++) {
+                writeElement(list.get(i), generator, provider);
+            }
+            generator.writeEndArray();
+        } else if (body instanceof Iterable<?> iterable) {
+            generator.writeStartArray(iterable);
+            for (Object element : iterable) {
+                writeElement(element, generator, provider);
+            }
+            generator.writeEndArray();
+        } else {
+            provider.defaultSerializeValue(body, generator);
+        }
+    }
+
+    private void writeElement(Object element, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        if (element instanceof Person person) {
+            personSerializer.serialize(person, generator, provider);
+        } else if (element instanceof PersonView person) {
+            personViewSerializer.serialize(person, generator, provider);
+        } else {
+            provider.defaultSerializeValue(element, generator);
+        }
+    }
+}
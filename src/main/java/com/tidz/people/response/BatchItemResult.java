@@ -0,0 +1,12 @@
+package com.tidz.people.response;
+
+public record BatchItemResult(int index, Long id, Status status, String message) {
+
+    public enum Status {
+        CREATED, UPDATED, DELETED, NOT_FOUND, INVALID, FAILED
+    }
+
+    public static BatchItemResult of(int index, Long id, Status status) {
+        return new BatchItemResult(index, id, status, null);
+    }
+}
@@ -0,0 +1,13 @@
+package com.tidz.people.response;
+
+/**
+ * A progress line of a streamed import. {@code offset} counts the records of the input that are
+ * settled, either committed or rejected; an interrupted import resumes by sending the same input
+ * again with that offset.
+ */
+public record ImportProgress(long offset, long imported, long rejected, boolean done, String error) {
+
+    public static ImportProgress running(long offset, long imported, long rejected) {
+        return new ImportProgress(offset, imported, rejected, false, null);
+    }
+}
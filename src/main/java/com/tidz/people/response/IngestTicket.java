@@ -0,0 +1,12 @@
+package com.tidz.people.response;
+
+public record IngestTicket(String id, Status status, Long personId, String message) {
+
+    public enum Status {
+        QUEUED, CREATED, INVALID, FAILED
+    }
+
+    public static IngestTicket queued(String id) {
+        return new IngestTicket(id, Status.QUEUED, null, null);
+    }
+}
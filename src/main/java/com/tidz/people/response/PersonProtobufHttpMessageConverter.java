@@ -0,0 +1,222 @@
+package com.tidz.people.response;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.WireFormat;
+import com.tidz.people.model.Person;
+import com.tidz.people.model.PersonView;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads and writes the {@code application/x-protobuf} representation described by
+ * {@code src/main/proto/people.proto}. Like {@link ApiResponseSerializer}, it encodes persons and
+ * person views field by field straight to the stream, so there are no generated message classes
+ * and nothing is copied into them first. Envelopes whose body is not a person, a person view or a
+ * list of either have no protobuf form, so protobuf is only offered for the handlers given to the
+ * constructor; every other endpoint answers {@code Accept: application/x-protobuf} with 406.
+ */
+public class PersonProtobufHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final String PROTOBUF_VALUE = "application/x-protobuf";
+    public static final MediaType PROTOBUF = MediaType.parseMediaType(PROTOBUF_VALUE);
+
+    private static final int MESSAGE = tag(1, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int PEOPLE = tag(2, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int PERSON = tag(3, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+
+    private static final int ID = tag(1, WireFormat.WIRETYPE_VARINT);
+    private static final int NAME = tag(2, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int AGE = tag(3, WireFormat.WIRETYPE_VARINT);
+    private static final int PROFESSION = tag(4, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Set<Class<?>> handlerTypes;
+
+    /**
+     * @param handlerTypes controllers whose every response body is a person, a person view or a
+     *                     list of either
+     */
+    public PersonProtobufHttpMessageConverter(Class<?>... handlerTypes) {
+        super(PROTOBUF);
+        this.handlerTypes = Set.of(handlerTypes);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ApiResponse.class == clazz || Person.class == clazz;
+    }
+
+    /**
+     * Content negotiation only knows the declared {@link ApiResponse} type, not its body, so the
+     * handler serving the request decides instead. Outside a request the body type alone decides.
+     */
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        if (!super.canWrite(clazz, mediaType)) {
+            return false;
+        }
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        Object handler = request == null ? null
+                : request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return !(handler instanceof HandlerMethod method) || handlerTypes.contains(method.getBeanType());
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        CodedInputStream input = CodedInputStream.newInstance(inputMessage.getBody(), BUFFER_SIZE);
+        try {
+            if (clazz == Person.class) {
+                PersonView view = readPerson(input);
+                return new Person(view.id(), view.name(), view.age(), view.profession());
+            }
+            return readResponse(input);
+        } catch (InvalidProtocolBufferException e) {
+            throw new HttpMessageNotReadableException("Invalid protobuf " + clazz.getSimpleName() + ": " + e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object object, HttpOutputMessage outputMessage) throws IOException {
+        if (!(object instanceof ApiResponse response) || !writable(response.getBody())) {
+            throw new HttpMessageNotWritableException("No protobuf representation for " + describe(object));
+        }
+        CodedOutputStream output = CodedOutputStream.newInstance(outputMessage.getBody(), BUFFER_SIZE);
+        if (response.getMessage() != null) {
+            output.writeUInt32NoTag(MESSAGE);
+            output.writeStringNoTag(response.getMessage());
+        }
+        Object body = response.getBody();
+        if (body instanceof Iterable<?> people) {
+            for (Object person : people) {
+                writePerson(output, PEOPLE, person);
+            }
+        } else if (body != null) {
+            writePerson(output, PERSON, body);
+        }
+        output.flush();
+    }
+
+    private static boolean writable(Object body) {
+        if (body instanceof Iterable<?> people) {
+            for (Object person : people) {
+                if (!(person instanceof Person || person instanceof PersonView)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return body == null || body instanceof Person || body instanceof PersonView;
+    }
+
+    private static void writePerson(CodedOutputStream output, int tag, Object value) throws IOException {
+        PersonView person = value instanceof Person entity ? PersonView.of(entity) : (PersonView) value;
+        output.writeUInt32NoTag(tag);
+        output.writeUInt32NoTag(size(person));
+        if (person.id() != null) {
+            output.writeUInt32NoTag(ID);
+            output.writeInt64NoTag(person.id());
+        }
+        if (person.name() != null) {
+            output.writeUInt32NoTag(NAME);
+            output.writeStringNoTag(person.name());
+        }
+        if (person.age() != null) {
+            output.writeUInt32NoTag(AGE);
+            output.writeInt32NoTag(person.age());
+        }
+        if (person.profession() != null) {
+            output.writeUInt32NoTag(PROFESSION);
+            output.writeStringNoTag(person.profession());
+        }
+    }
+
+    private static int size(PersonView person) {
+        int size = 0;
+        if (person.id() != null) {
+            size += CodedOutputStream.computeInt64Size(1, person.id());
+        }
+        if (person.name() != null) {
+            size += CodedOutputStream.computeStringSize(2, person.name());
+        }
+        if (person.age() != null) {
+            size += CodedOutputStream.computeInt32Size(3, person.age());
+        }
+        if (person.profession() != null) {
+            size += CodedOutputStream.computeStringSize(4, person.profession());
+        }
+        return size;
+    }
+
+    /**
+     * The body of the returned envelope is the single person view when the message carried one,
+     * and the list of person views otherwise.
+     */
+    private static ApiResponse readResponse(CodedInputStream input) throws IOException {
+        String message = null;
+        PersonView person = null;
+        List<PersonView> people = new ArrayList<>();
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            if (tag == MESSAGE) {
+                message = input.readStringRequireUtf8();
+            } else if (tag == PEOPLE || tag == PERSON) {
+                int limit = input.pushLimit(input.readRawVarint32());
+                PersonView read = readPerson(input);
+                input.popLimit(limit);
+                if (tag == PEOPLE) {
+                    people.add(read);
+                } else {
+                    person = read;
+                }
+            } else if (!input.skipField(tag)) {
+                break;
+            }
+        }
+        return new ApiResponse(message, person != null ? person : people);
+    }
+
+    private static PersonView readPerson(CodedInputStream input) throws IOException {
+        Long id = null;
+        String name = null;
+        Integer age = null;
+        String profession = null;
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            if (tag == ID) {
+                id = input.readInt64();
+            } else if (tag == NAME) {
+                name = input.readStringRequireUtf8();
+            } else if (tag == AGE) {
+                age = input.readInt32();
+            } else if (tag == PROFESSION) {
+                profession = input.readStringRequireUtf8();
+            } else if (!input.skipField(tag)) {
+                break;
+            }
+        }
+        return new PersonView(id, name, age, profession, null);
+    }
+
+    private static String describe(Object object) {
+        return object instanceof ApiResponse response && response.getBody() != null
+                ? response.getBody().getClass().getSimpleName() : object.getClass().getSimpleName();
+    }
+
+    private static int tag(int field, int wireType) {
+        return field << 3 | wireType;
+    }
+}
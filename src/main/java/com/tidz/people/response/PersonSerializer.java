@@ -0,0 +1,47 @@
+package com.tidz.people.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.tidz.people.model.Person;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link Person} field by field with pre-encoded field names, skipping Jackson's
+ * reflective bean serializer. Output is identical to the default one, nulls included.
+ */
+public class PersonSerializer extends StdSerializer<Person> {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString AGE = new SerializedString("age");
+    private static final SerializedString PROFESSION = new SerializedString("profession");
+
+    public PersonSerializer() {
+        super(Person.class);
+    }
+
+    @Override
+    public void serialize(Person person, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(person);
+        generator.writeFieldName(ID);
+        if (person.getId() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(person.getId());
+        }
+        generator.writeFieldName(NAME);
+        generator.writeString(person.getName());
+        generator.writeFieldName(AGE);
+        if (person.getAge() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(person.getAge());
+        }
+        generator.writeFieldName(PROFESSION);
+        generator.writeString(person.getProfession());
+        generator.writeEndObject();
+    }
+}
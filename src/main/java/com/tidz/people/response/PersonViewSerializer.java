@@ -0,0 +1,47 @@
+package com.tidz.people.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.tidz.people.model.PersonView;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link PersonView} like {@link PersonSerializer} writes a person, except that components
+ * left out of the selection are skipped instead of written as {@code null}.
+ */
+public class PersonViewSerializer extends StdSerializer<PersonView> {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString AGE = new SerializedString("age");
+    private static final SerializedString PROFESSION = new SerializedString("profession");
+
+    public PersonViewSerializer() {
+        super(PersonView.class);
+    }
+
+    @Override
+    public void serialize(PersonView person, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(person);
+        if (person.id() != null) {
+            generator.writeFieldName(ID);
+            generator.writeNumber(person.id());
+        }
+        if (person.name() != null) {
+            generator.writeFieldName(NAME);
+            generator.writeString(person.name());
+        }
+        if (person.age() != null) {
+            generator.writeFieldName(AGE);
+            generator.writeNumber(person.age());
+        }
+        if (person.profession() != null) {
+            generator.writeFieldName(PROFESSION);
+            generator.writeString(person.profession());
+        }
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,179 @@
+package com.tidz.people.search;
+
+import com.tidz.people.exceptions.ReindexRunningException;
+import com.tidz.people.memory.Tombstones;
+import com.tidz.people.model.Person;
+import com.tidz.people.model.PersonMatch;
+import com.tidz.people.model.PersonRow;
+import com.tidz.people.repository.PersonRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Full-text index over the names and professions of persons, used for text searches when
+ * {@code people.search.enabled} is set.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "people.search.enabled", havingValue = "true")
+public class PersonSearchIndex implements SmartInitializingSingleton, MeterBinder {
+
+    private final PersonRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final int loadPageSize;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final Tombstones tombstones = new Tombstones();
+    private TextIndex index = new TextIndex(0);
+
+    /**
+     * Changes committed while a rebuild reads the table, replayed onto the fresh index.
+     */
+    private List<Consumer<TextIndex>> pending;
+
+    @Autowired
+    public PersonSearchIndex(PersonRepository repository, PlatformTransactionManager transactionManager,
+                             @Value("${people.search.load-page-size:10000}") int loadPageSize) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.loadPageSize = loadPageSize;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        reindex();
+    }
+
+    /**
+     * @throws ReindexRunningException when another rebuild is still running
+     */
+    public int reindex() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new ReindexRunningException("A reindex is already running");
+        }
+        write(() -> pending = new ArrayList<>());
+        try {
+            TextIndex rebuilt = load();
+            lock.writeLock().lock();
+            try {
+                pending.forEach(change -> change.accept(rebuilt));
+                index = rebuilt;
+                return rebuilt.size();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            write(() -> pending = null);
+            rebuilding.set(false);
+        }
+    }
+
+    private TextIndex load() {
+        return transactionTemplate.execute(status -> {
+            TextIndex loaded = new TextIndex((int) Math.min(Integer.MAX_VALUE - 8, repository.count()));
+            List<PersonRow> page = repository.findAllByOrderByIdAsc(Limit.of(loadPageSize), PersonRow.class);
+            while (!page.isEmpty()) {
+                page.forEach(row -> loaded.put(row.toPerson()));
+                if (page.size() < loadPageSize) {
+                    break;
+                }
+                page = repository.findByIdGreaterThanOrderByIdAsc(page.getLast().id(), Limit.of(loadPageSize), PersonRow.class);
+            }
+            return loaded;
+        });
+    }
+
+    public List<PersonMatch> search(String query, int limit) {
+        return read(() -> index.search(query, limit));
+    }
+
+    public int size() {
+        return read(() -> index.size());
+    }
+
+    public void saved(Person person) {
+        afterCommit(index -> {
+            if (!tombstones.buries(person)) {
+                index.put(person);
+            }
+        });
+    }
+
+    public void deleted(Long id) {
+        deleted(id, null);
+    }
+
+    public void deleted(Long id, Long version) {
+        afterCommit(index -> {
+            index.remove(id);
+            tombstones.add(id, version);
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("people.search.documents", this, PersonSearchIndex::size)
+                .description("Persons held by the text search index")
+                .register(registry);
+    }
+
+    private void afterCommit(Consumer<TextIndex> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private void apply(Consumer<TextIndex> change) {
+        write(() -> {
+            change.accept(index);
+            if (pending != null) {
+                pending.add(change);
+            }
+        });
+    }
+
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private <T> T read(Supplier<T> query) {
+        lock.readLock().lock();
+        try {
+            return query.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.tidz.people.search;
+
+import com.tidz.people.exceptions.ReindexRunningException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "people.search.enabled", havingValue = "true")
+@Endpoint(id = "searchindex")
+public class SearchIndexEndpoint {
+
+    private final PersonSearchIndex searchIndex;
+
+    @Autowired
+    public SearchIndexEndpoint(PersonSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @ReadOperation
+    public Map<String, Object> documents() {
+        return Map.of("documents", searchIndex.size());
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> reindex() {
+        try {
+            return new WebEndpointResponse<>(Map.of("documents", searchIndex.reindex()));
+        } catch (ReindexRunningException e) {
+            return new WebEndpointResponse<>(Map.of("message", e.getMessage()), HttpStatus.CONFLICT.value());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.tidz.people.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+final class TextAnalyzer {
+
+    static final int MIN_FUZZY_LENGTH = 4;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private TextAnalyzer() {
+    }
+
+    static List<String> terms(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        List<String> terms = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean inTerm = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (inTerm && start < 0) {
+                start = i;
+            } else if (!inTerm && start >= 0) {
+                terms.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    static Set<String> distinctTerms(String text) {
+        return new LinkedHashSet<>(terms(text));
+    }
+
+    static boolean fuzzy(String term) {
+        if (term.length() < MIN_FUZZY_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < term.length(); i++) {
+            if (!Character.isDigit(term.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Two terms within one edit of each other always share one of these keys or the term itself.
+     */
+    static Set<String> deletions(String term) {
+        Set<String> deletions = new LinkedHashSet<>(term.length());
+        for (int i = 0; i < term.length(); i++) {
+            deletions.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return deletions;
+    }
+
+    static boolean oneEditApart(String a, String b) {
+        if (a.length() < b.length()) {
+            String swap = a;
+            a = b;
+            b = swap;
+        }
+        if (a.length() - b.length() > 1 || a.equals(b)) {
+            return false;
+        }
+        int prefix = 0;
+        while (prefix < b.length() && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        if (a.length() != b.length()) {
+            return a.regionMatches(prefix + 1, b, prefix, b.length() - prefix);
+        }
+        if (a.regionMatches(prefix + 1, b, prefix + 1, a.length() - prefix - 1)) {
+            return true;
+        }
+        return prefix + 1 < a.length()
+                && a.charAt(prefix) == b.charAt(prefix + 1) && a.charAt(prefix + 1) == b.charAt(prefix)
+                && a.regionMatches(prefix + 2, b, prefix + 2, a.length() - prefix - 2);
+    }
+}
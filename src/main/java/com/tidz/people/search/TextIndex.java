@@ -0,0 +1,323 @@
+package com.tidz.people.search;
+
+import com.tidz.people.memory.LongIntHashMap;
+import com.tidz.people.model.Person;
+import com.tidz.people.model.PersonMatch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Inverted index over the names and professions of persons, matching terms exactly, by prefix and
+ * within one edit. Not thread-safe; {@link PersonSearchIndex} guards it with a lock.
+ */
+public final class TextIndex {
+
+    static final float NAME_WEIGHT = 1.0f;
+    static final float PROFESSION_WEIGHT = 0.5f;
+    static final float PREFIX_WEIGHT = 0.8f;
+    static final float FUZZY_WEIGHT = 0.6f;
+    static final int MIN_PREFIX_LENGTH = 2;
+    static final int MAX_EXPANSIONS = 64;
+    static final int MAX_QUERY_TERMS = 8;
+
+    private static final int NO_AGE = Integer.MIN_VALUE;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] ids;
+    private String[] names;
+    private int[] ages;
+    private String[] professions;
+    private long[] versions;
+    private boolean[] live;
+    private int slots;
+    private int size;
+
+    private final LongIntHashMap slotsById;
+    private Field nameField = new Field(NAME_WEIGHT);
+    private Field professionField = new Field(PROFESSION_WEIGHT);
+
+    public TextIndex(int expectedSize) {
+        int capacity = Math.max(MIN_CAPACITY, expectedSize);
+        ids = new long[capacity];
+        names = new String[capacity];
+        ages = new int[capacity];
+        professions = new String[capacity];
+        versions = new long[capacity];
+        live = new boolean[capacity];
+        slotsById = new LongIntHashMap(capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int terms() {
+        return nameField.terms.size() + professionField.terms.size();
+    }
+
+    /**
+     * Ignores a person whose version is not above the indexed one.
+     */
+    public void put(Person person) {
+        if (person.getId() == null) {
+            return;
+        }
+        long version = person.getVersion() == null ? 0 : person.getVersion();
+        int slot = slotsById.get(person.getId());
+        if (slot != LongIntHashMap.MISSING) {
+            if (person.getVersion() != null && version <= versions[slot]) {
+                return;
+            }
+            if (Objects.equals(names[slot], person.getName()) && Objects.equals(professions[slot], person.getProfession())) {
+                ages[slot] = age(person.getAge());
+                versions[slot] = version;
+                return;
+            }
+            retire(slot);
+        }
+        append(person.getId(), person.getName(), age(person.getAge()), person.getProfession(), version);
+        compactIfSparse();
+    }
+
+    public boolean remove(long id) {
+        int slot = slotsById.remove(id);
+        if (slot == LongIntHashMap.MISSING) {
+            return false;
+        }
+        live[slot] = false;
+        size--;
+        compactIfSparse();
+        return true;
+    }
+
+    public List<PersonMatch> search(String query, int limit) {
+        List<String> queryTerms = new ArrayList<>(TextAnalyzer.distinctTerms(query));
+        if (queryTerms.isEmpty() || size == 0) {
+            return List.of();
+        }
+        queryTerms = queryTerms.subList(0, Math.min(queryTerms.size(), MAX_QUERY_TERMS));
+
+        PriorityQueue<Cursor> cursors = new PriorityQueue<>(Comparator.comparingInt(Cursor::slot));
+        for (int token = 0; token < queryTerms.size(); token++) {
+            nameField.expand(queryTerms.get(token), token, size, cursors);
+            professionField.expand(queryTerms.get(token), token, size, cursors);
+        }
+
+        Comparator<Hit> worstFirst = Comparator.comparingDouble(Hit::score).thenComparing(Comparator.comparingLong(Hit::id).reversed());
+        PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, worstFirst);
+        float[] best = new float[queryTerms.size()];
+        while (!cursors.isEmpty()) {
+            int slot = cursors.peek().slot();
+            Arrays.fill(best, 0);
+            while (!cursors.isEmpty() && cursors.peek().slot() == slot) {
+                Cursor cursor = cursors.poll();
+                best[cursor.token] = Math.max(best[cursor.token], cursor.weight);
+                if (cursor.advance()) {
+                    cursors.add(cursor);
+                }
+            }
+            if (!live[slot]) {
+                continue;
+            }
+            float score = 0;
+            for (float tokenScore : best) {
+                score += tokenScore;
+            }
+            Hit hit = new Hit(slot, ids[slot], score);
+            if (top.size() < limit) {
+                top.add(hit);
+            } else if (worstFirst.compare(hit, top.peek()) > 0) {
+                top.poll();
+                top.add(hit);
+            }
+        }
+
+        List<PersonMatch> matches = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            Hit hit = top.poll();
+            int slot = hit.slot();
+            matches.add(new PersonMatch(ids[slot], names[slot], ages[slot] == NO_AGE ? null : ages[slot], professions[slot],
+                    Math.round(hit.score() * 1000) / 1000.0));
+        }
+        return matches.reversed();
+    }
+
+    private void append(long id, String name, int age, String profession, long version) {
+        if (slots == ids.length) {
+            int capacity = ids.length + (ids.length >> 1);
+            ids = Arrays.copyOf(ids, capacity);
+            names = Arrays.copyOf(names, capacity);
+            ages = Arrays.copyOf(ages, capacity);
+            professions = Arrays.copyOf(professions, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            live = Arrays.copyOf(live, capacity);
+        }
+        int slot = slots++;
+        ids[slot] = id;
+        names[slot] = name;
+        ages[slot] = age;
+        professions[slot] = profession;
+        versions[slot] = version;
+        live[slot] = true;
+        slotsById.put(id, slot);
+        for (String term : TextAnalyzer.distinctTerms(name)) {
+            nameField.add(term, slot);
+        }
+        for (String term : TextAnalyzer.distinctTerms(profession)) {
+            professionField.add(term, slot);
+        }
+        size++;
+    }
+
+    private void retire(int slot) {
+        slotsById.remove(ids[slot]);
+        live[slot] = false;
+        size--;
+    }
+
+    private void compactIfSparse() {
+        if (size >= slots / 2 || slots <= MIN_CAPACITY) {
+            return;
+        }
+        long[] oldIds = ids;
+        String[] oldNames = names;
+        int[] oldAges = ages;
+        String[] oldProfessions = professions;
+        long[] oldVersions = versions;
+        boolean[] oldLive = live;
+        int oldSlots = slots;
+
+        int capacity = Math.max(MIN_CAPACITY, size + (size >> 1));
+        ids = new long[capacity];
+        names = new String[capacity];
+        ages = new int[capacity];
+        professions = new String[capacity];
+        versions = new long[capacity];
+        live = new boolean[capacity];
+        slots = 0;
+        size = 0;
+        slotsById.clear();
+        nameField = new Field(NAME_WEIGHT);
+        professionField = new Field(PROFESSION_WEIGHT);
+        for (int slot = 0; slot < oldSlots; slot++) {
+            if (oldLive[slot]) {
+                append(oldIds[slot], oldNames[slot], oldAges[slot], oldProfessions[slot], oldVersions[slot]);
+            }
+        }
+    }
+
+    private static int age(Integer age) {
+        return age == null ? NO_AGE : age;
+    }
+
+    private static final class Field {
+
+        private final float weight;
+        private final TreeMap<String, Postings> terms = new TreeMap<>();
+        private final Map<String, List<String>> deletions = new HashMap<>();
+
+        Field(float weight) {
+            this.weight = weight;
+        }
+
+        void add(String term, int slot) {
+            Postings postings = terms.get(term);
+            if (postings == null) {
+                postings = new Postings();
+                terms.put(term, postings);
+                if (TextAnalyzer.fuzzy(term)) {
+                    for (String deletion : TextAnalyzer.deletions(term)) {
+                        deletions.computeIfAbsent(deletion, key -> new ArrayList<>(1)).add(term);
+                    }
+                }
+            }
+            postings.add(slot);
+        }
+
+        void expand(String queryTerm, int token, int documents, PriorityQueue<Cursor> cursors) {
+            add(cursors, terms.get(queryTerm), token, 1f, documents);
+            if (queryTerm.length() >= MIN_PREFIX_LENGTH) {
+                int expansions = 0;
+                for (Map.Entry<String, Postings> completion
+                        : terms.subMap(queryTerm, false, queryTerm + Character.MAX_VALUE, false).entrySet()) {
+                    if (expansions++ == MAX_EXPANSIONS) {
+                        break;
+                    }
+                    add(cursors, completion.getValue(), token,
+                            PREFIX_WEIGHT * queryTerm.length() / completion.getKey().length(), documents);
+                }
+            }
+            if (TextAnalyzer.fuzzy(queryTerm)) {
+                Set<String> similar = new HashSet<>(deletions.getOrDefault(queryTerm, List.of()));
+                for (String deletion : TextAnalyzer.deletions(queryTerm)) {
+                    if (terms.containsKey(deletion)) {
+                        similar.add(deletion);
+                    }
+                    similar.addAll(deletions.getOrDefault(deletion, List.of()));
+                }
+                for (String term : similar) {
+                    if (!term.startsWith(queryTerm) && TextAnalyzer.oneEditApart(queryTerm, term)) {
+                        add(cursors, terms.get(term), token, FUZZY_WEIGHT, documents);
+                    }
+                }
+            }
+        }
+
+        private void add(PriorityQueue<Cursor> cursors, Postings postings, int token, float match, int documents) {
+            if (postings != null && postings.size > 0) {
+                float idf = (float) Math.log(1 + (double) documents / postings.size);
+                cursors.add(new Cursor(postings.slots, postings.size, token, weight * match * idf));
+            }
+        }
+    }
+
+    private static final class Postings {
+
+        private int[] slots = new int[2];
+        private int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+
+    private static final class Cursor {
+
+        private final int[] slots;
+        private final int size;
+        private final int token;
+        private final float weight;
+        private int position;
+
+        Cursor(int[] slots, int size, int token, float weight) {
+            this.slots = slots;
+            this.size = size;
+            this.token = token;
+            this.weight = weight;
+        }
+
+        int slot() {
+            return slots[position];
+        }
+
+        boolean advance() {
+            return ++position < size;
+        }
+    }
+
+    private record Hit(int slot, long id, float score) {
+    }
+}
@@ -0,0 +1,221 @@
+package com.tidz.people.service;
+
+import com.tidz.people.cache.PersonCache;
+import com.tidz.people.changes.PersonChangeLog;
+import com.tidz.people.memory.InMemoryPersonReplica;
+import com.tidz.people.model.Person;
+import com.tidz.people.model.ProfessionAge;
+import com.tidz.people.repository.PersonRepository;
+import com.tidz.people.response.BatchItemResult;
+import com.tidz.people.response.BatchItemResult.Status;
+import com.tidz.people.search.PersonSearchIndex;
+import com.tidz.people.stats.PersonStatsRollup;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Writes large sets of persons in fixed-size chunks, one transaction per chunk, so Hibernate can
+ * group the statements into JDBC batches. A chunk that fails to commit is rolled back on its own
+ * and every item in it is reported as {@link Status#FAILED}; the other chunks are unaffected.
+ */
+@Service
+@Timed(value = "people.service", histogram = true)
+@Profile("!reactive")
+public class PersonBatchService {
+
+    private final PersonRepository repository;
+    private final EntityManager entityManager;
+    private final PersonCache cache;
+    private final TransactionTemplate transactionTemplate;
+    private final PersonStatsRollup statsRollup;
+    private final InMemoryPersonReplica memoryReplica;
+    private final PersonChangeLog changeLog;
+    private final PersonSearchIndex searchIndex;
+    private final int chunkSize;
+
+    @Autowired
+    public PersonBatchService(PersonRepository repository, EntityManager entityManager, PersonCache cache,
+                              PlatformTransactionManager transactionManager, @Nullable PersonStatsRollup statsRollup,
+                              @Nullable InMemoryPersonReplica memoryReplica, PersonChangeLog changeLog,
+                              @Nullable PersonSearchIndex searchIndex, @Value("${people.batch.chunk-size:500}") int chunkSize) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.cache = cache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.statsRollup = statsRollup;
+        this.memoryReplica = memoryReplica;
+        this.changeLog = changeLog;
+        this.searchIndex = searchIndex;
+        this.chunkSize = chunkSize;
+    }
+
+    public List<BatchItemResult> saveAll(List<Person> people) {
+        return inChunks(people, (offset, chunk) -> {
+            List<BatchItemResult> results = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                Person person = chunk.get(i);
+                String invalid = validate(person);
+                if (invalid != null) {
+                    results.add(new BatchItemResult(offset + i, null, Status.INVALID, invalid));
+                    continue;
+                }
+                person.setId(null);
+                entityManager.persist(person);
+                cache.evict(person.getId());
+                statsChanged(null, ProfessionAge.of(person));
+                replicate(person);
+                results.add(BatchItemResult.of(offset + i, person.getId(), Status.CREATED));
+            }
+            changeLog.upserted(written(results));
+            return results;
+        });
+    }
+
+    public List<BatchItemResult> updateAll(List<Person> people) {
+        return inChunks(people, (offset, chunk) -> {
+            List<Long> ids = chunk.stream().map(person -> person == null ? null : person.getId())
+                    .filter(Objects::nonNull).toList();
+            // With the rollup the rows are locked, so what they count towards cannot change before the update.
+            List<Person> found = statsRollup == null ? repository.findAllById(ids) : repository.lockAllByIds(ids);
+            Map<Long, Person> existing = found.stream()
+                    .collect(Collectors.toMap(Person::getId, Function.identity()));
+
+            List<BatchItemResult> results = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                Person updatedPerson = chunk.get(i);
+                String invalid = updatedPerson != null && updatedPerson.getId() == null ? "id is required" : validate(updatedPerson);
+                if (invalid != null) {
+                    results.add(new BatchItemResult(offset + i, null, Status.INVALID, invalid));
+                    continue;
+                }
+                Person person = existing.get(updatedPerson.getId());
+                if (person == null) {
+                    results.add(new BatchItemResult(offset + i, updatedPerson.getId(), Status.NOT_FOUND,
+                            "Person with id " + updatedPerson.getId() + " not found"));
+                    continue;
+                }
+                statsChanged(ProfessionAge.of(person), ProfessionAge.of(updatedPerson));
+                person.setName(updatedPerson.getName());
+                person.setAge(updatedPerson.getAge());
+                person.setProfession(updatedPerson.getProfession());
+                replicate(person);
+                cache.evict(person.getId());
+                results.add(BatchItemResult.of(offset + i, person.getId(), Status.UPDATED));
+            }
+            changeLog.upserted(written(results));
+            return results;
+        });
+    }
+
+    public List<BatchItemResult> deleteAll(List<Long> ids) {
+        return inChunks(ids, (offset, chunk) -> {
+            Set<Long> existing = new HashSet<>(repository.findExistingIds(chunk.stream().filter(Objects::nonNull).toList()));
+            if (!existing.isEmpty()) {
+                if (statsRollup != null) {
+                    repository.lockProfessionAgesByIds(existing).forEach(deleted -> statsRollup.changed(deleted, null));
+                }
+                changeLog.deleting(existing);
+                repository.deleteAllByIdInBatch(existing);
+                cache.evictAll(existing);
+                if (memoryReplica != null) {
+                    existing.forEach(memoryReplica::deleted);
+                }
+                if (searchIndex != null) {
+                    existing.forEach(searchIndex::deleted);
+                }
+            }
+
+            List<BatchItemResult> results = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                Long id = chunk.get(i);
+                if (id == null) {
+                    results.add(new BatchItemResult(offset + i, null, Status.INVALID, "id is required"));
+                } else if (existing.contains(id)) {
+                    results.add(BatchItemResult.of(offset + i, id, Status.DELETED));
+                } else {
+                    results.add(new BatchItemResult(offset + i, id, Status.NOT_FOUND, "Person with id " + id + " not found"));
+                }
+            }
+            return results;
+        });
+    }
+
+    private <T> List<BatchItemResult> inChunks(List<T> items, ChunkWriter<T> writer) {
+        List<BatchItemResult> results = new ArrayList<>(items.size());
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            int offset = from;
+            List<T> chunk = items.subList(from, Math.min(from + chunkSize, items.size()));
+            try {
+                results.addAll(transactionTemplate.execute(status -> {
+                    List<BatchItemResult> chunkResults = writer.write(offset, chunk);
+                    entityManager.flush();
+                    entityManager.clear();
+                    return chunkResults;
+                }));
+            } catch (DataAccessException | PersistenceException | TransactionException e) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    results.add(new BatchItemResult(offset + i, null, Status.FAILED, "Chunk rolled back: " + e.getMessage()));
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Ids of the persons written by the chunk. The change log copies them with one insert-select,
+     * which Hibernate precedes with a flush, so they carry the versions of this write.
+     */
+    private static List<Long> written(List<BatchItemResult> results) {
+        return results.stream().filter(result -> result.status() == Status.CREATED || result.status() == Status.UPDATED)
+                .map(BatchItemResult::id).toList();
+    }
+
+    private void statsChanged(ProfessionAge before, ProfessionAge after) {
+        if (statsRollup != null) {
+            statsRollup.changed(before, after);
+        }
+    }
+
+    private void replicate(Person person) {
+        if (memoryReplica != null) {
+            memoryReplica.saved(person);
+        }
+        if (searchIndex != null) {
+            searchIndex.saved(person);
+        }
+    }
+
+    private static String validate(Person person) {
+        if (person == null) {
+            return "person is required";
+        }
+        if (person.getName() == null || person.getAge() == null || person.getProfession() == null) {
+            return "name, age and profession are required";
+        }
+        return null;
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter<T> {
+        List<BatchItemResult> write(int offset, List<T> chunk);
+    }
+}
@@ -0,0 +1,92 @@
+package com.tidz.people.service;
+
+import com.tidz.people.exceptions.InvalidRecordException;
+import com.tidz.people.model.Person;
+import com.tidz.people.response.BatchItemResult;
+import com.tidz.people.response.ImportProgress;
+import com.tidz.people.transfer.PersonReader;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Imports a stream of persons chunk by chunk through {@link PersonBatchService}. The input is only
+ * read while the previous chunk is being committed, so a slow database slows the upload down instead
+ * of buffering it, and memory stays bounded by one chunk whatever the size of the input.
+ */
+@Service
+@Timed(value = "people.service", histogram = true)
+@Profile("!reactive")
+public class PersonImportService {
+
+    private final PersonBatchService batchService;
+    private final int chunkSize;
+
+    @Autowired
+    public PersonImportService(PersonBatchService batchService, @Value("${people.batch.chunk-size:500}") int chunkSize) {
+        this.batchService = batchService;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports every record of {@code reader} after the first {@code offset} ones, reporting progress
+     * after each committed chunk. Records that cannot be parsed or validated are counted as rejected.
+     * The import stops at the first chunk that fails to commit and reports the offset of the last
+     * committed one, so it can be resumed from there.
+     */
+    public ImportProgress importPeople(PersonReader reader, long offset, Consumer<ImportProgress> progress) throws IOException {
+        List<Person> chunk = new ArrayList<>(chunkSize);
+        long position = 0;
+        long committed = offset;
+        long imported = 0;
+        long rejected = 0;
+        boolean exhausted = false;
+        while (!exhausted) {
+            Person person;
+            try {
+                person = reader.next();
+            } catch (InvalidRecordException e) {
+                if (++position > offset) {
+                    rejected++;
+                }
+                continue;
+            }
+            exhausted = person == null;
+            if (!exhausted && ++position > offset) {
+                chunk.add(person);
+            }
+            if (chunk.size() < chunkSize && !(exhausted && !chunk.isEmpty())) {
+                continue;
+            }
+
+            String failure = null;
+            for (BatchItemResult result : batchService.saveAll(chunk)) {
+                switch (result.status()) {
+                    case CREATED -> imported++;
+                    case FAILED -> failure = result.message();
+                    default -> rejected++;
+                }
+            }
+            chunk = new ArrayList<>(chunkSize);
+            if (failure != null) {
+                ImportProgress failed = new ImportProgress(committed, imported, rejected, true, failure);
+                progress.accept(failed);
+                return failed;
+            }
+            committed = position;
+            if (!exhausted) {
+                progress.accept(ImportProgress.running(committed, imported, rejected));
+            }
+        }
+        ImportProgress done = new ImportProgress(position, imported, rejected, true, null);
+        progress.accept(done);
+        return done;
+    }
+}
@@ -1,52 +1,351 @@
 package com.tidz.people.service;
 
+import com.tidz.people.cache.PersonCache;
+import com.tidz.people.changes.PersonChangeLog;
+import com.tidz.people.exceptions.InvalidRecordException;
+import com.tidz.people.exceptions.PreconditionFailedException;
 import com.tidz.people.exceptions.ResourceNotFoundException;
+import com.tidz.people.memory.InMemoryPersonReplica;
 import com.tidz.people.model.Person;
+import com.tidz.people.model.PersonField;
+import com.tidz.people.model.PersonMatch;
+import com.tidz.people.model.PersonVersion;
+import com.tidz.people.model.PersonView;
+import com.tidz.people.model.ProfessionAge;
 import com.tidz.people.repository.PersonRepository;
-import jakarta.transaction.Transactional;
+import com.tidz.people.repository.PersonSpecifications;
+import com.tidz.people.search.PersonSearchIndex;
+import com.tidz.people.stats.PersonStatsRollup;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+/**
+ * Reads that the cache, the in-memory replica or the search index can answer are not transactional,
+ * so a hit there takes no connection. Their database branches are single repository calls, each in
+ * the repository's own read-only transaction, which is what replica routing keys on.
+ */
 @Service
+@Timed(value = "people.service", histogram = true)
+@Profile("!reactive")
 public class PersonService {
 
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int DEFAULT_MATCH_LIMIT = 20;
+    public static final int MAX_MATCH_LIMIT = 200;
+
     private final PersonRepository repository;
+    private final EntityManager entityManager;
+    private final PersonCache cache;
+    private final PersonStatsRollup statsRollup;
+    private final InMemoryPersonReplica memoryReplica;
+    private final PersonChangeLog changeLog;
+    private final PersonSearchIndex searchIndex;
 
     @Autowired
-    public PersonService(PersonRepository repository) {
+    public PersonService(PersonRepository repository, EntityManager entityManager, PersonCache cache,
+                         @Nullable PersonStatsRollup statsRollup, @Nullable InMemoryPersonReplica memoryReplica,
+                         PersonChangeLog changeLog, @Nullable PersonSearchIndex searchIndex) {
         this.repository = repository;
+        this.entityManager = entityManager;
+        this.cache = cache;
+        this.statsRollup = statsRollup;
+        this.memoryReplica = memoryReplica;
+        this.changeLog = changeLog;
+        this.searchIndex = searchIndex;
     }
 
+    /**
+     * Creates the person, or replaces the existing one when the id of a stored person is given. An
+     * unknown id is rejected rather than created, since ids come from the sequence.
+     */
     @Transactional
     public Person save(Person person) {
-        return repository.save(person);
+        if (person.getId() != null) {
+            if (!repository.existsById(person.getId())) {
+                throw new InvalidRecordException("No person with id " + person.getId() + "; leave the id out to create one");
+            }
+            return update(person.getId(), person);
+        }
+        Person savedPerson = repository.save(person);
+        cache.evict(savedPerson.getId());
+        statsChanged(null, ProfessionAge.of(savedPerson));
+        changeLog.upserted(savedPerson.getId());
+        if (memoryReplica != null) {
+            memoryReplica.saved(savedPerson);
+        }
+        if (searchIndex != null) {
+            searchIndex.saved(savedPerson);
+        }
+        return savedPerson;
+    }
+
+    /**
+     * Returns at most {@code limit} persons ordered by id, starting right after the {@code after} cursor.
+     * Passing a {@code null} cursor returns the first page.
+     */
+    public List<PersonView> getPersons(Long after, int limit) {
+        if (memoryReplica != null) {
+            return memoryReplica.page(after, Math.clamp(limit, 1, MAX_PAGE_SIZE));
+        }
+        Limit pageLimit = Limit.of(Math.clamp(limit, 1, MAX_PAGE_SIZE));
+        if (after == null) {
+            return repository.findAllByOrderByIdAsc(pageLimit, PersonView.class);
+        }
+        return repository.findByIdGreaterThanOrderByIdAsc(after, pageLimit, PersonView.class);
+    }
+
+    /**
+     * Like {@link #getPersons(Long, int)} but selecting only the id, the version and {@code fields}.
+     */
+    public List<PersonView> getPersons(Long after, int limit, Set<PersonField> fields) {
+        if (fields.containsAll(PersonField.ALL)) {
+            return getPersons(after, limit);
+        }
+        if (memoryReplica != null) {
+            return select(memoryReplica.page(after, Math.clamp(limit, 1, MAX_PAGE_SIZE)), fields);
+        }
+        return repository.findViews(PersonSpecifications.idAfter(after), fields, Math.clamp(limit, 1, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Returns at most {@code limit} persons matching every non-null filter, ordered by id and starting
+     * right after the {@code after} cursor.
+     */
+    public List<PersonView> searchPersons(String profession, String namePrefix, Integer minAge, Integer maxAge,
+                                          Long after, int limit) {
+        return searchPersons(profession, namePrefix, minAge, maxAge, after, limit, PersonField.ALL);
+    }
+
+    public List<PersonView> searchPersons(String profession, String namePrefix, Integer minAge, Integer maxAge,
+                                          Long after, int limit, Set<PersonField> fields) {
+        if (memoryReplica != null) {
+            return select(memoryReplica.search(profession, namePrefix, minAge, maxAge, after,
+                    Math.clamp(limit, 1, MAX_PAGE_SIZE)), fields);
+        }
+        return repository.findViews(PersonSpecifications.search(profession, namePrefix, minAge, maxAge, after),
+                fields, Math.clamp(limit, 1, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Returns at most {@code limit} persons whose name or profession matches the words of {@code text},
+     * best match first. The search index also matches word prefixes and misspellings; without it the
+     * text is matched as a substring and the hits come unranked, in id order.
+     */
+    public List<PersonMatch> searchText(String text, int limit) {
+        int matchLimit = Math.clamp(limit, 1, MAX_MATCH_LIMIT);
+        if (searchIndex != null) {
+            return searchIndex.search(text, matchLimit);
+        }
+        return repository.findViews(PersonSpecifications.nameOrProfessionContains(text), PersonField.ALL, matchLimit)
+                .stream().map(PersonMatch::unranked).toList();
     }
 
-    public List<Person> getAllPersons() {
-        return repository.findAll();
+    /**
+     * Walks the whole table through a database cursor, handing each person to {@code consumer}.
+     * Every row is detached once consumed so the persistence context never grows with the table.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllPersons(Consumer<Person> consumer) {
+        streamPersons(null, consumer);
+    }
+
+    /**
+     * Like {@link #streamAllPersons(Consumer)} but starting right after the {@code after} cursor, so an
+     * interrupted export can pick up where it stopped.
+     */
+    @Transactional(readOnly = true)
+    public void streamPersons(Long after, Consumer<Person> consumer) {
+        try (Stream<Person> people = after == null ? repository.streamAll() : repository.streamAfter(after)) {
+            people.forEach(person -> {
+                consumer.accept(person);
+                entityManager.detach(person);
+            });
+        }
     }
 
     public Person getPersonById(Long id) {
-        return repository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Person with id " + id + " not found"));
+        if (memoryReplica != null) {
+            Person person = memoryReplica.get(id);
+            if (person == null) {
+                throw notFound(id);
+            }
+            return person;
+        }
+        return cache.get(id, repository::findById).orElseThrow(() -> notFound(id));
+    }
+
+    /**
+     * Returns the version and last modification time of the person, from the cache when the person
+     * is already there and otherwise with a primary key lookup that does not load the entity.
+     */
+    public PersonVersion getPersonVersion(Long id) {
+        if (memoryReplica != null) {
+            PersonVersion version = memoryReplica.version(id);
+            if (version == null) {
+                throw notFound(id);
+            }
+            return version;
+        }
+        Person cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return PersonVersion.of(cached);
+        }
+        return repository.findVersionById(id).orElseThrow(() -> notFound(id));
     }
 
     @Transactional
     public Person update(Long id, Person updatedPerson) {
-        return repository.findById(id).map(person -> {
-            person.setName(updatedPerson.getName());
-            person.setAge(updatedPerson.getAge());
-            person.setProfession(updatedPerson.getProfession());
-            return repository.save(person);
-        }).orElseThrow(() -> new ResourceNotFoundException("Person with id " + id + " not found"));
+        return update(id, updatedPerson, null);
+    }
+
+    /**
+     * Replaces all fields of the person with a single UPDATE statement. When {@code expectedVersion}
+     * is given the row is only changed if it still has that version, and the returned person carries
+     * the one after it; otherwise only the new version is read back, see {@link #writtenVersion}.
+     */
+    @Transactional
+    public Person update(Long id, Person updatedPerson, Long expectedVersion) {
+        ProfessionAge before = lockStats(id);
+        int updated = repository.updateById(id, updatedPerson.getName(), updatedPerson.getAge(),
+                updatedPerson.getProfession(), expectedVersion);
+        cache.evict(id);
+        checkWritten(id, updated, expectedVersion);
+        statsChanged(before, ProfessionAge.of(updatedPerson));
+        changeLog.upserted(id);
+        Long version = writtenVersion(id, expectedVersion);
+        return written(new Person(id, updatedPerson.getName(), updatedPerson.getAge(), updatedPerson.getProfession()), version);
+    }
+
+    @Transactional
+    public Person patch(Long id, Person changes) {
+        return patch(id, changes, null);
+    }
+
+    /**
+     * Changes only the non-null fields of {@code changes} with a single UPDATE statement.
+     * The returned person carries the id, the new version and the supplied fields only, since the
+     * row itself is not read back.
+     */
+    @Transactional
+    public Person patch(Long id, Person changes, Long expectedVersion) {
+        ProfessionAge before = lockStats(id);
+        int updated = repository.patchById(id, changes.getName(), changes.getAge(), changes.getProfession(), expectedVersion);
+        cache.evict(id);
+        checkWritten(id, updated, expectedVersion);
+        if (before != null) {
+            statsChanged(before, new ProfessionAge(Objects.requireNonNullElse(changes.getProfession(), before.profession()),
+                    Objects.requireNonNullElse(changes.getAge(), before.age())));
+        }
+        changeLog.upserted(id);
+        Long version = writtenVersion(id, expectedVersion);
+        return written(new Person(id, changes.getName(), changes.getAge(), changes.getProfession()), version);
     }
 
     @Transactional
     public void delete(Long id) {
-        repository.findById(id).ifPresentOrElse(repository::delete,
-                () -> {
-                    throw new ResourceNotFoundException("Person with id " + id + " not found");
-                });
+        delete(id, null);
+    }
+
+    @Transactional
+    public void delete(Long id, Long expectedVersion) {
+        ProfessionAge before = lockStats(id);
+        changeLog.deleting(List.of(id));
+        int deleted = repository.removeById(id, expectedVersion);
+        cache.evict(id);
+        checkWritten(id, deleted, expectedVersion);
+        statsChanged(before, null);
+        if (memoryReplica != null) {
+            memoryReplica.deleted(id, expectedVersion);
+        }
+        if (searchIndex != null) {
+            searchIndex.deleted(id, expectedVersion);
+        }
+    }
+
+    /**
+     * With the statistics rollup enabled, locks the row about to be written and returns what it
+     * currently counts towards; the bulk writes never read the row back, so this is the only way to
+     * know. Without the rollup nothing is read.
+     */
+    private ProfessionAge lockStats(Long id) {
+        return statsRollup == null ? null : repository.lockProfessionAgeById(id).orElse(null);
+    }
+
+    private void statsChanged(ProfessionAge before, ProfessionAge after) {
+        if (statsRollup != null) {
+            statsRollup.changed(before, after);
+        }
+    }
+
+    /**
+     * The bulk writes do not return the row, so with the in-memory replica or the search index enabled
+     * it is read back once in the same transaction, for its new version and the fields a patch left.
+     * Otherwise the version follows from the expected one, or an unconditional write reads just the
+     * version of the row it still holds locked, so that every write answers with a validator.
+     */
+    private Long writtenVersion(Long id, Long expectedVersion) {
+        if (memoryReplica == null && searchIndex == null) {
+            if (expectedVersion != null) {
+                return expectedVersion + 1;
+            }
+            return repository.findVersionById(id).map(PersonVersion::version).orElse(null);
+        }
+        Person person = repository.findById(id).orElse(null);
+        if (person == null) {
+            return null;
+        }
+        if (memoryReplica != null) {
+            memoryReplica.saved(person);
+        }
+        if (searchIndex != null) {
+            searchIndex.saved(person);
+        }
+        return person.getVersion();
+    }
+
+    /**
+     * Keeps the id, which the caller needs for the cursor, along with the selected fields.
+     */
+    private static List<PersonView> select(List<PersonView> people, Set<PersonField> fields) {
+        Set<PersonField> selected = EnumSet.of(PersonField.ID);
+        selected.addAll(fields);
+        return people.stream().map(person -> person.only(selected)).toList();
+    }
+
+    /**
+     * A conditional write that touched no row either lost the race to another writer or targeted a
+     * missing person; only then is the extra existence check paid for.
+     */
+    private void checkWritten(Long id, int rows, Long expectedVersion) {
+        if (rows > 0) {
+            return;
+        }
+        if (expectedVersion != null && repository.existsById(id)) {
+            throw new PreconditionFailedException("Person with id " + id + " has changed since version " + expectedVersion);
+        }
+        throw notFound(id);
+    }
+
+    private static Person written(Person person, Long version) {
+        person.setVersion(version);
+        return person;
+    }
+
+    private static ResourceNotFoundException notFound(Long id) {
+        return new ResourceNotFoundException("Person with id " + id + " not found");
     }
 }
@@ -0,0 +1,127 @@
+package com.tidz.people.service;
+
+import com.tidz.people.exceptions.InvalidHistogramException;
+import com.tidz.people.model.AgeCount;
+import com.tidz.people.model.ProfessionAgeStats;
+import com.tidz.people.model.ProfessionCount;
+import com.tidz.people.repository.PersonRepository;
+import com.tidz.people.response.AgeBucket;
+import com.tidz.people.stats.PersonStatsRollup;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Aggregates over all persons. They are grouped by the database, or read from the
+ * {@link PersonStatsRollup} when it is enabled, so no entity is ever loaded to compute them. Each
+ * method makes at most one repository call, in that call's read-only transaction, so answers from
+ * the rollup take no connection.
+ */
+@Service
+@Timed(value = "people.service", histogram = true)
+@Profile("!reactive")
+public class PersonStatsService {
+
+    public static final int DEFAULT_BUCKET_WIDTH = 10;
+    public static final int MAX_BUCKETS = 1000;
+
+    private final PersonRepository repository;
+    private final PersonStatsRollup rollup;
+
+    @Autowired
+    public PersonStatsService(PersonRepository repository, @Nullable PersonStatsRollup rollup) {
+        this.repository = repository;
+        this.rollup = rollup;
+    }
+
+    /**
+     * Persons per profession, the most common profession first.
+     */
+    public List<ProfessionCount> countByProfession() {
+        return rollup != null ? rollup.countByProfession() : repository.countByProfession();
+    }
+
+    /**
+     * Count, minimum, average and maximum age per profession, ordered by profession.
+     */
+    public List<ProfessionAgeStats> ageStatsByProfession() {
+        return rollup != null ? rollup.ageStatsByProfession() : repository.ageStatsByProfession();
+    }
+
+    /**
+     * Histogram of ages in buckets of {@code width} years aligned on multiples of the width, from the
+     * youngest to the oldest person; empty buckets in between are included.
+     */
+    public List<AgeBucket> ageHistogram(int width) {
+        if (width < 1) {
+            throw new InvalidHistogramException("width must be at least 1");
+        }
+        List<AgeCount> ages = countByAge();
+        if (ages.isEmpty()) {
+            return List.of();
+        }
+        int first = Math.floorDiv(ages.getFirst().age(), width);
+        long bucketCount = (long) Math.floorDiv(ages.getLast().age(), width) - first + 1;
+        if (bucketCount > MAX_BUCKETS) {
+            throw new InvalidHistogramException("width " + width + " gives more than " + MAX_BUCKETS + " buckets");
+        }
+        long[] counts = new long[(int) bucketCount];
+        for (AgeCount age : ages) {
+            counts[Math.floorDiv(age.age(), width) - first] += age.count();
+        }
+        List<AgeBucket> buckets = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            buckets.add(new AgeBucket((first + i) * width, (first + i + 1) * width, counts[i]));
+        }
+        return buckets;
+    }
+
+    /**
+     * Histogram of ages in buckets starting at each of the strictly ascending {@code bounds}; the
+     * last bucket is open-ended, and persons younger than the first bound get a leading open bucket
+     * of their own.
+     */
+    public List<AgeBucket> ageHistogram(List<Integer> bounds) {
+        if (bounds.isEmpty() || bounds.size() > MAX_BUCKETS) {
+            throw new InvalidHistogramException("between 1 and " + MAX_BUCKETS + " bounds are required");
+        }
+        if (bounds.stream().anyMatch(Objects::isNull)) {
+            throw new InvalidHistogramException("bounds must not contain blanks");
+        }
+        for (int i = 1; i < bounds.size(); i++) {
+            if (bounds.get(i) <= bounds.get(i - 1)) {
+                throw new InvalidHistogramException("bounds must be strictly ascending");
+            }
+        }
+        long younger = 0;
+        long[] counts = new long[bounds.size()];
+        for (AgeCount age : countByAge()) {
+            int index = Collections.binarySearch(bounds, age.age());
+            index = index >= 0 ? index : -index - 2;
+            if (index < 0) {
+                younger += age.count();
+            } else {
+                counts[index] += age.count();
+            }
+        }
+        List<AgeBucket> buckets = new ArrayList<>(counts.length + 1);
+        if (younger > 0) {
+            buckets.add(new AgeBucket(null, bounds.getFirst(), younger));
+        }
+        for (int i = 0; i < counts.length; i++) {
+            buckets.add(new AgeBucket(bounds.get(i), i + 1 < counts.length ? bounds.get(i + 1) : null, counts[i]));
+        }
+        return buckets;
+    }
+
+    private List<AgeCount> countByAge() {
+        return rollup != null ? rollup.countByAge() : repository.countByAge();
+    }
+}
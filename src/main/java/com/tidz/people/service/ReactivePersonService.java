@@ -0,0 +1,85 @@
+package com.tidz.people.service;
+
+import com.tidz.people.exceptions.InvalidRecordException;
+import com.tidz.people.exceptions.ResourceNotFoundException;
+import com.tidz.people.model.Person;
+import com.tidz.people.repository.ReactivePersonChangeRepository;
+import com.tidz.people.repository.ReactivePersonRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link PersonService} for the {@code reactive} profile. Every write
+ * appends to the {@code person_changes} outbox in its own transaction.
+ */
+@Service
+@Profile("reactive")
+public class ReactivePersonService {
+
+    private final ReactivePersonRepository repository;
+    private final ReactivePersonChangeRepository changeRepository;
+    private final TransactionalOperator transactionalOperator;
+
+    @Autowired
+    public ReactivePersonService(ReactivePersonRepository repository, ReactivePersonChangeRepository changeRepository,
+                                 TransactionalOperator transactionalOperator) {
+        this.repository = repository;
+        this.changeRepository = changeRepository;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+    /**
+     * Creates the person, or replaces the existing one when the id of a stored person is given, like
+     * {@link PersonService#save(Person)}.
+     */
+    public Mono<Person> save(Person person) {
+        if (person.getId() != null) {
+            return repository.existsById(person.getId()).flatMap(exists -> exists ? update(person.getId(), person)
+                    : Mono.error(new InvalidRecordException("No person with id " + person.getId() + "; leave the id out to create one")));
+        }
+        return repository.insert(person)
+                .flatMap(inserted -> changeRepository.appendUpsert(inserted.getId()).thenReturn(inserted))
+                .as(transactionalOperator::transactional);
+    }
+
+    public Flux<Person> getPersons(Long after, int limit) {
+        return repository.findPage(after, Math.clamp(limit, 1, PersonService.MAX_PAGE_SIZE));
+    }
+
+    public Flux<Person> streamAllPersons() {
+        return repository.streamAll();
+    }
+
+    public Mono<Person> getPersonById(Long id) {
+        return repository.findById(id).switchIfEmpty(notFound(id));
+    }
+
+    public Mono<Person> update(Long id, Person updatedPerson) {
+        return repository.updateById(id, updatedPerson.getName(), updatedPerson.getAge(), updatedPerson.getProfession())
+                .flatMap(updated -> updated == 0 ? notFound(id) : changeRepository.appendUpsert(id)
+                        .thenReturn(new Person(id, updatedPerson.getName(), updatedPerson.getAge(), updatedPerson.getProfession())))
+                .as(transactionalOperator::transactional);
+    }
+
+    public Mono<Person> patch(Long id, Person changes) {
+        return repository.patchById(id, changes.getName(), changes.getAge(), changes.getProfession())
+                .flatMap(updated -> updated == 0 ? notFound(id) : changeRepository.appendUpsert(id)
+                        .thenReturn(new Person(id, changes.getName(), changes.getAge(), changes.getProfession())))
+                .as(transactionalOperator::transactional);
+    }
+
+    public Mono<Void> delete(Long id) {
+        return changeRepository.appendDelete(id)
+                .then(repository.removeById(id))
+                .flatMap(deleted -> deleted == 0 ? notFound(id).then() : Mono.<Void>empty())
+                .as(transactionalOperator::transactional);
+    }
+
+    private static <T> Mono<T> notFound(Long id) {
+        return Mono.error(new ResourceNotFoundException("Person with id " + id + " not found"));
+    }
+}
@@ -0,0 +1,175 @@
+package com.tidz.people.stats;
+
+import com.tidz.people.model.AgeCount;
+import com.tidz.people.model.ProfessionAge;
+import com.tidz.people.model.ProfessionAgeCount;
+import com.tidz.people.model.ProfessionAgeStats;
+import com.tidz.people.model.ProfessionCount;
+import com.tidz.people.repository.PersonRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Person counts per profession and age, loaded with one grouped query at startup and updated as
+ * writes commit, so statistics cost as much as there are professions and ages, not persons.
+ * Professions are grouped ignoring case, as MySQL's collation groups them, and each group is shown
+ * with the first spelling seen.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "people.stats.rollup.enabled", havingValue = "true")
+public class PersonStatsRollup implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(PersonStatsRollup.class);
+
+    private final PersonRepository repository;
+    private final ConcurrentMap<String, AgeCounts> professions = new ConcurrentHashMap<>();
+    private final AgeCounts ages = new AgeCounts(null);
+
+    @Autowired
+    public PersonStatsRollup(PersonRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (ProfessionAgeCount row : repository.countByProfessionAndAge()) {
+            add(row.profession(), row.age(), row.count());
+        }
+    }
+
+    /**
+     * Records that a row went from {@code before} to {@code after}; {@code null} stands for no row,
+     * so an insert has no {@code before} and a delete no {@code after}.
+     */
+    public void changed(ProfessionAge before, ProfessionAge after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(before, after);
+                }
+            });
+        } else {
+            apply(before, after);
+        }
+    }
+
+    public List<ProfessionCount> countByProfession() {
+        List<ProfessionCount> counts = new ArrayList<>(professions.size());
+        for (AgeCounts professionAges : professions.values()) {
+            long count = professionAges.total();
+            if (count > 0) {
+                counts.add(new ProfessionCount(professionAges.profession, count));
+            }
+        }
+        counts.sort(Comparator.comparingLong(ProfessionCount::count).reversed()
+                .thenComparing(ProfessionCount::profession, String.CASE_INSENSITIVE_ORDER));
+        return counts;
+    }
+
+    public List<AgeCount> countByAge() {
+        return ages.counts();
+    }
+
+    public List<ProfessionAgeStats> ageStatsByProfession() {
+        List<ProfessionAgeStats> stats = new ArrayList<>(professions.size());
+        for (AgeCounts professionAges : professions.values()) {
+            ProfessionAgeStats professionStats = professionAges.stats();
+            if (professionStats != null) {
+                stats.add(professionStats);
+            }
+        }
+        stats.sort(Comparator.comparing(ProfessionAgeStats::profession, String.CASE_INSENSITIVE_ORDER));
+        return stats;
+    }
+
+    private void apply(ProfessionAge before, ProfessionAge after) {
+        if (before != null && before.profession() != null && before.age() != null) {
+            add(before.profession(), before.age(), -1);
+        }
+        if (after != null && after.profession() != null && after.age() != null) {
+            add(after.profession(), after.age(), 1);
+        }
+    }
+
+    /**
+     * A removal the rollup never counted, such as a row written around the service, is logged and
+     * dropped rather than left behind as a negative count.
+     */
+    private void add(String profession, int age, long delta) {
+        boolean[] added = new boolean[1];
+        professions.compute(profession.toLowerCase(Locale.ROOT), (key, professionAges) -> {
+            AgeCounts counts = professionAges == null ? new AgeCounts(profession) : professionAges;
+            added[0] = counts.add(age, delta);
+            return counts.total() == 0 ? null : counts;
+        });
+        if (added[0]) {
+            ages.add(age, delta);
+        } else {
+            log.warn("Ignored removing {} person(s) aged {} from profession {}, which the rollup does not count",
+                    -delta, age, profession);
+        }
+    }
+
+    private static final class AgeCounts {
+
+        private final String profession;
+        private final TreeMap<Integer, Long> counts = new TreeMap<>();
+        private long total;
+        private long ageSum;
+
+        AgeCounts(String profession) {
+            this.profession = profession;
+        }
+
+        synchronized boolean add(int age, long delta) {
+            if (counts.getOrDefault(age, 0L) + delta < 0) {
+                return false;
+            }
+            counts.merge(age, delta, (current, change) -> current + change == 0 ? null : current + change);
+            total += delta;
+            ageSum += age * delta;
+            return true;
+        }
+
+        synchronized long total() {
+            return total;
+        }
+
+        synchronized List<AgeCount> counts() {
+            List<AgeCount> result = new ArrayList<>(counts.size());
+            for (Map.Entry<Integer, Long> entry : counts.entrySet()) {
+                result.add(new AgeCount(entry.getKey(), entry.getValue()));
+            }
+            return result;
+        }
+
+        synchronized ProfessionAgeStats stats() {
+            if (total <= 0) {
+                return null;
+            }
+            return new ProfessionAgeStats(profession, total, counts.firstKey(), (double) ageSum / total, counts.lastKey());
+        }
+    }
+}
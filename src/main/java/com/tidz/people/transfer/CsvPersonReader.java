@@ -0,0 +1,116 @@
+package com.tidz.people.transfer;
+
+import com.tidz.people.exceptions.InvalidRecordException;
+import com.tidz.people.model.Person;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 CSV, including quoted fields with embedded delimiters, quotes and line breaks.
+ * Columns are matched by the header, so their order does not matter; an {@code id} column is
+ * ignored because imported persons always get new ids.
+ */
+final class CsvPersonReader implements PersonReader {
+
+    private final Reader reader;
+    private final int columns;
+    private final int nameIndex;
+    private final int ageIndex;
+    private final int professionIndex;
+
+    CsvPersonReader(Reader reader) throws IOException {
+        this.reader = reader;
+        List<String> header = readRecord();
+        if (header == null) {
+            header = List.of(CsvPersonWriter.HEADER);
+        }
+        this.columns = header.size();
+        this.nameIndex = column(header, "name");
+        this.ageIndex = column(header, "age");
+        this.professionIndex = column(header, "profession");
+    }
+
+    @Override
+    public Person next() throws IOException {
+        List<String> record;
+        do {
+            record = readRecord();
+            if (record == null) {
+                return null;
+            }
+        } while (record.size() == 1 && record.get(0).isBlank());
+
+        if (record.size() != columns) {
+            throw new InvalidRecordException("Expected " + columns + " fields but found " + record.size());
+        }
+        Person person = new Person();
+        person.setName(emptyToNull(record.get(nameIndex)));
+        person.setProfession(emptyToNull(record.get(professionIndex)));
+        String age = record.get(ageIndex).trim();
+        if (!age.isEmpty()) {
+            try {
+                person.setAge(Integer.valueOf(age));
+            } catch (NumberFormatException e) {
+                throw new InvalidRecordException("Invalid age: " + age);
+            }
+        }
+        return person;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private List<String> readRecord() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>(Math.max(columns, CsvPersonWriter.HEADER.length));
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new InvalidRecordException("Unterminated quoted field");
+                }
+                if (c == '"') {
+                    c = reader.read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                }
+                field.append((char) c);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    private static int column(List<String> header, String name) {
+        for (int i = 0; i < header.size(); i++) {
+            if (header.get(i).trim().equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        throw new InvalidRecordException("CSV header is missing the " + name + " column");
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
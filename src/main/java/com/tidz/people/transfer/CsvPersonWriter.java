@@ -0,0 +1,53 @@
+package com.tidz.people.transfer;
+
+import com.tidz.people.model.Person;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes RFC 4180 CSV with an {@code id,name,age,profession} header. Fields are only quoted when
+ * they contain a delimiter, a quote or a line break.
+ */
+final class CsvPersonWriter implements PersonWriter {
+
+    static final String[] HEADER = {"id", "name", "age", "profession"};
+
+    private final Writer writer;
+
+    CsvPersonWriter(Writer writer) throws IOException {
+        this.writer = writer;
+        writer.write(String.join(",", HEADER));
+        writer.write('\n');
+    }
+
+    @Override
+    public void write(Person person) throws IOException {
+        writer.write(String.valueOf(person.getId()));
+        writer.write(',');
+        writeField(person.getName());
+        writer.write(',');
+        writer.write(String.valueOf(person.getAge()));
+        writer.write(',');
+        writeField(person.getProfession());
+        writer.write('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
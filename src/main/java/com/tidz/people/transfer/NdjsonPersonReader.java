@@ -0,0 +1,46 @@
+package com.tidz.people.transfer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.tidz.people.exceptions.InvalidRecordException;
+import com.tidz.people.model.Person;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Reads one JSON object per line. Each line is parsed on its own, so a malformed line only
+ * rejects that record.
+ */
+final class NdjsonPersonReader implements PersonReader {
+
+    private final ObjectReader personReader;
+    private final BufferedReader reader;
+
+    NdjsonPersonReader(ObjectReader personReader, BufferedReader reader) {
+        this.personReader = personReader;
+        this.reader = reader;
+    }
+
+    @Override
+    public Person next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        try {
+            return personReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            throw new InvalidRecordException("Invalid JSON record: " + e.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,34 @@
+package com.tidz.people.transfer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.tidz.people.model.Person;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes one JSON object per line through a single generator, the same way the NDJSON listing does.
+ */
+final class NdjsonPersonWriter implements PersonWriter {
+
+    private final ObjectWriter personWriter;
+    private final JsonGenerator generator;
+
+    NdjsonPersonWriter(ObjectWriter personWriter, OutputStream outputStream) throws IOException {
+        this.personWriter = personWriter;
+        this.generator = personWriter.createGenerator(outputStream);
+        generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void write(Person person) throws IOException {
+        personWriter.writeValue(generator, person);
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
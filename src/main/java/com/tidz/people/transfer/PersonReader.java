@@ -0,0 +1,20 @@
+package com.tidz.people.transfer;
+
+import com.tidz.people.model.Person;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Pulls persons out of an import one record at a time, so nothing beyond the current record is
+ * held in memory and the input is only read as fast as the caller consumes it.
+ */
+public interface PersonReader extends Closeable {
+
+    /**
+     * Returns the next person, or {@code null} once the input is exhausted. A record that cannot be
+     * parsed throws {@link com.tidz.people.exceptions.InvalidRecordException}; the reader stays
+     * positioned after it, so the caller may carry on with the next record.
+     */
+    Person next() throws IOException;
+}
@@ -0,0 +1,15 @@
+package com.tidz.people.transfer;
+
+import com.tidz.people.model.Person;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Appends persons to an export; closing the writer flushes whatever it still buffers and closes the
+ * underlying stream.
+ */
+public interface PersonWriter extends Closeable {
+
+    void write(Person person) throws IOException;
+}
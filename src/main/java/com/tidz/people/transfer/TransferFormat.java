@@ -0,0 +1,97 @@
+package com.tidz.people.transfer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tidz.people.exceptions.UnsupportedFormatException;
+import com.tidz.people.model.Person;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * The formats persons can be exported to and imported from.
+ */
+public enum TransferFormat {
+
+    CSV("csv", new MediaType("text", "csv")) {
+        @Override
+        public PersonReader reader(InputStream inputStream, ObjectMapper objectMapper) throws IOException {
+            return new CsvPersonReader(new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8), BUFFER_SIZE));
+        }
+
+        @Override
+        public PersonWriter writer(OutputStream outputStream, ObjectMapper objectMapper) throws IOException {
+            return new CsvPersonWriter(new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE));
+        }
+    },
+
+    NDJSON("ndjson", MediaType.APPLICATION_NDJSON) {
+        @Override
+        public PersonReader reader(InputStream inputStream, ObjectMapper objectMapper) {
+            return new NdjsonPersonReader(objectMapper.readerFor(Person.class),
+                    new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8), BUFFER_SIZE));
+        }
+
+        @Override
+        public PersonWriter writer(OutputStream outputStream, ObjectMapper objectMapper) throws IOException {
+            return new NdjsonPersonWriter(objectMapper.writerFor(Person.class), outputStream);
+        }
+    };
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+    public static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String extension;
+    private final MediaType mediaType;
+
+    TransferFormat(String extension, MediaType mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public abstract PersonReader reader(InputStream inputStream, ObjectMapper objectMapper) throws IOException;
+
+    public abstract PersonWriter writer(OutputStream outputStream, ObjectMapper objectMapper) throws IOException;
+
+    /**
+     * Resolves a format from its name ({@code csv}, {@code ndjson}) or a file name such as
+     * {@code people.csv.gz}.
+     */
+    public static TransferFormat of(String name) {
+        String value = name == null ? "" : name.toLowerCase(Locale.ROOT);
+        if (value.endsWith(".gz")) {
+            value = value.substring(0, value.length() - 3);
+        }
+        value = value.substring(value.lastIndexOf('.') + 1);
+        for (TransferFormat format : values()) {
+            if (format.extension.equals(value)) {
+                return format;
+            }
+        }
+        throw new UnsupportedFormatException("Unsupported format: " + name);
+    }
+
+    public static TransferFormat of(MediaType mediaType) {
+        for (TransferFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(mediaType)) {
+                return format;
+            }
+        }
+        throw new UnsupportedFormatException("Unsupported media type: " + mediaType);
+    }
+}
@@ -0,0 +1,61 @@
+-- Also runs on databases created by the former ddl-auto=update, which Flyway baselines at version 0.
+-- Depending on the build that created them they have persons with an auto_increment id and only some
+-- of the columns, indexes and persons_seq below, so each is added only where it is missing.
+create table if not exists persons (
+    id bigint not null,
+    name varchar(255) not null,
+    age integer not null,
+    profession varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table persons modify id bigint not null;
+
+set @ddl = if((select count(*) from information_schema.columns
+               where table_schema = database() and table_name = 'persons' and column_name = 'version') = 0,
+    'alter table persons add column version bigint not null default 0', 'do 0');
+prepare ddl from @ddl;
+execute ddl;
+deallocate prepare ddl;
+
+set @ddl = if((select count(*) from information_schema.columns
+               where table_schema = database() and table_name = 'persons' and column_name = 'updated_at') = 0,
+    'alter table persons add column updated_at datetime(6)', 'do 0');
+prepare ddl from @ddl;
+execute ddl;
+deallocate prepare ddl;
+
+set @ddl = if((select count(*) from information_schema.statistics
+               where table_schema = database() and table_name = 'persons' and index_name = 'idx_persons_profession_age') = 0,
+    'create index idx_persons_profession_age on persons (profession, age)', 'do 0');
+prepare ddl from @ddl;
+execute ddl;
+deallocate prepare ddl;
+
+set @ddl = if((select count(*) from information_schema.statistics
+               where table_schema = database() and table_name = 'persons' and index_name = 'idx_persons_name') = 0,
+    'create index idx_persons_name on persons (name)', 'do 0');
+prepare ddl from @ddl;
+execute ddl;
+deallocate prepare ddl;
+
+set @ddl = if((select count(*) from information_schema.statistics
+               where table_schema = database() and table_name = 'persons' and index_name = 'idx_persons_age') = 0,
+    'create index idx_persons_age on persons (age)', 'do 0');
+prepare ddl from @ddl;
+execute ddl;
+deallocate prepare ddl;
+
+set @ddl = if((select count(*) from information_schema.statistics
+               where table_schema = database() and table_name = 'persons' and index_name = 'idx_persons_updated_at') = 0,
+    'create index idx_persons_updated_at on persons (updated_at)', 'do 0');
+prepare ddl from @ddl;
+execute ddl;
+deallocate prepare ddl;
+
+-- MySQL has no sequences; Hibernate emulates persons_seq with a single-row table. Its pooled optimizer
+-- hands out the 50 ids up to the value it reads, so that value is the multiple of 50 whose block lies
+-- wholly above max(id), or 1 for an empty table. A next_val already further ahead is kept.
+create table if not exists persons_seq (next_val bigint) engine=InnoDB;
+insert into persons_seq select 1 from dual where not exists (select * from persons_seq);
+update persons_seq set next_val = greatest(next_val, (select coalesce((max(id) div 50 + 2) * 50, 1) from persons));
@@ -0,0 +1,29 @@
+-- Transactional outbox of person writes; seq is assigned after commit by the sequencer.
+create table person_changes (
+    id bigint not null auto_increment,
+    seq bigint,
+    person_id bigint not null,
+    operation varchar(8) not null,
+    name varchar(255),
+    age integer,
+    profession varchar(255),
+    version bigint,
+    changed_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table person_changes add constraint idx_person_changes_seq unique (seq);
+create index idx_person_changes_person_id_seq on person_changes (person_id, seq);
+
+create table person_change_sequence (
+    id integer not null,
+    next_seq bigint not null,
+    purged_through bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+insert into person_change_sequence values (1, 1, 0);
+
+-- Every existing person starts the feed, so a consumer reading from the beginning gets the whole table.
+insert into person_changes (person_id, operation, name, age, profession, version, changed_at)
+select id, 'UPSERT', name, age, profession, version, current_timestamp(6) from persons order by id;
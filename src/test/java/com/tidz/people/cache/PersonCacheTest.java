@@ -0,0 +1,104 @@
+package com.tidz.people.cache;
+
+import com.tidz.people.model.Person;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PersonCacheTest {
+
+    private final PersonCache cache = new PersonCache(100, Duration.ofMinutes(10), Duration.ofSeconds(30));
+
+    @Test
+    void concurrentMissesShouldShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Optional<Person>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> cache.get(1L, id -> {
+                    loads.incrementAndGet();
+                    loading.countDown();
+                    await(release);
+                    return Optional.of(new Person(id, "John Doe", 30, "Engineer"));
+                })));
+            }
+            Assertions.assertTrue(loading.await(5, TimeUnit.SECONDS));
+            // Other ids are not held up by the pending load.
+            Assertions.assertEquals("Mary Sue", cache.get(2L, id -> Optional.of(new Person(id, "Mary Sue", 22, "Doctor"))).get().getName());
+            release.countDown();
+            for (Future<Optional<Person>> result : results) {
+                Assertions.assertEquals("John Doe", result.get(5, TimeUnit.SECONDS).get().getName());
+            }
+            Assertions.assertEquals(1, loads.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void aDisabledCacheShouldKeepNothing() {
+        PersonCache disabled = new PersonCache(false, 100, Duration.ofMinutes(10), Duration.ofSeconds(30));
+        AtomicInteger loads = new AtomicInteger();
+
+        disabled.get(1L, id -> Optional.of(new Person(id, "John Doe", 30, "Engineer")));
+        disabled.get(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertNull(disabled.getIfPresent(1L));
+    }
+
+    @Test
+    void anEvictionDuringALoadShouldKeepItsResultOutOfTheCache() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Optional<Person>> stale = executor.submit(() -> cache.get(1L, id -> {
+                loading.countDown();
+                await(release);
+                return Optional.of(new Person(id, "Before", 30, "Engineer"));
+            }));
+            Assertions.assertTrue(loading.await(5, TimeUnit.SECONDS));
+            cache.evict(1L);
+            release.countDown();
+            Assertions.assertEquals("Before", stale.get(5, TimeUnit.SECONDS).get().getName());
+
+            Assertions.assertNull(cache.getIfPresent(1L));
+            Assertions.assertEquals("After", cache.get(1L, id -> Optional.of(new Person(id, "After", 31, "Engineer"))).get().getName());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void failedLoadsShouldNotBeCached() {
+        Assertions.assertThrows(IllegalStateException.class, () -> cache.get(1L, id -> {
+            throw new IllegalStateException("database down");
+        }));
+        Assertions.assertEquals(Optional.empty(), cache.get(1L, id -> Optional.empty()));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.tidz.people.changes;
+
+import com.tidz.people.exceptions.ChangesCompactedException;
+import com.tidz.people.model.ChangeOperation;
+import com.tidz.people.model.Person;
+import com.tidz.people.model.PersonChange;
+import com.tidz.people.repository.PersonChangeRepository;
+import com.tidz.people.response.BatchItemResult;
+import com.tidz.people.service.PersonBatchService;
+import com.tidz.people.service.PersonService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+
+@SpringBootTest
+public class PersonChangeLogTest {
+
+    @Autowired
+    private PersonChangeLog changeLog;
+
+    @Autowired
+    private PersonChangeRepository changeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PersonService personService;
+
+    @Autowired
+    private PersonBatchService batchService;
+
+    private long since;
+
+    @BeforeEach
+    void setUp() {
+        changeLog.sequence();
+        since = changeLog.latestSeq();
+    }
+
+    @Test
+    void writesShouldBePublishedInCommitOrderWithTheirVersions() {
+        Person saved = personService.save(new Person(null, "John Doe", 30, "Engineer"));
+        personService.update(saved.getId(), new Person(null, "John Smith", 31, "Architect"));
+        personService.delete(saved.getId());
+        changeLog.sequence();
+
+        List<PersonChange> changes = changesOf(saved.getId(), changeLog.read(since, 1000));
+
+        Assertions.assertEquals(List.of(ChangeOperation.UPSERT, ChangeOperation.UPSERT, ChangeOperation.DELETE),
+                changes.stream().map(PersonChange::getOperation).toList());
+        Assertions.assertEquals("John Doe", changes.get(0).getName());
+        Assertions.assertEquals(0L, changes.get(0).getVersion());
+        Assertions.assertEquals("John Smith", changes.get(1).getName());
+        Assertions.assertEquals(1L, changes.get(1).getVersion());
+        Assertions.assertNull(changes.get(2).getName());
+        Assertions.assertTrue(changes.get(0).getSeq() < changes.get(1).getSeq() && changes.get(1).getSeq() < changes.get(2).getSeq());
+        Assertions.assertTrue(changeLog.latestSeq() >= changes.get(2).getSeq());
+    }
+
+    @Test
+    void failedWritesShouldNotBePublished() {
+        Person saved = personService.save(new Person(null, "John Doe", 30, "Engineer"));
+        Assertions.assertThrows(RuntimeException.class,
+                () -> personService.update(saved.getId(), new Person(null, "John Smith", 31, "Architect"), 7L));
+        changeLog.sequence();
+
+        Assertions.assertEquals(1, changesOf(saved.getId(), changeLog.read(since, 1000)).size());
+    }
+
+    @Test
+    void batchWritesShouldBePublishedPerPerson() {
+        List<BatchItemResult> results = batchService.saveAll(List.of(
+                new Person(null, "John Doe", 30, "Engineer"), new Person(null, "Jane Doe", 28, "Doctor")));
+        changeLog.sequence();
+
+        List<PersonChange> changes = changeLog.read(since, 1000);
+        for (BatchItemResult result : results) {
+            Assertions.assertEquals(1, changesOf(result.id(), changes).size());
+        }
+    }
+
+    @Test
+    void awaitShouldReturnOnceANewerChangeIsSequenced() throws InterruptedException {
+        Assertions.assertFalse(changeLog.await(since, Duration.ofMillis(20)));
+
+        personService.save(new Person(null, "John Doe", 30, "Engineer"));
+        changeLog.sequence();
+
+        Assertions.assertTrue(changeLog.await(since, Duration.ofMillis(20)));
+    }
+
+    @Test
+    void compactionShouldKeepTheLatestChangeAndPurgeTombstones() {
+        Person kept = personService.save(new Person(null, "John Doe", 30, "Engineer"));
+        personService.patch(kept.getId(), new Person(null, "John Smith", null, null));
+        Person deleted = personService.save(new Person(null, "Jane Doe", 28, "Doctor"));
+        personService.delete(deleted.getId());
+        changeLog.sequence();
+
+        PersonChangeLog compactor = new PersonChangeLog(changeRepository, transactionManager, new SimpleMeterRegistry(),
+                2, Duration.ofHours(1), Duration.ofHours(1), Duration.ZERO, Duration.ZERO);
+        compactor.compact();
+
+        List<PersonChange> snapshot = changeLog.read(0, 100000);
+        List<PersonChange> changes = changesOf(kept.getId(), snapshot);
+        Assertions.assertEquals(1, changes.size());
+        Assertions.assertEquals("John Smith", changes.get(0).getName());
+        Assertions.assertTrue(changesOf(deleted.getId(), snapshot).isEmpty());
+        Assertions.assertThrows(ChangesCompactedException.class, () -> changeLog.read(since, 1000));
+    }
+
+    private static List<PersonChange> changesOf(Long personId, List<PersonChange> changes) {
+        return changes.stream().filter(change -> change.getPersonId().equals(personId)).toList();
+    }
+}
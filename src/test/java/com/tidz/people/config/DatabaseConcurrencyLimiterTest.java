@@ -0,0 +1,80 @@
+package com.tidz.people.config;
+
+import com.tidz.people.exceptions.DatabaseBusyException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+public class DatabaseConcurrencyLimiterTest {
+
+    private final DatabaseConcurrencyLimiter limiter = new DatabaseConcurrencyLimiter(1, Duration.ofMillis(50));
+
+    @Test
+    void connectionsShouldHoldAPermitUntilClosed() throws SQLException {
+        DataSource target = Mockito.mock(DataSource.class);
+        Connection physical = Mockito.mock(Connection.class);
+        Mockito.when(target.getConnection()).thenReturn(physical);
+        DataSource dataSource = (DataSource) limiter.postProcessAfterInitialization(target, DatabaseConcurrencyLimiter.DATA_SOURCE_BEAN);
+
+        Connection connection = dataSource.getConnection();
+        Assertions.assertThrows(DatabaseBusyException.class, dataSource::getConnection);
+
+        connection.close();
+        connection.close();
+        Mockito.verify(physical, Mockito.times(1)).close();
+        dataSource.getConnection().close();
+        dataSource.getConnection().close();
+    }
+
+    @Test
+    void failedConnectsShouldGiveThePermitBack() throws SQLException {
+        DataSource target = Mockito.mock(DataSource.class);
+        Mockito.when(target.getConnection()).thenThrow(new SQLException("down")).thenReturn(Mockito.mock(Connection.class));
+        DataSource dataSource = (DataSource) limiter.postProcessAfterInitialization(target, DatabaseConcurrencyLimiter.DATA_SOURCE_BEAN);
+
+        Assertions.assertThrows(SQLException.class, dataSource::getConnection);
+        Assertions.assertNotNull(dataSource.getConnection());
+    }
+
+    @Test
+    void routedPoolsShouldEachHaveTheirOwnPermits() throws SQLException {
+        DataSource primary = Mockito.mock(DataSource.class);
+        DataSource replica = Mockito.mock(DataSource.class);
+        Mockito.when(primary.getConnection()).thenReturn(Mockito.mock(Connection.class));
+        Mockito.when(replica.getConnection()).thenReturn(Mockito.mock(Connection.class));
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica),
+                ReplicaRoutingDataSource.Selection.ROUND_ROBIN, new ReadYourWrites(Duration.ofSeconds(5)));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        Assertions.assertSame(routing, limiter.postProcessAfterInitialization(routing, "replicaRoutingDataSource"));
+        Assertions.assertSame(dataSource, limiter.postProcessAfterInitialization(dataSource, DatabaseConcurrencyLimiter.DATA_SOURCE_BEAN));
+
+        Connection write = routing.getConnection();
+        Assertions.assertThrows(DatabaseBusyException.class, routing::getConnection);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            routing.getConnection().close();
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+        write.close();
+        routing.getConnection().close();
+    }
+
+    @Test
+    void otherBeansShouldBeLeftAlone() {
+        DataSource other = Mockito.mock(DataSource.class);
+
+        Assertions.assertSame(other, limiter.postProcessAfterInitialization(other, "replicaDataSource"));
+    }
+}
@@ -0,0 +1,117 @@
+package com.tidz.people.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.tidz.people.model.Person;
+import com.tidz.people.repository.PersonRepository;
+import com.tidz.people.response.ApiResponse;
+import com.tidz.people.response.PersonProtobufHttpMessageConverter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpInputMessage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class MessageFormatConfigTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() {
+        List<Person> people = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            people.add(new Person(null, "Person " + i, 18 + i % 50, "Engineer"));
+        }
+        personRepository.saveAll(people);
+    }
+
+    @Test
+    void jsonShouldStayTheDefault() throws Exception {
+        HttpResponse<byte[]> response = get("*/*", null);
+
+        Assertions.assertTrue(contentType(response).startsWith(MediaType.APPLICATION_JSON_VALUE));
+        Assertions.assertTrue(response.headers().allValues(HttpHeaders.VARY).stream()
+                .flatMap(vary -> Arrays.stream(vary.split(","))).anyMatch(HttpHeaders.ACCEPT::equalsIgnoreCase));
+        Assertions.assertEquals(100, new ObjectMapper().readTree(response.body()).get("body").size());
+    }
+
+    @Test
+    void smileAndCborShouldBeNegotiated() throws Exception {
+        HttpResponse<byte[]> smile = get("application/x-jackson-smile", null);
+        HttpResponse<byte[]> cbor = get(MediaType.APPLICATION_CBOR_VALUE, null);
+
+        Assertions.assertEquals("application/x-jackson-smile", contentType(smile));
+        JsonNode page = new ObjectMapper(new SmileFactory()).readTree(smile.body());
+        Assertions.assertEquals(100, page.get("body").size());
+        Assertions.assertEquals(MediaType.APPLICATION_CBOR_VALUE, contentType(cbor));
+    }
+
+    @Test
+    void protobufShouldBeNegotiated() throws Exception {
+        HttpResponse<byte[]> response = get(PersonProtobufHttpMessageConverter.PROTOBUF_VALUE, null);
+
+        Assertions.assertEquals(PersonProtobufHttpMessageConverter.PROTOBUF_VALUE, contentType(response));
+        ApiResponse page = (ApiResponse) new PersonProtobufHttpMessageConverter()
+                .read(ApiResponse.class, new MockHttpInputMessage(response.body()));
+        Assertions.assertEquals(100, ((List<?>) page.getBody()).size());
+    }
+
+    @Test
+    void protobufShouldNotBeOfferedForOtherBodies() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/people/stats/professions"))
+                .header(HttpHeaders.ACCEPT, PersonProtobufHttpMessageConverter.PROTOBUF_VALUE)
+                .build();
+
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+        Assertions.assertEquals(406, response.statusCode());
+    }
+
+    @Test
+    void largeResponsesShouldBeGzippedWhenAccepted() throws Exception {
+        HttpResponse<byte[]> response = get(MediaType.APPLICATION_JSON_VALUE, "gzip");
+
+        Assertions.assertEquals("gzip", response.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null));
+        try (GZIPInputStream body = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            Assertions.assertEquals(100, new ObjectMapper().readTree(body).get("body").size());
+        }
+    }
+
+    private HttpResponse<byte[]> get(String accept, String acceptEncoding) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/people?limit=100"))
+                .header(HttpHeaders.ACCEPT, accept);
+        if (acceptEncoding != null) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        Assertions.assertEquals(200, response.statusCode());
+        return response;
+    }
+
+    private static String contentType(HttpResponse<?> response) {
+        return response.headers().firstValue(HttpHeaders.CONTENT_TYPE).orElse("");
+    }
+}
@@ -0,0 +1,36 @@
+package com.tidz.people.config;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class MetricsConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void prometheusEndpointShouldExposeServiceRequestAndHibernateMetrics() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/people"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string(Matchers.containsString("people_service_seconds_bucket{class=\"com.tidz.people.service.PersonService\"")))
+                .andExpect(MockMvcResultMatchers.content().string(Matchers.containsString("people_db_statements_count{endpoint=\"PersonController.getAllPeople\"")))
+                .andExpect(MockMvcResultMatchers.content().string(Matchers.containsString("http_server_requests_seconds_bucket")))
+                .andExpect(MockMvcResultMatchers.content().string(Matchers.containsString("hibernate_statements_total")))
+                .andExpect(MockMvcResultMatchers.content().string(Matchers.containsString("hikaricp_connections_pending")))
+                .andExpect(MockMvcResultMatchers.content().string(Matchers.containsString("cache_gets_total{cache=\"persons\"")))
+                .andExpect(MockMvcResultMatchers.content().string(Matchers.containsString("people_startup_first_request_seconds{mode=\"jvm\"")));
+    }
+}
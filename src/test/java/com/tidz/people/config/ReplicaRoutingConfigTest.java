@@ -0,0 +1,68 @@
+package com.tidz.people.config;
+
+import jakarta.servlet.http.Cookie;
+import org.flywaydb.core.Flyway;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+@SpringBootTest(properties = "people.datasource.replica.urls=" + ReplicaRoutingConfigTest.REPLICA_URL)
+@AutoConfigureMockMvc
+public class ReplicaRoutingConfigTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:person_replica_db;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final String INSERT = "insert into persons (id, name, age, profession) values (?, ?, 30, 'Engineer')";
+
+    private static final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate primary;
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").locations("classpath:db/migration/h2").load().migrate();
+    }
+
+    @BeforeEach
+    void setUp() {
+        for (long id : new long[]{900_001L, 900_002L}) {
+            primary.update(INSERT, id, "Paula Primary");
+            replica.update(INSERT, id, "Rhea Replica");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.update("delete from persons where id >= 900000");
+        replica.update("delete from persons where id >= 900000");
+    }
+
+    @Test
+    void readsThroughTheControllerShouldBeAnsweredByTheReplica() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/people/900001"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body.name", Matchers.is("Rhea Replica")));
+    }
+
+    @Test
+    void readsRightAfterAWriteShouldBeAnsweredByThePrimary() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/people/900002")
+                        .cookie(new Cookie(ReadYourWrites.COOKIE, String.valueOf(System.currentTimeMillis()))))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body.name", Matchers.is("Paula Primary")));
+    }
+}
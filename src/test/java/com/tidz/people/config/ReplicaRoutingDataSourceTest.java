@@ -0,0 +1,95 @@
+package com.tidz.people.config;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private final ReadYourWrites readYourWrites = new ReadYourWrites(Duration.ofSeconds(5));
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @BeforeEach
+    void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+    }
+
+    @AfterEach
+    void tearDown() {
+        readYourWrites.afterCompletion(request, response, null, null);
+        RequestContextHolder.resetRequestAttributes();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void readOnlyTransactionsShouldRotateOverTheReplicas() {
+        ReplicaRoutingDataSource routing = routing(ReplicaRoutingDataSource.Selection.ROUND_ROBIN);
+        inTransaction(true);
+
+        Assertions.assertEquals(List.of(0, 1, 0), List.of(routing.determineCurrentLookupKey(),
+                routing.determineCurrentLookupKey(), routing.determineCurrentLookupKey()));
+    }
+
+    @Test
+    void writesAndNonTransactionalAccessShouldUseThePrimary() {
+        ReplicaRoutingDataSource routing = routing(ReplicaRoutingDataSource.Selection.ROUND_ROBIN);
+
+        Assertions.assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+        Assertions.assertNull(response.getHeader(HttpHeaders.SET_COOKIE));
+
+        inTransaction(false);
+        Assertions.assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void aWriteShouldPinLaterReadsAndSetTheCookie() {
+        ReplicaRoutingDataSource routing = routing(ReplicaRoutingDataSource.Selection.ROUND_ROBIN);
+
+        inTransaction(false);
+        routing.determineCurrentLookupKey();
+        inTransaction(true);
+
+        Assertions.assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+        Assertions.assertTrue(response.getHeader(HttpHeaders.SET_COOKIE).startsWith(ReadYourWrites.COOKIE + "="));
+    }
+
+    @Test
+    void aRecentWriteCookieShouldPinTheRequestToThePrimary() {
+        ReplicaRoutingDataSource routing = routing(ReplicaRoutingDataSource.Selection.LEAST_CONNECTIONS);
+        request.setCookies(new Cookie(ReadYourWrites.COOKIE, String.valueOf(System.currentTimeMillis() - 1000)));
+        inTransaction(true);
+
+        readYourWrites.preHandle(request, response, null);
+        Assertions.assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+
+        readYourWrites.afterCompletion(request, response, null, null);
+        request.setCookies(new Cookie(ReadYourWrites.COOKIE, String.valueOf(System.currentTimeMillis() - 60_000)));
+        readYourWrites.preHandle(request, response, null);
+        Assertions.assertEquals(0, routing.determineCurrentLookupKey());
+    }
+
+    private ReplicaRoutingDataSource routing(ReplicaRoutingDataSource.Selection selection) {
+        return new ReplicaRoutingDataSource(Mockito.mock(DataSource.class),
+                List.of(Mockito.mock(DataSource.class), Mockito.mock(DataSource.class)), selection, readYourWrites);
+    }
+
+    private static void inTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+}
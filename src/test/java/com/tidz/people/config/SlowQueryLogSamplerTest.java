@@ -0,0 +1,46 @@
+package com.tidz.people.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SlowQueryLogSamplerTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final Logger slowQueries = context.getLogger(SlowQueryLogSampler.SLOW_QUERY_LOGGER);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong now = new AtomicLong();
+    private final SlowQueryLogSampler sampler = new SlowQueryLogSampler(registry, 2, now::get);
+
+    @Test
+    void slowQueriesOverTheLimitShouldBeDroppedButCounted() {
+        Assertions.assertEquals(FilterReply.NEUTRAL, decide(slowQueries, "Slow query took 300 milliseconds"));
+        Assertions.assertEquals(FilterReply.NEUTRAL, decide(slowQueries, "Slow query took 250 milliseconds"));
+        Assertions.assertEquals(FilterReply.DENY, decide(slowQueries, "Slow query took 400 milliseconds"));
+        Assertions.assertEquals(FilterReply.NEUTRAL, decide(slowQueries, null));
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        Assertions.assertEquals(FilterReply.NEUTRAL, decide(slowQueries, "Slow query took 210 milliseconds"));
+        Assertions.assertEquals(4.0, registry.get("people.db.slow-queries").counter().count());
+    }
+
+    @Test
+    void otherLoggersShouldBeLeftAlone() {
+        Logger other = context.getLogger("org.hibernate.SQL");
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertEquals(FilterReply.NEUTRAL, decide(other, "select 1"));
+        }
+        Assertions.assertEquals(0.0, registry.get("people.db.slow-queries").counter().count());
+    }
+
+    private FilterReply decide(Logger logger, String message) {
+        return sampler.decide(null, logger, Level.INFO, message, null, null);
+    }
+}
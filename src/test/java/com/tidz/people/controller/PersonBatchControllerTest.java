@@ -0,0 +1,86 @@
+package com.tidz.people.controller;
+
+import com.tidz.people.model.Person;
+import com.tidz.people.response.BatchItemResult;
+import com.tidz.people.service.PersonBatchService;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+public class PersonBatchControllerTest {
+
+    private MockMvc mockMvc;
+
+    @InjectMocks
+    private PersonBatchController controller;
+
+    @Mock
+    private PersonBatchService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new ApiExceptionHandler())
+                .build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void savePeopleShouldReturnOneResultPerItem() throws Exception {
+        Mockito.when(service.saveAll(Mockito.anyList())).thenReturn(List.of(
+                BatchItemResult.of(0, 1L, BatchItemResult.Status.CREATED),
+                new BatchItemResult(1, null, BatchItemResult.Status.INVALID, "name, age and profession are required")));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/people/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\": \"John Doe\", \"age\": 30, \"profession\": \"Engineer\"}, {\"age\": 22}]"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message", Matchers.is("Success")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body", Matchers.hasSize(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body[0].status", Matchers.is("CREATED")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body[0].id", Matchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body[1].status", Matchers.is("INVALID")));
+
+        Mockito.verify(service, Mockito.times(1)).saveAll(Mockito.argThat((List<Person> people) -> people.size() == 2));
+    }
+
+    @Test
+    void updatePeopleShouldDelegateToTheBatchService() throws Exception {
+        Mockito.when(service.updateAll(Mockito.anyList())).thenReturn(List.of(
+                new BatchItemResult(0, 5L, BatchItemResult.Status.NOT_FOUND, "Person with id 5 not found")));
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/people/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"id\": 5, \"name\": \"John Doe\", \"age\": 30, \"profession\": \"Engineer\"}]"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body[0].status", Matchers.is("NOT_FOUND")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body[0].message", Matchers.is("Person with id 5 not found")));
+    }
+
+    @Test
+    void deletePeopleShouldDelegateToTheBatchService() throws Exception {
+        Mockito.when(service.deleteAll(List.of(1L, 2L))).thenReturn(List.of(
+                BatchItemResult.of(0, 1L, BatchItemResult.Status.DELETED),
+                BatchItemResult.of(1, 2L, BatchItemResult.Status.DELETED)));
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/people/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 2]"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body[1].status", Matchers.is("DELETED")));
+
+        Mockito.verify(service, Mockito.times(1)).deleteAll(List.of(1L, 2L));
+    }
+}
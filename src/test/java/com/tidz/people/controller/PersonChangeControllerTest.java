@@ -0,0 +1,96 @@
+package com.tidz.people.controller;
+
+import com.tidz.people.changes.PersonChangeLog;
+import com.tidz.people.exceptions.ChangesCompactedException;
+import com.tidz.people.model.ChangeOperation;
+import com.tidz.people.model.PersonChange;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+public class PersonChangeControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private PersonChangeLog changeLog;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(new PersonChangeController(changeLog, Duration.ofSeconds(30), 1))
+                .setControllerAdvice(new ApiExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void getChangesShouldReturnTheChangesAndTheNextCursor() throws Exception {
+        Mockito.when(changeLog.read(10, 2)).thenReturn(List.of(
+                new PersonChange(11L, 1L, ChangeOperation.UPSERT, "John Doe", 30, "Engineer", 0L, Instant.EPOCH),
+                new PersonChange(12L, 2L, ChangeOperation.DELETE, null, null, null, 3L, Instant.EPOCH)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/people/changes").param("since", "10").param("limit", "2"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(PersonController.NEXT_CURSOR_HEADER, "12"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body[0].seq", Matchers.is(11)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body[0].name", Matchers.is("John Doe")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body[1].operation", Matchers.is("DELETE")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body[1].id").doesNotExist());
+        Mockito.verifyNoMoreInteractions(Mockito.ignoreStubs(changeLog));
+    }
+
+    @Test
+    void getChangesShouldWaitForNewChangesWhenAskedTo() throws Exception {
+        PersonChange change = new PersonChange(11L, 1L, ChangeOperation.UPSERT, "John Doe", 30, "Engineer", 0L, Instant.EPOCH);
+        Mockito.when(changeLog.read(10, PersonChangeController.DEFAULT_LIMIT)).thenReturn(List.of()).thenReturn(List.of(change));
+        Mockito.when(changeLog.await(10, Duration.ofSeconds(30))).thenReturn(true);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/people/changes").param("since", "10").param("wait", "120"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(PersonController.NEXT_CURSOR_HEADER, "11"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body[0].seq", Matchers.is(11)));
+    }
+
+    @Test
+    void getChangesShouldNotHoldMoreThanMaxWaitersRequests() throws Exception {
+        Mockito.when(changeLog.read(10, PersonChangeController.DEFAULT_LIMIT)).thenReturn(List.of());
+        MockMvc noWaiters = MockMvcBuilders.standaloneSetup(new PersonChangeController(changeLog, Duration.ofSeconds(30), 0)).build();
+
+        noWaiters.perform(MockMvcRequestBuilders.get("/api/people/changes").param("since", "10").param("wait", "30"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body", Matchers.empty()));
+        Mockito.verify(changeLog, Mockito.never()).await(Mockito.anyLong(), Mockito.any());
+    }
+
+    @Test
+    void getChangesShouldKeepTheCursorWhenNothingIsNew() throws Exception {
+        Mockito.when(changeLog.read(10, PersonChangeController.DEFAULT_LIMIT)).thenReturn(List.of());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/people/changes").param("since", "10"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(PersonController.NEXT_CURSOR_HEADER, "10"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body", Matchers.empty()));
+        Mockito.verify(changeLog, Mockito.never()).await(Mockito.anyLong(), Mockito.any());
+    }
+
+    @Test
+    void getChangesShouldAnswerGoneOnceTheCursorWasCompacted() throws Exception {
+        Mockito.when(changeLog.read(10, PersonChangeController.DEFAULT_LIMIT))
+                .thenThrow(new ChangesCompactedException("Changes up to 20 have been compacted; read again from 0"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/people/changes").param("since", "10"))
+                .andExpect(MockMvcResultMatchers.status().isGone())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message", Matchers.equalTo("Changes up to 20 have been compacted; read again from 0")));
+    }
+}
@@ -1,7 +1,12 @@
 package com.tidz.people.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tidz.people.exceptions.PreconditionFailedException;
 import com.tidz.people.exceptions.ResourceNotFoundException;
 import com.tidz.people.model.Person;
+import com.tidz.people.model.PersonField;
+import com.tidz.people.model.PersonVersion;
+import com.tidz.people.model.PersonView;
 import com.tidz.people.service.PersonService;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,15 +15,22 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.Instant;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public class PersonControllerTest {
 
@@ -30,10 +42,15 @@ public class PersonControllerTest {
     @Mock
     private PersonService service;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new ApiExceptionHandler())
+                .build();
     }
 
     @Test
@@ -55,15 +72,16 @@ public class PersonControllerTest {
 
     @Test
     void getAllShouldReturnAllPersons() throws Exception {
-        Person person1 = new Person(1L, "John Doe", 30, "Engineer");
-        Person person2 = new Person(2L, "Mary Sue", 22, "Programmer");
-        Person person3 = new Person(3L, "Gary Thumb", 26, "Assistant");
-        List<Person> people = Arrays.asList(person1, person2, person3);
+        PersonView person1 = new PersonView(1L, "John Doe", 30, "Engineer", 0L);
+        PersonView person2 = new PersonView(2L, "Mary Sue", 22, "Programmer", 0L);
+        PersonView person3 = new PersonView(3L, "Gary Thumb", 26, "Assistant", 0L);
+        List<PersonView> people = Arrays.asList(person1, person2, person3);
 
-        Mockito.when(service.getAllPersons()).thenReturn(people);
+        Mockito.when(service.getPersons(null, PersonService.DEFAULT_PAGE_SIZE, PersonField.ALL)).thenReturn(people);
 
         mockMvc.perform(MockMvcRequestBuilders.get("/api/people").contentType(MediaType.APPLICATION_JSON))
                 .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist(PersonController.NEXT_CURSOR_HEADER))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.body", Matchers.notNullValue()))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.body", Matchers.hasSize(3)))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.body[0].name", Matchers.is("John Doe")))
@@ -77,7 +95,96 @@ public class PersonControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.body[2].profession", Matchers.equalToIgnoringCase("assistant")));
 
 
-        Mockito.verify(service, Mockito.times(1)).getAllPersons();
+        Mockito.verify(service, Mockito.times(1)).getPersons(null, PersonService.DEFAULT_PAGE_SIZE, PersonField.ALL);
+    }
+
+    @Test
+    void getAllShouldReturnNextCursorWhenPageIsFull() throws Exception {
+        PersonView person1 = new PersonView(4L, "John Doe", 30, "Engineer", 0L);
+        PersonView person2 = new PersonView(7L, "Mary Sue", 22, "Programmer", 0L);
+
+        Mockito.when(service.getPersons(3L, 2, PersonField.ALL)).thenReturn(Arrays.asList(person1, person2));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/people").param("after", "3").param("limit", "2"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(PersonController.NEXT_CURSOR_HEADER, "7"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body", Matchers.hasSize(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body[1].id", Matchers.is(7)));
+
+        Mockito.verify(service, Mockito.times(1)).getPersons(3L, 2, PersonField.ALL);
+    }
+
+    @Test
+    void getAllShouldOnlyWriteTheSelectedFields() throws Exception {
+        Set<PersonField> fields = EnumSet.of(PersonField.NAME);
+        Mockito.when(service.getPersons(null, 1, fields)).thenReturn(List.of(new PersonView(4L, "John Doe", null, null, 0L)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/people").param("fields", "name").param("limit", "1"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(PersonController.NEXT_CURSOR_HEADER, "4"))
+                .andExpect(MockMvcResultMatchers.content().string("{\"message\":\"Success\",\"body\":[{\"name\":\"John Doe\"}]}"));
+    }
+
+    @Test
+    void getAllShouldRejectUnknownFields() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/people").param("fields", "id,salary"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        for (String fields : new String[]{",", "", " ", " , "}) {
+            mockMvc.perform(MockMvcRequestBuilders.get("/api/people").param("fields", fields))
+                    .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        }
+
+        Mockito.verifyNoInteractions(service);
+    }
+
+    @Test
+    void getPersonByIdShouldOnlyWriteTheSelectedFields() throws Exception {
+        Mockito.when(service.getPersonById(1L)).thenReturn(new Person(1L, "John Doe", 30, "Engineer"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/people/1").param("fields", "id,age"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string("{\"message\":\"Success\",\"body\":{\"id\":1,\"age\":30}}"));
+    }
+
+    @Test
+    void searchPeopleShouldPassTheFiltersToTheService() throws Exception {
+        PersonView person = new PersonView(1L, "John Doe", 30, "Engineer", 0L);
+
+        Mockito.when(service.searchPersons("Engineer", "Jo", 25, 35, null, PersonService.DEFAULT_PAGE_SIZE, PersonField.ALL))
+                .thenReturn(List.of(person));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/people/search")
+                        .param("profession", "Engineer")
+                        .param("name", "Jo")
+                        .param("minAge", "25")
+                        .param("maxAge", "35"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body", Matchers.hasSize(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body[0].name", Matchers.is("John Doe")));
+
+        Mockito.verify(service, Mockito.times(1)).searchPersons("Engineer", "Jo", 25, 35, null, PersonService.DEFAULT_PAGE_SIZE, PersonField.ALL);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamAllPeopleShouldWriteOnePersonPerLine() throws Exception {
+        Mockito.doAnswer(invocation -> {
+            Consumer<Person> consumer = invocation.getArgument(0);
+            consumer.accept(new Person(1L, "John Doe", 30, "Engineer"));
+            consumer.accept(new Person(2L, "Mary Sue", 22, "Programmer"));
+            return null;
+        }).when(service).streamAllPersons(Mockito.any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/people").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(MockMvcResultMatchers.content().string(
+                        "{\"id\":1,\"name\":\"John Doe\",\"age\":30,\"profession\":\"Engineer\"}\n"
+                                + "{\"id\":2,\"name\":\"Mary Sue\",\"age\":22,\"profession\":\"Programmer\"}\n"));
     }
 
     @Test
@@ -110,7 +217,7 @@ public class PersonControllerTest {
     @Test
     void updatePersonShouldReturnAnErrorIfPersonIsNotFound() throws Exception {
         Long id = 1L;
-        Mockito.when(service.update(Mockito.eq(id), Mockito.any(Person.class))).thenThrow(new ResourceNotFoundException("Person updated"));
+        Mockito.when(service.update(Mockito.eq(id), Mockito.any(Person.class), Mockito.isNull())).thenThrow(new ResourceNotFoundException("Person updated"));
 
         mockMvc.perform(MockMvcRequestBuilders.put("/api/people/{id}", id)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -118,13 +225,13 @@ public class PersonControllerTest {
                 .andExpect(MockMvcResultMatchers.status().isNotFound())
                 .andExpect(MockMvcResultMatchers.jsonPath("$.message", Matchers.equalTo("Person updated")));
 
-        Mockito.verify(service, Mockito.times(1)).update(Mockito.eq(id), Mockito.any(Person.class));
+        Mockito.verify(service, Mockito.times(1)).update(Mockito.eq(id), Mockito.any(Person.class), Mockito.isNull());
     }
 
     @Test
     void updatePersonShouldReturn200() throws Exception {
         Person updatedPerson = new Person(1L, "John Doe", 30, "Engineer");
-        Mockito.when(service.update(Mockito.anyLong(), Mockito.any(Person.class))).thenReturn(updatedPerson);
+        Mockito.when(service.update(Mockito.anyLong(), Mockito.any(Person.class), Mockito.isNull())).thenReturn(updatedPerson);
 
         mockMvc.perform(MockMvcRequestBuilders.put("/api/people/1")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -135,18 +242,44 @@ public class PersonControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.body.age", Matchers.is(30)))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.body.profession", Matchers.equalTo("Engineer")));
 
-        Mockito.verify(service, Mockito.times(1)).update(Mockito.anyLong(), Mockito.any(Person.class));
+        Mockito.verify(service, Mockito.times(1)).update(Mockito.anyLong(), Mockito.any(Person.class), Mockito.isNull());
+    }
+
+    @Test
+    void patchPersonShouldReturn200() throws Exception {
+        Person patchedPerson = new Person(1L, null, 31, null);
+        Mockito.when(service.patch(Mockito.eq(1L), Mockito.any(Person.class), Mockito.isNull())).thenReturn(patchedPerson);
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/people/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"age\": 31}"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message", Matchers.equalTo("Success")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body.age", Matchers.is(31)));
+
+        Mockito.verify(service, Mockito.times(1)).patch(Mockito.eq(1L), Mockito.argThat(person -> person.getName() == null), Mockito.isNull());
+    }
+
+    @Test
+    void patchPersonShouldReturn404IfPersonIsNotFound() throws Exception {
+        Mockito.when(service.patch(Mockito.eq(1L), Mockito.any(Person.class), Mockito.isNull())).thenThrow(new ResourceNotFoundException("Patch person error"));
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/people/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"age\": 31}"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message", Matchers.equalTo("Patch person error")));
     }
 
     @Test
     void deletePersonShouldReturn404IfPersonIsNotFound() throws Exception {
-        Mockito.doThrow(new ResourceNotFoundException("Delete person error")).when(service).delete(Mockito.anyLong());
+        Mockito.doThrow(new ResourceNotFoundException("Delete person error")).when(service).delete(Mockito.anyLong(), Mockito.isNull());
 
         mockMvc.perform(MockMvcRequestBuilders.delete("/api/people/1"))
                 .andExpect(MockMvcResultMatchers.status().isNotFound())
                 .andExpect(MockMvcResultMatchers.jsonPath("$.message", Matchers.equalTo("Delete person error")));
 
-        Mockito.verify(service, Mockito.times(1)).delete(Mockito.anyLong());
+        Mockito.verify(service, Mockito.times(1)).delete(Mockito.anyLong(), Mockito.isNull());
     }
 
     @Test
@@ -155,6 +288,94 @@ public class PersonControllerTest {
                 .andExpect(MockMvcResultMatchers.status().isOk())
                 .andExpect(MockMvcResultMatchers.jsonPath("$.message", Matchers.equalTo("Person deleted")));
 
-        Mockito.verify(service, Mockito.times(1)).delete(Mockito.anyLong());
+        Mockito.verify(service, Mockito.times(1)).delete(Mockito.anyLong(), Mockito.isNull());
+    }
+
+    @Test
+    void getPersonByIdShouldReturnValidators() throws Exception {
+        Person person = new Person(1L, "John Doe", 30, "Engineer");
+        person.setVersion(3L);
+        person.setUpdatedAt(Instant.parse("2024-01-01T00:00:00Z"));
+        Mockito.when(service.getPersonById(1L)).thenReturn(person);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/people/1"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "W/\"3\""))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.LAST_MODIFIED, "Mon, 01 Jan 2024 00:00:00 GMT"));
+    }
+
+    @Test
+    void getPersonByIdShouldReturnNotModifiedWithoutLoadingThePerson() throws Exception {
+        Mockito.when(service.getPersonVersion(1L)).thenReturn(new PersonVersion(3L, Instant.parse("2024-01-01T00:00:00Z")));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/people/1").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+
+        Mockito.verify(service, Mockito.never()).getPersonById(Mockito.anyLong());
+    }
+
+    @Test
+    void getAllShouldReturnNotModifiedForAnUnchangedPage() throws Exception {
+        List<PersonView> people = List.of(new PersonView(1L, "John Doe", 30, "Engineer", 0L));
+        Mockito.when(service.getPersons(null, PersonService.DEFAULT_PAGE_SIZE, PersonField.ALL)).thenReturn(people);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/people").header(HttpHeaders.IF_NONE_MATCH, PersonController.pageTag(people, PersonField.ALL)))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+    }
+
+    @Test
+    void updatePersonShouldPassTheIfMatchVersion() throws Exception {
+        Person updatedPerson = new Person(1L, "John Doe", 30, "Engineer");
+        updatedPerson.setVersion(4L);
+        Mockito.when(service.update(Mockito.eq(1L), Mockito.any(Person.class), Mockito.eq(3L))).thenReturn(updatedPerson);
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/people/1")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"John Doe\", \"age\": 30, \"profession\": \"Engineer\"}"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "W/\"4\""));
+    }
+
+    @Test
+    void unconditionalPatchShouldTagTheVersionItWrote() throws Exception {
+        Person patchedPerson = new Person(1L, null, 31, null);
+        patchedPerson.setVersion(6L);
+        Mockito.when(service.patch(Mockito.eq(1L), Mockito.any(Person.class), Mockito.isNull())).thenReturn(patchedPerson);
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/people/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"age\": 31}"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "W/\"6\""));
+    }
+
+    @Test
+    void writesShouldReturnPreconditionFailedOnAStaleVersion() throws Exception {
+        Mockito.doThrow(new PreconditionFailedException("Person with id 1 has changed since version 3"))
+                .when(service).delete(1L, 3L);
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/people/1").header(HttpHeaders.IF_MATCH, "\"3\""))
+                .andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/people/1").header(HttpHeaders.IF_MATCH, "W/\"3\""))
+                .andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/people/1").header(HttpHeaders.IF_MATCH, "\"three\""))
+                .andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+
+        Mockito.verify(service, Mockito.times(2)).delete(1L, 3L);
+    }
+
+    @Test
+    void ifMatchListsShouldExpectTheCurrentVersionWhenListed() throws Exception {
+        Mockito.when(service.getPersonVersion(1L)).thenReturn(new PersonVersion(4L, null));
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/people/1").header(HttpHeaders.IF_MATCH, "\"3\", W/\"4\""))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/people/1").header(HttpHeaders.IF_MATCH, "\"2\", \"3\""))
+                .andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+
+        Mockito.verify(service, Mockito.times(1)).delete(1L, 4L);
+        Mockito.verify(service, Mockito.never()).delete(1L, 3L);
     }
 }
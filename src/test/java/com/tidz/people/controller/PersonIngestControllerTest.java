@@ -0,0 +1,106 @@
+package com.tidz.people.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tidz.people.ingest.PersonIngestQueue;
+import com.tidz.people.model.Person;
+import com.tidz.people.response.IngestTicket;
+import com.tidz.people.service.PersonService;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+public class PersonIngestControllerTest {
+
+    private MockMvc mockMvc;
+
+    @InjectMocks
+    private PersonIngestController controller;
+
+    @Mock
+    private PersonIngestQueue ingestQueue;
+
+    @Mock
+    private PersonService personService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller, new PersonController(personService, new ObjectMapper()))
+                .setCustomHandlerMapping(PreferenceHandlerMapping::new)
+                .setControllerAdvice(new ApiExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void ingestPersonShouldAcceptWithATicket() throws Exception {
+        Mockito.when(ingestQueue.submit(Mockito.any(Person.class))).thenReturn(IngestTicket.queued("abc"));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/people")
+                        .header(PersonIngestController.PREFER_HEADER, PersonIngestController.RESPOND_ASYNC)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"John Doe\", \"age\": 30, \"profession\": \"Engineer\"}"))
+                .andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.LOCATION, "/api/people/ingest/abc"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body.id", Matchers.is("abc")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body.status", Matchers.is("QUEUED")));
+
+        Mockito.verify(ingestQueue, Mockito.times(1)).submit(Mockito.argThat(person -> person.getName().equals("John Doe")));
+    }
+
+    @Test
+    void respondAsyncShouldBeFoundAmongOtherPreferences() throws Exception {
+        Mockito.when(ingestQueue.submit(Mockito.any(Person.class))).thenReturn(IngestTicket.queued("abc"));
+        Mockito.when(personService.save(Mockito.any(Person.class))).thenReturn(new Person(1L, "John Doe", 30, "Engineer"));
+
+        for (String prefer : new String[]{"respond-async, wait=10", "return=minimal, respond-async", "Respond-Async; x=1"}) {
+            mockMvc.perform(post(prefer)).andExpect(MockMvcResultMatchers.status().isAccepted());
+        }
+        // After a ";" come parameters of the preference before it, not further preferences.
+        for (String prefer : new String[]{"return=minimal", "return=minimal; respond-async", "wait=10; respond-async"}) {
+            mockMvc.perform(post(prefer)).andExpect(MockMvcResultMatchers.status().isOk());
+        }
+        mockMvc.perform(post(null)).andExpect(MockMvcResultMatchers.status().isOk());
+
+        Mockito.verify(ingestQueue, Mockito.times(3)).submit(Mockito.any(Person.class));
+        Mockito.verify(personService, Mockito.times(4)).save(Mockito.any(Person.class));
+    }
+
+    @Test
+    void ingestPersonShouldAskToRetryWhenTheQueueIsFull() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/people")
+                        .header(PersonIngestController.PREFER_HEADER, PersonIngestController.RESPOND_ASYNC)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"John Doe\", \"age\": 30, \"profession\": \"Engineer\"}"))
+                .andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    @Test
+    void getTicketShouldReturnItsStatusOr404() throws Exception {
+        Mockito.when(ingestQueue.status("abc")).thenReturn(new IngestTicket("abc", IngestTicket.Status.CREATED, 7L, null));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/people/ingest/abc"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body.personId", Matchers.is(7)));
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/people/ingest/missing"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    private static MockHttpServletRequestBuilder post(String prefer) {
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post("/api/people")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"John Doe\", \"age\": 30, \"profession\": \"Engineer\"}");
+        return prefer == null ? request : request.header(PersonIngestController.PREFER_HEADER, prefer);
+    }
+}
@@ -0,0 +1,56 @@
+package com.tidz.people.controller;
+
+import com.tidz.people.model.PersonMatch;
+import com.tidz.people.service.PersonService;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+public class PersonSearchControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private PersonService personService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(new PersonSearchController(personService))
+                .setControllerAdvice(new ApiExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void searchTextShouldReturnTheRankedMatches() throws Exception {
+        Mockito.when(personService.searchText("jon smit", 5)).thenReturn(List.of(
+                new PersonMatch(3L, "John Smith", 35, "Architect", 2.5),
+                new PersonMatch(1L, "Jon Smith", 30, "Engineer", 1.25)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/people/search/text").param("q", "jon smit").param("limit", "5"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body[0].id", Matchers.is(3)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body[0].name", Matchers.is("John Smith")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body[1].score", Matchers.is(1.25)));
+    }
+
+    @Test
+    void searchTextShouldRejectAMissingQuery() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/people/search/text").param("q", " "))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/people/search/text"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message", Matchers.is("q is required")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body", Matchers.nullValue()));
+        Mockito.verifyNoInteractions(personService);
+    }
+}
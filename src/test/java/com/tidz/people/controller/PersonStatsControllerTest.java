@@ -0,0 +1,80 @@
+package com.tidz.people.controller;
+
+import com.tidz.people.exceptions.InvalidHistogramException;
+import com.tidz.people.model.ProfessionAgeStats;
+import com.tidz.people.model.ProfessionCount;
+import com.tidz.people.response.AgeBucket;
+import com.tidz.people.service.PersonStatsService;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+public class PersonStatsControllerTest {
+
+    private MockMvc mockMvc;
+
+    @InjectMocks
+    private PersonStatsController controller;
+
+    @Mock
+    private PersonStatsService statsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new ApiExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void countByProfessionShouldReturnTheGroups() throws Exception {
+        Mockito.when(statsService.countByProfession()).thenReturn(List.of(new ProfessionCount("Engineer", 3)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/people/stats/professions"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body[0].profession", Matchers.is("Engineer")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body[0].count", Matchers.is(3)));
+    }
+
+    @Test
+    void ageStatsByProfessionShouldReturnTheSpread() throws Exception {
+        Mockito.when(statsService.ageStatsByProfession()).thenReturn(List.of(new ProfessionAgeStats("Engineer", 2, 30, 35, 40)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/people/stats/professions/ages"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body[0].minAge", Matchers.is(30)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body[0].averageAge", Matchers.is(35.0)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body[0].maxAge", Matchers.is(40)));
+    }
+
+    @Test
+    void ageHistogramShouldPreferExplicitBounds() throws Exception {
+        Mockito.when(statsService.ageHistogram(List.of(18, 65))).thenReturn(List.of(new AgeBucket(18, 65, 4), new AgeBucket(65, null, 1)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/people/stats/ages").param("bounds", "18,65"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body[1].from", Matchers.is(65)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.body[1].to", Matchers.nullValue()));
+
+        Mockito.verify(statsService, Mockito.never()).ageHistogram(Mockito.anyInt());
+    }
+
+    @Test
+    void ageHistogramShouldRejectBadBuckets() throws Exception {
+        Mockito.when(statsService.ageHistogram(0)).thenThrow(new InvalidHistogramException("width must be at least 1"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/people/stats/ages").param("width", "0"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+}
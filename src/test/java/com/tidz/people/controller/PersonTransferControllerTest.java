@@ -0,0 +1,158 @@
+package com.tidz.people.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tidz.people.model.Person;
+import com.tidz.people.response.BatchItemResult;
+import com.tidz.people.service.PersonBatchService;
+import com.tidz.people.service.PersonImportService;
+import com.tidz.people.service.PersonService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class PersonTransferControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private PersonService service;
+
+    @Mock
+    private PersonBatchService batchService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        PersonImportService importService = new PersonImportService(batchService, 2);
+        mockMvc = MockMvcBuilders.standaloneSetup(new PersonTransferController(service, importService, new ObjectMapper()))
+                .setControllerAdvice(new ApiExceptionHandler())
+                .build();
+
+        Mockito.doAnswer(invocation -> {
+            Consumer<Person> consumer = invocation.getArgument(1);
+            consumer.accept(new Person(1L, "John Doe", 30, "Engineer"));
+            consumer.accept(new Person(2L, "Sue, Mary", 22, "Programmer"));
+            return null;
+        }).when(service).streamPersons(Mockito.any(), Mockito.any(Consumer.class));
+        Mockito.when(batchService.saveAll(Mockito.anyList())).thenAnswer(invocation -> {
+            List<Person> people = invocation.getArgument(0);
+            List<BatchItemResult> results = new ArrayList<>();
+            for (int i = 0; i < people.size(); i++) {
+                results.add(BatchItemResult.of(i, (long) i + 1, BatchItemResult.Status.CREATED));
+            }
+            return results;
+        });
+    }
+
+    @Test
+    void exportShouldStreamCsvFromTheCursor() throws Exception {
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/people/export").param("after", "0"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"people.csv\""))
+                .andExpect(MockMvcResultMatchers.content().string("id,name,age,profession\n1,John Doe,30,Engineer\n2,\"Sue, Mary\",22,Programmer\n"));
+
+        Mockito.verify(service, Mockito.times(1)).streamPersons(Mockito.eq(0L), Mockito.any());
+    }
+
+    @Test
+    void exportShouldGzipWhenTheClientAcceptsIt() throws Exception {
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/people/export")
+                        .param("format", "ndjson")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.8"))
+                .andReturn();
+
+        MvcResult response = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+
+        try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(response.getResponse().getContentAsByteArray()))) {
+            String body = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+            Assertions.assertEquals(2, body.lines().count());
+            Assertions.assertTrue(body.startsWith("{\"id\":1,\"name\":\"John Doe\""));
+        }
+    }
+
+    @Test
+    void exportShouldRejectUnknownFormats() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/people/export").param("format", "xml"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    void importShouldReportProgressPerChunk() throws Exception {
+        String csv = "name,age,profession\nJohn Doe,30,Engineer\nMary Sue,22,Programmer\nJane Roe,41,Architect\n";
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/api/people/import")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string(
+                        "{\"offset\":2,\"imported\":2,\"rejected\":0,\"done\":false,\"error\":null}\n"
+                                + "{\"offset\":3,\"imported\":3,\"rejected\":0,\"done\":true,\"error\":null}\n"));
+    }
+
+    @Test
+    void importShouldAcceptGzippedFileUploadsAndResumeFromAnOffset() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "people.ndjson.gz", "application/gzip",
+                gzip("{\"name\":\"John Doe\",\"age\":30,\"profession\":\"Engineer\"}\n"
+                        + "{\"name\":\"Mary Sue\",\"age\":22,\"profession\":\"Programmer\"}\n"));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.multipart("/api/people/import").file(file).param("offset", "1"))
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.content().string("{\"offset\":2,\"imported\":1,\"rejected\":0,\"done\":true,\"error\":null}\n"));
+
+        Mockito.verify(batchService, Mockito.times(1)).saveAll(Mockito.argThat(people ->
+                people.size() == 1 && people.get(0).getName().equals("Mary Sue")));
+    }
+
+    @Test
+    void importShouldRejectACsvHeaderWithoutRequiredColumns() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/people/import")
+                        .contentType("text/csv")
+                        .content("id,name\n1,John Doe\n"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        Mockito.verify(batchService, Mockito.never()).saveAll(Mockito.anyList());
+    }
+
+    private static byte[] gzip(String content) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(outputStream)) {
+            gzip.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return outputStream.toByteArray();
+    }
+}
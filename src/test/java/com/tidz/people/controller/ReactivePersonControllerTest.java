@@ -0,0 +1,121 @@
+package com.tidz.people.controller;
+
+import com.tidz.people.exceptions.ResourceNotFoundException;
+import com.tidz.people.model.Person;
+import com.tidz.people.service.ReactivePersonService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class ReactivePersonControllerTest {
+
+    private WebTestClient webTestClient;
+
+    @InjectMocks
+    private ReactivePersonController controller;
+
+    @Mock
+    private ReactivePersonService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        webTestClient = WebTestClient.bindToController(controller).build();
+    }
+
+    @Test
+    void getPersonByIdShouldReturnAPersonWithThatId() {
+        Mockito.when(service.getPersonById(1L)).thenReturn(Mono.just(new Person(1L, "John Doe", 30, "Engineer")));
+
+        webTestClient.get().uri("/api/people/{id}", 1L)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Success")
+                .jsonPath("$.body.name").isEqualTo("John Doe")
+                .jsonPath("$.body.age").isEqualTo(30);
+    }
+
+    @Test
+    void getPersonByIdShouldReturnNotFoundError() {
+        Mockito.when(service.getPersonById(1L)).thenReturn(Mono.error(new ResourceNotFoundException("Person with id 1 not found")));
+
+        webTestClient.get().uri("/api/people/{id}", 1L)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Person with id 1 not found");
+    }
+
+    @Test
+    void getAllShouldReturnAPageWithTheNextCursor() {
+        Mockito.when(service.getPersons(null, 2)).thenReturn(Flux.just(
+                new Person(1L, "John Doe", 30, "Engineer"),
+                new Person(2L, "Mary Sue", 22, "Programmer")));
+
+        webTestClient.get().uri("/api/people?limit=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(PersonController.NEXT_CURSOR_HEADER, "2")
+                .expectBody()
+                .jsonPath("$.body.length()").isEqualTo(2)
+                .jsonPath("$.body[1].name").isEqualTo("Mary Sue");
+    }
+
+    @Test
+    void streamAllPeopleShouldWriteNdjson() {
+        Mockito.when(service.streamAllPersons()).thenReturn(Flux.just(
+                new Person(1L, "John Doe", 30, "Engineer"),
+                new Person(2L, "Mary Sue", 22, "Programmer")));
+
+        webTestClient.get().uri("/api/people")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .isEqualTo("{\"id\":1,\"name\":\"John Doe\",\"age\":30,\"profession\":\"Engineer\"}\n"
+                        + "{\"id\":2,\"name\":\"Mary Sue\",\"age\":22,\"profession\":\"Programmer\"}\n");
+    }
+
+    @Test
+    void savePersonShouldReturnSavedPerson() {
+        Mockito.when(service.save(Mockito.any(Person.class))).thenReturn(Mono.just(new Person(1L, "John Doe", 30, "Engineer")));
+
+        webTestClient.post().uri("/api/people")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\": \"John Doe\", \"age\": 30, \"profession\": \"Engineer\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.body.id").isEqualTo(1);
+    }
+
+    @Test
+    void deletePersonShouldReturn404IfPersonIsNotFound() {
+        Mockito.when(service.delete(1L)).thenReturn(Mono.error(new ResourceNotFoundException("Delete person error")));
+
+        webTestClient.delete().uri("/api/people/1")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Delete person error");
+    }
+
+    @Test
+    void deletePersonShouldReturn200() {
+        Mockito.when(service.delete(1L)).thenReturn(Mono.empty());
+
+        webTestClient.delete().uri("/api/people/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Person deleted");
+    }
+}
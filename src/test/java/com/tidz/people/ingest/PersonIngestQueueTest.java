@@ -0,0 +1,122 @@
+package com.tidz.people.ingest;
+
+import com.tidz.people.model.Person;
+import com.tidz.people.response.BatchItemResult;
+import com.tidz.people.response.IngestTicket;
+import com.tidz.people.service.PersonBatchService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+public class PersonIngestQueueTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private PersonIngestQueue ingestQueue;
+
+    @Mock
+    private PersonBatchService batchService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        Mockito.when(batchService.saveAll(Mockito.anyList())).thenAnswer(invocation -> {
+            List<Person> people = invocation.getArgument(0);
+            List<BatchItemResult> results = new ArrayList<>();
+            for (int i = 0; i < people.size(); i++) {
+                results.add(people.get(i).getName() == null
+                        ? new BatchItemResult(i, null, BatchItemResult.Status.INVALID, "name, age and profession are required")
+                        : BatchItemResult.of(i, 100L + i, BatchItemResult.Status.CREATED));
+            }
+            return results;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (ingestQueue != null) {
+            ingestQueue.stop();
+        }
+    }
+
+    @Test
+    void fullBatchesShouldBeWrittenTogether() {
+        start(10, 2, Duration.ofHours(1));
+
+        IngestTicket first = ingestQueue.submit(new Person(null, "John Doe", 30, "Engineer"));
+        IngestTicket second = ingestQueue.submit(new Person(null, null, 22, "Programmer"));
+
+        Mockito.verify(batchService, Mockito.timeout(5000)).saveAll(Mockito.argThat(people -> people.size() == 2));
+        Assertions.assertEquals(IngestTicket.Status.QUEUED, first.status());
+        Assertions.assertEquals(new IngestTicket(first.id(), IngestTicket.Status.CREATED, 100L, null), ingestQueue.status(first.id()));
+        Assertions.assertEquals(IngestTicket.Status.INVALID, ingestQueue.status(second.id()).status());
+    }
+
+    @Test
+    void partialBatchesShouldBeWrittenAfterTheFlushInterval() {
+        start(10, 100, Duration.ofMillis(20));
+
+        ingestQueue.submit(new Person(null, "John Doe", 30, "Engineer"));
+
+        Mockito.verify(batchService, Mockito.timeout(5000)).saveAll(Mockito.argThat(people -> people.size() == 1));
+        // The flush is timed after saveAll returns; stopping joins the flusher.
+        ingestQueue.stop();
+        Assertions.assertEquals(1, registry.get("people.ingest.flush").timer().count());
+    }
+
+    @Test
+    void submitShouldRejectWhenTheQueueIsFull() {
+        start(1, 100, Duration.ofHours(1));
+
+        Assertions.assertNotNull(ingestQueue.submit(new Person(null, "John Doe", 30, "Engineer")));
+        Assertions.assertNull(ingestQueue.submit(new Person(null, "Mary Sue", 22, "Programmer")));
+        Assertions.assertEquals(1, ingestQueue.depth());
+        Assertions.assertEquals(1.0, registry.get("people.ingest.queue.depth").gauge().value());
+    }
+
+    @Test
+    void queuedTicketsShouldOutliveTheTicketTtl() throws InterruptedException {
+        start(10, 100, Duration.ofHours(1), Duration.ofMillis(1));
+
+        IngestTicket ticket = ingestQueue.submit(new Person(null, "John Doe", 30, "Engineer"));
+        Thread.sleep(50);
+
+        Assertions.assertEquals(ticket, ingestQueue.status(ticket.id()));
+        ingestQueue.stop();
+        Mockito.verify(batchService, Mockito.times(1)).saveAll(Mockito.anyList());
+    }
+
+    @Test
+    void stopShouldDrainEveryAcceptedPerson() {
+        start(10, 100, Duration.ofHours(1));
+        List<IngestTicket> tickets = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            tickets.add(ingestQueue.submit(new Person(null, "Person " + i, 30, "Engineer")));
+        }
+
+        ingestQueue.stop();
+
+        Mockito.verify(batchService, Mockito.times(1)).saveAll(Mockito.argThat(people -> people.size() == 3));
+        tickets.forEach(ticket -> Assertions.assertEquals(IngestTicket.Status.CREATED, ingestQueue.status(ticket.id()).status()));
+        Assertions.assertEquals(0, ingestQueue.depth());
+        Assertions.assertNull(ingestQueue.submit(new Person(null, "Late", 30, "Engineer")));
+    }
+
+    private void start(int capacity, int batchSize, Duration flushInterval) {
+        start(capacity, batchSize, flushInterval, Duration.ofMinutes(10));
+    }
+
+    private void start(int capacity, int batchSize, Duration flushInterval, Duration ticketTtl) {
+        ingestQueue = new PersonIngestQueue(batchService, registry, capacity, batchSize, flushInterval,
+                ticketTtl, Duration.ofSeconds(10));
+        ingestQueue.start();
+    }
+}
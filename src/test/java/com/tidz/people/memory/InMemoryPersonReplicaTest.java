@@ -0,0 +1,71 @@
+package com.tidz.people.memory;
+
+import com.tidz.people.model.Person;
+import com.tidz.people.model.PersonField;
+import com.tidz.people.model.PersonView;
+import com.tidz.people.repository.PersonRepository;
+import com.tidz.people.repository.PersonSpecifications;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+// IGNORECASE gives H2 the case-insensitive comparisons of MySQL's default collation, which the
+// replica has to agree with.
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replica_db;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=none"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class InMemoryPersonReplicaTest {
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private InMemoryPersonReplica replica;
+
+    @BeforeEach
+    void setUp() {
+        personRepository.saveAll(List.of(
+                new Person(null, "John Doe", 30, "Engineer"),
+                new Person(null, "john smith", 35, "engineer"),
+                new Person(null, "JOHNNY Cash", 40, "Doctor"),
+                new Person(null, "Mary Sue", 22, "ENGINEER"),
+                new Person(null, "mary-jane", 28, "Doctor")));
+        entityManager.flush();
+        replica = new InMemoryPersonReplica(personRepository, transactionManager, 2);
+        replica.load();
+    }
+
+    @Test
+    void searchShouldMatchTheDatabaseIgnoringCase() {
+        String[] professions = {null, "Engineer", "engineer", "DOCTOR", "Architect"};
+        String[] prefixes = {null, "john", "JOHN", "Jo", "m", "MARY-", "x"};
+        for (String profession : professions) {
+            for (String prefix : prefixes) {
+                List<Long> database = ids(personRepository.findViews(
+                        PersonSpecifications.search(profession, prefix, null, null, null), PersonField.ALL, 100));
+                List<Long> memory = ids(replica.search(profession, prefix, null, null, null, 100));
+
+                Assertions.assertEquals(database, memory, "profession=" + profession + ", name=" + prefix);
+            }
+        }
+        Assertions.assertEquals(3, replica.search("engineer", "", null, null, null, 100).size());
+        Assertions.assertEquals(3, replica.search(null, "jOhN", null, null, null, 100).size());
+    }
+
+    private static List<Long> ids(List<PersonView> people) {
+        return people.stream().map(PersonView::id).toList();
+    }
+}
@@ -0,0 +1,42 @@
+package com.tidz.people.memory;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class LongIntHashMapTest {
+
+    @Test
+    void shouldBehaveLikeAHashMapThroughGrowthAndRemovals() {
+        Random random = new Random(42);
+        LongIntHashMap map = new LongIntHashMap(4);
+        Map<Long, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 200_000; i++) {
+            // A narrow key range keeps collisions and backward shifts frequent.
+            long key = random.nextInt(5_000) * 1024L;
+            if (random.nextInt(3) == 0) {
+                Integer removed = expected.remove(key);
+                Assertions.assertEquals(removed == null ? LongIntHashMap.MISSING : removed, map.remove(key));
+            } else {
+                int value = random.nextInt(Integer.MAX_VALUE);
+                expected.put(key, value);
+                map.put(key, value);
+            }
+        }
+
+        Assertions.assertEquals(expected.size(), map.size());
+        for (int i = 0; i < 5_000; i++) {
+            long key = i * 1024L;
+            Assertions.assertEquals(expected.getOrDefault(key, LongIntHashMap.MISSING), map.get(key));
+        }
+    }
+
+    @Test
+    void shouldRejectNegativeValues() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new LongIntHashMap(4).put(1L, -1));
+    }
+}
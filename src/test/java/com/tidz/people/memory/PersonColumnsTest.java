@@ -0,0 +1,158 @@
+package com.tidz.people.memory;
+
+import com.tidz.people.model.Person;
+import com.tidz.people.model.PersonVersion;
+import com.tidz.people.model.PersonView;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+public class PersonColumnsTest {
+
+    private static final String[] PROFESSIONS = {"Engineer", "Doctor", "Programmer", "Architect"};
+
+    @Test
+    void shouldStoreUpdateAndRemovePersons() {
+        PersonColumns columns = new PersonColumns(0);
+        Person person = person(1, "John Doe", 30, "Engineer");
+        person.setVersion(2L);
+        person.setUpdatedAt(Instant.parse("2024-01-01T10:15:30.123456Z"));
+        columns.put(person);
+        columns.put(person(2, "Mary Sue", 22, "Doctor"));
+
+        Person stored = columns.get(1L);
+        Assertions.assertEquals("John Doe", stored.getName());
+        Assertions.assertEquals("Engineer", stored.getProfession());
+        Assertions.assertEquals(new PersonVersion(2L, Instant.parse("2024-01-01T10:15:30.123456Z")), columns.version(1L));
+
+        Person updated = person(1, "John Smith", 35, "Architect");
+        updated.setVersion(3L);
+        columns.put(updated);
+        Assertions.assertEquals("John Smith", columns.get(1L).getName());
+        Assertions.assertEquals(List.of(1L), ids(columns.search("Architect", null, 35, 35, null, 10)));
+        Assertions.assertEquals(List.of(), columns.search(null, null, 30, 30, null, 10));
+
+        Assertions.assertTrue(columns.remove(1L));
+        Assertions.assertFalse(columns.remove(1L));
+        Assertions.assertNull(columns.get(1L));
+        Assertions.assertEquals(List.of(2L), ids(columns.page(null, 10)));
+        Assertions.assertEquals(1, columns.size());
+    }
+
+    @Test
+    void writesThatArriveOutOfOrderShouldBeIgnored() {
+        PersonColumns columns = new PersonColumns(0);
+        Person newer = person(1, "John Smith", 35, "Architect");
+        newer.setVersion(2L);
+        columns.put(newer);
+
+        columns.put(person(1, "John Doe", 30, "Engineer"));
+
+        Assertions.assertEquals("John Smith", columns.get(1L).getName());
+        Assertions.assertEquals(List.of(), columns.search("Engineer", null, null, null, null, 10));
+    }
+
+    @Test
+    void searchShouldMatchAFullScanInIdOrder() {
+        Random random = new Random(7);
+        PersonColumns columns = new PersonColumns(0);
+        TreeMap<Long, Person> expected = new TreeMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            long id = random.nextInt(5_000) + 1;
+            if (random.nextInt(4) == 0) {
+                columns.remove(id);
+                expected.remove(id);
+            } else {
+                Person person = person(id, (random.nextBoolean() ? "John " : "Mary ") + id, 18 + random.nextInt(60),
+                        PROFESSIONS[random.nextInt(PROFESSIONS.length)]);
+                person.setVersion((long) i);
+                columns.put(person);
+                expected.put(id, person);
+            }
+        }
+
+        Assertions.assertEquals(expected.size(), columns.size());
+        for (int i = 0; i < 200; i++) {
+            String profession = random.nextBoolean() ? PROFESSIONS[random.nextInt(PROFESSIONS.length)] : null;
+            String prefix = random.nextInt(3) == 0 ? "John 1" : null;
+            Integer minAge = random.nextBoolean() ? 18 + random.nextInt(60) : null;
+            Integer maxAge = random.nextBoolean() ? 18 + random.nextInt(60) : null;
+            Long after = random.nextBoolean() ? (long) random.nextInt(5_000) : null;
+            int limit = 1 + random.nextInt(100);
+
+            List<Long> scanned = new ArrayList<>();
+            for (Person person : (after == null ? expected : expected.tailMap(after, false)).values()) {
+                if ((profession == null || profession.equals(person.getProfession()))
+                        && (prefix == null || person.getName().startsWith(prefix))
+                        && (minAge == null || person.getAge() >= minAge)
+                        && (maxAge == null || person.getAge() <= maxAge)
+                        && scanned.size() < limit) {
+                    scanned.add(person.getId());
+                }
+            }
+            Assertions.assertEquals(scanned, ids(columns.search(profession, prefix, minAge, maxAge, after, limit)));
+        }
+    }
+
+    @Test
+    void idsBelowTheHighestShouldStillBePagedInOrder() {
+        PersonColumns columns = new PersonColumns(0);
+        columns.put(person(100, "A", 30, "Engineer"));
+        columns.put(person(51, "B", 30, "Engineer"));
+        columns.put(person(101, "C", 30, "Engineer"));
+        columns.put(person(1, "D", 31, "Engineer"));
+
+        Assertions.assertEquals(List.of(1L, 51L, 100L, 101L), ids(columns.page(null, 10)));
+        Assertions.assertEquals(List.of(100L, 101L), ids(columns.page(51L, 10)));
+        Assertions.assertEquals(List.of(51L, 100L), ids(columns.search(null, null, null, 30, null, 2)));
+        Assertions.assertEquals("B", columns.get(51L).getName());
+    }
+
+    @Test
+    void idsInsertedOutOfOrderShouldKeepEveryIndexInIdOrder() {
+        Random random = new Random(11);
+        List<Long> shuffled = new ArrayList<>();
+        for (long id = 1; id <= 2_000; id++) {
+            shuffled.add(id);
+        }
+        Collections.shuffle(shuffled, random);
+        PersonColumns columns = new PersonColumns(0);
+        TreeMap<Long, Person> expected = new TreeMap<>();
+        for (long id : shuffled) {
+            Person person = person(id, "Name " + id, 18 + (int) (id % 50), PROFESSIONS[(int) (id % PROFESSIONS.length)]);
+            columns.put(person);
+            expected.put(id, person);
+            if (id % 7 == 0) {
+                columns.remove(id - 1);
+                expected.remove(id - 1);
+            }
+        }
+
+        Assertions.assertEquals(expected.size(), columns.size());
+        Assertions.assertEquals(List.copyOf(expected.keySet()), ids(columns.page(null, expected.size())));
+        for (Person person : expected.values()) {
+            Assertions.assertEquals(person.getName(), columns.get(person.getId()).getName());
+        }
+        List<Long> thirties = expected.values().stream()
+                .filter(person -> person.getAge() >= 30 && person.getAge() <= 39 && "Doctor".equals(person.getProfession()))
+                .map(Person::getId)
+                .toList();
+        Assertions.assertEquals(thirties, ids(columns.search("Doctor", null, 30, 39, null, expected.size())));
+    }
+
+    private static List<Long> ids(List<PersonView> people) {
+        return people.stream().map(PersonView::id).toList();
+    }
+
+    private static Person person(long id, String name, int age, String profession) {
+        Person person = new Person(id, name, age, profession);
+        person.setVersion(0L);
+        return person;
+    }
+}
@@ -0,0 +1,42 @@
+package com.tidz.people.memory;
+
+import com.tidz.people.model.Person;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TombstonesTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final Tombstones tombstones = new Tombstones(now::get);
+
+    @Test
+    void writesUpToTheDeletedVersionShouldBeBuried() {
+        tombstones.add(1L, 3L);
+        tombstones.add(2L, null);
+
+        Assertions.assertTrue(tombstones.buries(person(1L, 3L)));
+        Assertions.assertFalse(tombstones.buries(person(1L, 4L)));
+        Assertions.assertTrue(tombstones.buries(person(2L, 100L)));
+        Assertions.assertFalse(tombstones.buries(person(3L, 0L)));
+    }
+
+    @Test
+    void tombstonesShouldExpire() {
+        tombstones.add(1L, null);
+        now.addAndGet(Tombstones.RETENTION_NANOS / 2);
+        tombstones.add(2L, null);
+        now.addAndGet(Tombstones.RETENTION_NANOS / 2);
+
+        Assertions.assertFalse(tombstones.buries(person(1L, 0L)));
+        Assertions.assertTrue(tombstones.buries(person(2L, 0L)));
+        Assertions.assertEquals(1, tombstones.size());
+    }
+
+    private static Person person(long id, long version) {
+        Person person = new Person(id, "John Doe", 30, "Engineer");
+        person.setVersion(version);
+        return person;
+    }
+}
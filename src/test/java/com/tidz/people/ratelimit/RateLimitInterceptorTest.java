@@ -0,0 +1,86 @@
+package com.tidz.people.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tidz.people.controller.PersonController;
+import com.tidz.people.model.Person;
+import com.tidz.people.service.PersonService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.Map;
+
+public class RateLimitInterceptorTest {
+
+    private MockMvc mockMvc;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        PersonService service = Mockito.mock(PersonService.class);
+        Mockito.when(service.getPersons(Mockito.any(), Mockito.anyInt())).thenReturn(List.of());
+        Mockito.when(service.getPersonById(1L)).thenReturn(new Person(1L, "John Doe", 30, "Engineer"));
+        registry = new SimpleMeterRegistry();
+        ObjectMapper objectMapper = new ObjectMapper();
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(
+                Map.of("list", new TokenBucketRateLimiter.Limit(0.1, 2)), 100, objectMapper, registry);
+        mockMvc = MockMvcBuilders.standaloneSetup(new PersonController(service, objectMapper))
+                .addInterceptors(interceptor)
+                .build();
+    }
+
+    @Test
+    void clientsOverTheirLimitShouldGetTooManyRequests() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(list("10.0.0.1").header("X-Api-Key", "key-" + i))
+                    .andExpect(MockMvcResultMatchers.status().isOk());
+        }
+        mockMvc.perform(list("10.0.0.1").header("X-Api-Key", "fresh"))
+                .andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.RETRY_AFTER, "10"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message", Matchers.is("Too many requests, try again later")));
+
+        mockMvc.perform(list("10.0.0.2"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        Assertions.assertEquals(1, registry.get("people.rate-limit.rejected").tag("limit", "list").counter().count());
+    }
+
+    @Test
+    void authenticatedClientsShouldBeLimitedByPrincipal() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(list("10.0.0." + i).principal(() -> "alice"))
+                    .andExpect(MockMvcResultMatchers.status().isOk());
+        }
+        mockMvc.perform(list("10.0.0.9").principal(() -> "alice"))
+                .andExpect(MockMvcResultMatchers.status().isTooManyRequests());
+        mockMvc.perform(list("10.0.0.9").principal(() -> "bob"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    void endpointsShouldOnlyDrawOnTheirOwnLimit() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(MockMvcRequestBuilders.get("/api/people/1"))
+                    .andExpect(MockMvcResultMatchers.status().isOk());
+        }
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/people"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    private static MockHttpServletRequestBuilder list(String remoteAddress) {
+        return MockMvcRequestBuilders.get("/api/people").with(request -> {
+            request.setRemoteAddr(remoteAddress);
+            return request;
+        });
+    }
+}
@@ -0,0 +1,82 @@
+package com.tidz.people.ratelimit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TokenBucketRateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong(42 * SECOND);
+
+    @Test
+    void shouldGrantTheBurstThenRefillAtTheRate() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(new TokenBucketRateLimiter.Limit(10, 3), 100, clock::get);
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(0, limiter.tryAcquire("client"));
+        }
+        Assertions.assertEquals(SECOND / 10, limiter.tryAcquire("client"));
+
+        clock.addAndGet(SECOND / 20);
+        Assertions.assertEquals(SECOND / 20, limiter.tryAcquire("client"));
+        clock.addAndGet(SECOND / 20);
+        Assertions.assertEquals(0, limiter.tryAcquire("client"));
+
+        // A long pause refills the bucket to the burst, never beyond it.
+        clock.addAndGet(60 * SECOND);
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(0, limiter.tryAcquire("client"));
+        }
+        Assertions.assertTrue(limiter.tryAcquire("client") > 0);
+    }
+
+    @Test
+    void clientsShouldHaveTheirOwnBuckets() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(new TokenBucketRateLimiter.Limit(1, 1), 100, clock::get);
+
+        Assertions.assertEquals(0, limiter.tryAcquire("a"));
+        Assertions.assertTrue(limiter.tryAcquire("a") > 0);
+        Assertions.assertEquals(0, limiter.tryAcquire("b"));
+    }
+
+    @Test
+    void concurrentCallersShouldNeverShareAPermit() throws Exception {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(new TokenBucketRateLimiter.Limit(1, 1000), 100, clock::get);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> granted = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                granted.add(executor.submit(() -> {
+                    int count = 0;
+                    for (int i = 0; i < 500; i++) {
+                        if (limiter.tryAcquire("client") == 0) {
+                            count++;
+                        }
+                    }
+                    return count;
+                }));
+            }
+            int total = 0;
+            for (Future<Integer> count : granted) {
+                total += count.get();
+            }
+            Assertions.assertEquals(1000, total);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void shouldRejectLimitsThatGrantNothing() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TokenBucketRateLimiter.Limit(0, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TokenBucketRateLimiter.Limit(1, 0));
+    }
+}
@@ -0,0 +1,49 @@
+package com.tidz.people.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public class MigrationTest {
+
+    private static final String URL = "jdbc:h2:mem:legacy_db;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void databasesCreatedByDdlAutoShouldBeMigratedFromTheBaseline() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            // The table ddl-auto=update created for the original IDENTITY-keyed entity.
+            statement.execute("create table persons (id bigint not null auto_increment, age integer not null, "
+                    + "name varchar(255) not null, profession varchar(255) not null, primary key (id))");
+            for (int i = 0; i < 120; i++) {
+                statement.execute("insert into persons (age, name, profession) values (30, 'John " + i + "', 'Engineer')");
+            }
+
+            Flyway.configure()
+                    .dataSource(URL, "sa", "")
+                    .locations("classpath:db/migration/h2")
+                    .baselineOnMigrate(true)
+                    .baselineVersion("0")
+                    .load()
+                    .migrate();
+
+            Assertions.assertEquals(200L, single(statement, "select next value for persons_seq"));
+            Assertions.assertEquals(120L, single(statement, "select count(*) from persons where version = 0"));
+            Assertions.assertEquals(4L, single(statement, "select count(distinct index_name) from information_schema.indexes "
+                    + "where table_name = 'persons' and index_name like 'idx_persons_%'"));
+        }
+    }
+
+    private static long single(Statement statement, String sql) throws SQLException {
+        try (ResultSet result = statement.executeQuery(sql)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+}
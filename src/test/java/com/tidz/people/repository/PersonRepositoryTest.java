@@ -0,0 +1,206 @@
+package com.tidz.people.repository;
+
+import com.tidz.people.config.QueryCounter;
+import com.tidz.people.model.Person;
+import com.tidz.people.model.AgeCount;
+import com.tidz.people.model.PersonField;
+import com.tidz.people.model.PersonVersion;
+import com.tidz.people.model.PersonView;
+import com.tidz.people.model.ProfessionAge;
+import com.tidz.people.model.ProfessionAgeCount;
+import com.tidz.people.model.ProfessionAgeStats;
+import com.tidz.people.model.ProfessionCount;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// The statement inspector keeps the SQL Hibernate generates, so the plan tests explain that very statement.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.tidz.people.config.QueryCounter")
+public class PersonRepositoryTest {
+
+    private static final String[] PROFESSIONS = {"Engineer", "Doctor", "Programmer", "Architect"};
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        List<Person> people = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            people.add(new Person(null, (i % 2 == 0 ? "John " : "Mary ") + i, 18 + i % 50, PROFESSIONS[i % PROFESSIONS.length]));
+        }
+        personRepository.saveAll(people);
+        entityManager.flush();
+        entityManager.createNativeQuery("ANALYZE").executeUpdate();
+    }
+
+    @Test
+    void searchShouldApplyEveryFilter() {
+        List<Person> result = personRepository.findAll(
+                PersonSpecifications.search("Engineer", "John", 20, 30, null), Sort.by("id"));
+
+        Assertions.assertFalse(result.isEmpty());
+        result.forEach(person -> {
+            Assertions.assertEquals("Engineer", person.getProfession());
+            Assertions.assertTrue(person.getName().startsWith("John"));
+            Assertions.assertTrue(person.getAge() >= 20 && person.getAge() <= 30);
+        });
+    }
+
+    @Test
+    void searchShouldTreatLikeWildcardsInTheNamePrefixLiterally() {
+        List<Person> result = personRepository.findAll(PersonSpecifications.search(null, "%", null, null, null));
+
+        Assertions.assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void containsShouldMatchNameOrProfessionIgnoringCase() {
+        List<Person> byName = personRepository.findAll(PersonSpecifications.nameOrProfessionContains("HN 1"));
+        List<Person> byProfession = personRepository.findAll(PersonSpecifications.nameOrProfessionContains("gram"));
+
+        Assertions.assertFalse(byName.isEmpty());
+        byName.forEach(person -> Assertions.assertTrue(person.getName().startsWith("John 1")));
+        Assertions.assertFalse(byProfession.isEmpty());
+        byProfession.forEach(person -> Assertions.assertEquals("Programmer", person.getProfession()));
+        Assertions.assertTrue(personRepository.findAll(PersonSpecifications.nameOrProfessionContains("_")).isEmpty());
+    }
+
+    @Test
+    void professionAndAgeRangeShouldUseTheCompositeIndex() {
+        personRepository.findViews(PersonSpecifications.search("Engineer", null, 20, 30, null), PersonField.ALL, 100);
+
+        assertLastStatementUsesIndex("idx_persons_profession_age", "Engineer", 20, 30, 100);
+    }
+
+    @Test
+    void namePrefixShouldUseTheNameIndex() {
+        personRepository.findViews(PersonSpecifications.search(null, "John 1", null, null, null), EnumSet.of(PersonField.NAME), 100);
+
+        assertLastStatementUsesIndex("idx_persons_name", "John 1%", 100);
+    }
+
+    @Test
+    void ageRangeShouldUseTheAgeIndex() {
+        personRepository.findViews(PersonSpecifications.search(null, null, 20, 21, null), PersonField.ALL, 100);
+
+        assertLastStatementUsesIndex("idx_persons_age", 20, 21, 100);
+    }
+
+    @Test
+    void bulkUpdatesShouldBumpTheVersionAndHonourTheExpectedOne() {
+        Long id = personRepository.findAll(Sort.by("id")).get(0).getId();
+        PersonVersion before = personRepository.findVersionById(id).orElseThrow();
+
+        Assertions.assertEquals(0L, before.version());
+        Assertions.assertNotNull(before.updatedAt());
+        Assertions.assertEquals(1, personRepository.updateById(id, "John Smith", 35, "Architect", 0L));
+        Assertions.assertEquals(0, personRepository.patchById(id, null, 36, null, 0L));
+        Assertions.assertEquals(1, personRepository.patchById(id, null, 36, null, null));
+        Assertions.assertEquals(0, personRepository.removeById(id, 1L));
+        Assertions.assertEquals(2L, personRepository.findVersionById(id).orElseThrow().version());
+        Assertions.assertEquals(1, personRepository.removeById(id, 2L));
+    }
+
+    @Test
+    void pagesShouldBeReadAsUnmanagedRecords() {
+        entityManager.clear();
+
+        List<PersonView> page = personRepository.findAllByOrderByIdAsc(Limit.of(10), PersonView.class);
+        List<PersonView> names = personRepository.findViews(PersonSpecifications.idAfter(page.get(4).id()),
+                EnumSet.of(PersonField.NAME), 5);
+
+        Assertions.assertEquals(10, page.size());
+        page.forEach(person -> {
+            Assertions.assertNotNull(person.profession());
+            Assertions.assertNotNull(person.version());
+        });
+        Assertions.assertEquals(page.subList(5, 10).stream().map(PersonView::id).toList(), names.stream().map(PersonView::id).toList());
+        names.forEach(person -> {
+            Assertions.assertNotNull(person.name());
+            Assertions.assertNull(person.age());
+            Assertions.assertNull(person.profession());
+        });
+        Assertions.assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void statisticsShouldBeGroupedByTheDatabase() {
+        Map<String, IntSummaryStatistics> expected = personRepository.findAll().stream()
+                .collect(Collectors.groupingBy(Person::getProfession, Collectors.summarizingInt(Person::getAge)));
+
+        List<ProfessionCount> counts = personRepository.countByProfession();
+        Assertions.assertEquals(PROFESSIONS.length, counts.size());
+        counts.forEach(count -> Assertions.assertEquals(expected.get(count.profession()).getCount(), count.count()));
+
+        List<ProfessionAgeStats> stats = personRepository.ageStatsByProfession();
+        Assertions.assertEquals(List.of("Architect", "Doctor", "Engineer", "Programmer"),
+                stats.stream().map(ProfessionAgeStats::profession).toList());
+        stats.forEach(professionStats -> {
+            IntSummaryStatistics summary = expected.get(professionStats.profession());
+            Assertions.assertEquals(summary.getMin(), professionStats.minAge());
+            Assertions.assertEquals(summary.getAverage(), professionStats.averageAge(), 1e-9);
+            Assertions.assertEquals(summary.getMax(), professionStats.maxAge());
+        });
+
+        Map<Integer, Long> expectedAges = personRepository.findAll().stream()
+                .collect(Collectors.groupingBy(Person::getAge, Collectors.counting()));
+        List<AgeCount> ages = personRepository.countByAge();
+        Assertions.assertEquals(expectedAges.keySet().stream().sorted().toList(), ages.stream().map(AgeCount::age).toList());
+        ages.forEach(age -> Assertions.assertEquals(expectedAges.get(age.age()), age.count()));
+        Assertions.assertEquals(personRepository.count(),
+                personRepository.countByProfessionAndAge().stream().mapToLong(ProfessionAgeCount::count).sum());
+    }
+
+    @Test
+    void lockProfessionAgeShouldReadTheGroupedColumns() {
+        Person person = personRepository.findAll(Sort.by("id")).get(1);
+
+        Assertions.assertEquals(new ProfessionAge(person.getProfession(), person.getAge()),
+                personRepository.lockProfessionAgeById(person.getId()).orElseThrow());
+        Assertions.assertEquals(List.of(new ProfessionAge(person.getProfession(), person.getAge())),
+                personRepository.lockProfessionAgesByIds(List.of(person.getId())));
+        Assertions.assertEquals(List.of(person.getId()),
+                personRepository.lockAllByIds(List.of(person.getId())).stream().map(Person::getId).toList());
+    }
+
+    /**
+     * Explains the statement the repository just ran, as Hibernate generated it, with the given
+     * values bound in order.
+     */
+    private void assertLastStatementUsesIndex(String index, Object... parameters) {
+        String sql = QueryCounter.lastStatement();
+        String plan = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < parameters.length; i++) {
+                    statement.setObject(i + 1, parameters[i]);
+                }
+                try (ResultSet result = statement.executeQuery()) {
+                    result.next();
+                    return result.getString(1).toLowerCase();
+                }
+            }
+        });
+
+        Assertions.assertTrue(plan.contains(index), () -> "Expected " + index + " in plan: " + plan);
+        Assertions.assertFalse(plan.contains("tablescan"), () -> "Unexpected table scan in plan: " + plan);
+    }
+}
@@ -0,0 +1,86 @@
+package com.tidz.people.repository;
+
+import com.tidz.people.model.Person;
+import com.tidz.people.service.ReactivePersonService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@SpringBootTest
+@ActiveProfiles("reactive")
+public class ReactivePersonRepositoryTest {
+
+    @Autowired
+    private ReactivePersonRepository personRepository;
+
+    @Autowired
+    private ReactivePersonService personService;
+
+    @Autowired
+    private DatabaseClient client;
+
+    @Test
+    void insertShouldAssignUniqueIdsAcrossIdBlocks() {
+        List<Person> saved = Flux.range(0, ReactivePersonRepository.ID_BLOCK_SIZE * 2 + 5)
+                .flatMap(i -> personRepository.insert(new Person(null, "Person " + i, 20 + i % 40, "Engineer")), 8)
+                .collectList()
+                .block();
+
+        Set<Long> ids = new HashSet<>();
+        saved.forEach(person -> Assertions.assertTrue(ids.add(person.getId()), "duplicate id " + person.getId()));
+        StepVerifier.create(personRepository.findById(saved.get(0).getId()))
+                .expectNextMatches(person -> person.getName().equals(saved.get(0).getName()))
+                .verifyComplete();
+    }
+
+    @Test
+    void updatePatchAndDeleteShouldReportAffectedRows() {
+        Person person = personRepository.insert(new Person(null, "John Doe", 30, "Engineer")).block();
+
+        StepVerifier.create(personRepository.patchById(person.getId(), null, 31, null)).expectNext(1L).verifyComplete();
+        StepVerifier.create(personRepository.findById(person.getId()))
+                .expectNextMatches(found -> found.getAge() == 31 && found.getName().equals("John Doe"))
+                .verifyComplete();
+        StepVerifier.create(personRepository.updateById(person.getId(), "John Smith", 35, "Architect")).expectNext(1L).verifyComplete();
+        StepVerifier.create(personRepository.removeById(person.getId())).expectNext(1L).verifyComplete();
+        StepVerifier.create(personRepository.removeById(person.getId())).expectNext(0L).verifyComplete();
+    }
+
+    @Test
+    void streamAllShouldHonourBackpressure() {
+        personRepository.insert(new Person(null, "John Doe", 30, "Engineer"))
+                .then(personRepository.insert(new Person(null, "Mary Sue", 22, "Programmer")))
+                .block();
+
+        StepVerifier.create(personRepository.streamAll(), 1)
+                .expectNextCount(1)
+                .thenRequest(1)
+                .expectNextCount(1)
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void writesShouldBeRecordedInTheOutbox() {
+        Person person = personService.save(new Person(null, "John Doe", 30, "Engineer")).block();
+        personService.patch(person.getId(), new Person(null, null, 31, null)).block();
+        personService.delete(person.getId()).block();
+
+        StepVerifier.create(client.sql("select operation, version from person_changes where person_id = :id and seq is null order by id")
+                        .bind("id", person.getId())
+                        .map(row -> row.get("operation", String.class) + "@" + row.get("version", Long.class))
+                        .all()
+                        .collectList())
+                .expectNext(List.of("UPSERT@0", "UPSERT@1", "DELETE@1"))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,48 @@
+package com.tidz.people.response;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tidz.people.model.Person;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class ApiResponseSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldWriteASinglePerson() throws Exception {
+        String json = objectMapper.writeValueAsString(new ApiResponse("Success", new Person(1L, "John Doe", 30, "Engineer")));
+
+        Assertions.assertEquals("{\"message\":\"Success\",\"body\":{\"id\":1,\"name\":\"John Doe\",\"age\":30,\"profession\":\"Engineer\"}}", json);
+    }
+
+    @Test
+    void shouldWriteNullFieldsLikeTheDefaultSerializer() throws Exception {
+        String json = objectMapper.writeValueAsString(new ApiResponse("Success", new Person(1L, null, null, "Engineer")));
+
+        Assertions.assertEquals("{\"message\":\"Success\",\"body\":{\"id\":1,\"name\":null,\"age\":null,\"profession\":\"Engineer\"}}", json);
+    }
+
+    @Test
+    void shouldWriteAListOfPersons() throws Exception {
+        String json = objectMapper.writeValueAsString(new ApiResponse("Success", List.of(
+                new Person(1L, "John Doe", 30, "Engineer"),
+                new Person(2L, "Mary Sue", 22, "Programmer"))));
+
+        Assertions.assertEquals("{\"message\":\"Success\",\"body\":["
+                + "{\"id\":1,\"name\":\"John Doe\",\"age\":30,\"profession\":\"Engineer\"},"
+                + "{\"id\":2,\"name\":\"Mary Sue\",\"age\":22,\"profession\":\"Programmer\"}]}", json);
+    }
+
+    @Test
+    void shouldFallBackToJacksonForOtherBodies() throws Exception {
+        String json = objectMapper.writeValueAsString(new ApiResponse("Person with id 1 not found", null));
+        String mapJson = objectMapper.writeValueAsString(new ApiResponse("Success", Map.of("count", 3)));
+
+        Assertions.assertEquals("{\"message\":\"Person with id 1 not found\",\"body\":null}", json);
+        Assertions.assertEquals("{\"message\":\"Success\",\"body\":{\"count\":3}}", mapJson);
+    }
+}
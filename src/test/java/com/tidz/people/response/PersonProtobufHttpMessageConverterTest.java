@@ -0,0 +1,73 @@
+package com.tidz.people.response;
+
+import com.google.protobuf.UnknownFieldSet;
+import com.tidz.people.model.Person;
+import com.tidz.people.model.PersonView;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.util.List;
+
+public class PersonProtobufHttpMessageConverterTest {
+
+    private final PersonProtobufHttpMessageConverter converter = new PersonProtobufHttpMessageConverter();
+
+    @Test
+    void pagesShouldRoundTripWithUnselectedFieldsLeftOut() throws IOException {
+        List<PersonView> people = List.of(new PersonView(1L, "John Doe", 30, "Engineer", 3L),
+                new PersonView(2L, null, 28, null, 0L));
+
+        ApiResponse read = (ApiResponse) converter.read(ApiResponse.class,
+                new MockHttpInputMessage(write(new ApiResponse("Success", people))));
+
+        Assertions.assertEquals("Success", read.getMessage());
+        Assertions.assertEquals(List.of(new PersonView(1L, "John Doe", 30, "Engineer", null),
+                new PersonView(2L, null, 28, null, null)), read.getBody());
+    }
+
+    @Test
+    void outputShouldFollowTheSchemaFieldNumbers() throws IOException {
+        byte[] bytes = write(new ApiResponse("Success", new Person(7L, "John Doe", 30, "Engineer")));
+
+        UnknownFieldSet envelope = UnknownFieldSet.parseFrom(bytes);
+        Assertions.assertEquals("Success", envelope.getField(1).getLengthDelimitedList().get(0).toStringUtf8());
+        Assertions.assertFalse(envelope.hasField(2));
+        UnknownFieldSet person = UnknownFieldSet.parseFrom(envelope.getField(3).getLengthDelimitedList().get(0));
+        Assertions.assertEquals(List.of(7L), person.getField(1).getVarintList());
+        Assertions.assertEquals("John Doe", person.getField(2).getLengthDelimitedList().get(0).toStringUtf8());
+        Assertions.assertEquals(List.of(30L), person.getField(3).getVarintList());
+        Assertions.assertEquals("Engineer", person.getField(4).getLengthDelimitedList().get(0).toStringUtf8());
+    }
+
+    @Test
+    void requestBodiesShouldBeReadAsPersons() throws IOException {
+        byte[] bytes = write(new ApiResponse(null, new Person(null, "John Doe", 30, "Engineer")));
+        byte[] person = UnknownFieldSet.parseFrom(bytes).getField(3).getLengthDelimitedList().get(0).toByteArray();
+
+        Person read = (Person) converter.read(Person.class, new MockHttpInputMessage(person));
+
+        Assertions.assertNull(read.getId());
+        Assertions.assertEquals("John Doe", read.getName());
+        Assertions.assertEquals(30, read.getAge());
+        Assertions.assertEquals("Engineer", read.getProfession());
+    }
+
+    @Test
+    void bodiesWithoutAProtobufFormShouldBeRefused() {
+        Assertions.assertThrows(HttpMessageNotWritableException.class,
+                () -> write(new ApiResponse("Success", List.of(new BatchItemResult(0, 1L, BatchItemResult.Status.CREATED, null)))));
+        Assertions.assertThrows(HttpMessageNotReadableException.class,
+                () -> converter.read(Person.class, new MockHttpInputMessage(new byte[]{0x12, 0x7f})));
+    }
+
+    private byte[] write(ApiResponse response) throws IOException {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(response, PersonProtobufHttpMessageConverter.PROTOBUF, output);
+        return output.getBodyAsBytes();
+    }
+}
@@ -0,0 +1,57 @@
+package com.tidz.people.search;
+
+import com.tidz.people.model.Person;
+import com.tidz.people.model.PersonMatch;
+import com.tidz.people.repository.PersonRepository;
+import com.tidz.people.service.PersonBatchService;
+import com.tidz.people.service.PersonService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+@SpringBootTest(properties = "people.search.enabled=true")
+public class PersonSearchIndexTest {
+
+    @Autowired
+    private PersonSearchIndex searchIndex;
+
+    @Autowired
+    private PersonService personService;
+
+    @Autowired
+    private PersonBatchService batchService;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Test
+    void committedWritesShouldBeSearchable() {
+        Person saved = personService.save(new Person(null, "Quentin Zabriskie", 30, "Engineer"));
+        Assertions.assertEquals(List.of(saved.getId()), ids(personService.searchText("zabriskee", 10)));
+
+        personService.patch(saved.getId(), new Person(null, "Quentin Yarborough", null, null));
+        Assertions.assertEquals(List.of(), personService.searchText("zabriskie", 10));
+        PersonMatch patched = personService.searchText("yarborough", 10).getFirst();
+        Assertions.assertEquals(new PersonMatch(saved.getId(), "Quentin Yarborough", 30, "Engineer", patched.score()), patched);
+
+        batchService.deleteAll(List.of(saved.getId()));
+        Assertions.assertEquals(List.of(), personService.searchText("yarborough", 10));
+    }
+
+    @Test
+    void reindexShouldPickUpRowsWrittenAroundTheService() {
+        Person written = personRepository.save(new Person(null, "Ottoline Wexford", 41, "Doctor"));
+        Assertions.assertEquals(List.of(), personService.searchText("wexford", 10));
+
+        Assertions.assertEquals(personRepository.count(), searchIndex.reindex());
+        Assertions.assertEquals(List.of(written.getId()), ids(personService.searchText("wexford", 10)));
+        Assertions.assertEquals(searchIndex.size(), personRepository.count());
+    }
+
+    private static List<Long> ids(List<PersonMatch> matches) {
+        return matches.stream().map(PersonMatch::id).toList();
+    }
+}
@@ -0,0 +1,43 @@
+package com.tidz.people.search;
+
+import com.tidz.people.model.PersonRow;
+import com.tidz.people.repository.PersonRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class SearchIndexEndpointTest {
+
+    @Test
+    void reindexShouldBeRejectedWhileOneIsRunning() throws Exception {
+        PersonRepository repository = Mockito.mock(PersonRepository.class);
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(repository.count()).thenAnswer(invocation -> {
+            reading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return 0L;
+        });
+        Mockito.when(repository.findAllByOrderByIdAsc(Mockito.any(Limit.class), Mockito.eq(PersonRow.class))).thenReturn(List.of());
+        PersonSearchIndex searchIndex = new PersonSearchIndex(repository, Mockito.mock(PlatformTransactionManager.class), 100);
+        SearchIndexEndpoint endpoint = new SearchIndexEndpoint(searchIndex);
+
+        CompletableFuture<WebEndpointResponse<Map<String, Object>>> running = CompletableFuture.supplyAsync(endpoint::reindex);
+        Assertions.assertTrue(reading.await(5, TimeUnit.SECONDS));
+        WebEndpointResponse<Map<String, Object>> rejected = endpoint.reindex();
+        release.countDown();
+
+        Assertions.assertEquals(409, rejected.getStatus());
+        Assertions.assertEquals(Map.of("documents", 0), running.get(5, TimeUnit.SECONDS).getBody());
+        Assertions.assertEquals(200, endpoint.reindex().getStatus());
+    }
+}
@@ -0,0 +1,43 @@
+package com.tidz.people.search;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+public class TextAnalyzerTest {
+
+    @Test
+    void termsShouldBeFoldedWordsAndNumbers() {
+        Assertions.assertEquals(List.of("jose", "luis", "o", "brien", "2nd"), TextAnalyzer.terms("  José-Luis O'BRIEN, 2nd"));
+        Assertions.assertEquals(List.of(), TextAnalyzer.terms(" - "));
+        Assertions.assertEquals(List.of(), TextAnalyzer.terms(null));
+    }
+
+    @Test
+    void onlyLongWordsShouldBeMatchedFuzzily() {
+        Assertions.assertTrue(TextAnalyzer.fuzzy("john"));
+        Assertions.assertFalse(TextAnalyzer.fuzzy("jon"));
+        Assertions.assertFalse(TextAnalyzer.fuzzy("2024"));
+    }
+
+    @Test
+    void deletionsShouldLeaveOutOneCharacterEach() {
+        Assertions.assertEquals(Set.of("ohn", "jhn", "jon", "joh"), TextAnalyzer.deletions("john"));
+        Assertions.assertEquals(Set.of("nn", "an"), TextAnalyzer.deletions("ann"));
+    }
+
+    @Test
+    void oneEditApartShouldCoverInsertionsDeletionsSubstitutionsAndSwaps() {
+        Assertions.assertTrue(TextAnalyzer.oneEditApart("john", "jon"));
+        Assertions.assertTrue(TextAnalyzer.oneEditApart("jon", "john"));
+        Assertions.assertTrue(TextAnalyzer.oneEditApart("smith", "smyth"));
+        Assertions.assertTrue(TextAnalyzer.oneEditApart("john", "jhon"));
+        Assertions.assertTrue(TextAnalyzer.oneEditApart("smith", "smiht"));
+        Assertions.assertFalse(TextAnalyzer.oneEditApart("john", "john"));
+        Assertions.assertFalse(TextAnalyzer.oneEditApart("john", "joan1"));
+        Assertions.assertFalse(TextAnalyzer.oneEditApart("smith", "simth1"));
+        Assertions.assertFalse(TextAnalyzer.oneEditApart("abcd", "badc"));
+    }
+}
@@ -0,0 +1,136 @@
+package com.tidz.people.search;
+
+import com.tidz.people.model.Person;
+import com.tidz.people.model.PersonMatch;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class TextIndexTest {
+
+    @Test
+    void exactMatchesShouldRankAboveCompletionsAndTypos() {
+        TextIndex index = index(
+                new Person(1L, "Johnny Walker", 40, "Doctor"),
+                new Person(2L, "Jon Smith", 30, "Engineer"),
+                new Person(3L, "John Smith", 35, "Architect"),
+                new Person(4L, "Mary Sue", 22, "Doctor"));
+
+        List<PersonMatch> matches = index.search("john", 10);
+
+        Assertions.assertEquals(List.of(3L, 2L, 1L), ids(matches));
+        Assertions.assertTrue(matches.get(0).score() > matches.get(1).score());
+        Assertions.assertTrue(matches.get(1).score() > matches.get(2).score());
+        Assertions.assertEquals(new PersonMatch(3L, "John Smith", 35, "Architect", matches.get(0).score()), matches.get(0));
+    }
+
+    @Test
+    void everyMatchedWordShouldAddToTheScore() {
+        TextIndex index = index(
+                new Person(1L, "John Smith", 30, "Engineer"),
+                new Person(2L, "John Doe", 30, "Doctor"),
+                new Person(3L, "Mary Smith", 30, "Engineer"));
+
+        Assertions.assertEquals(List.of(1L, 3L, 2L), ids(index.search("Jhon smit", 10)));
+        Assertions.assertEquals(List.of(3L, 1L), ids(index.search("mary engineer", 2)));
+    }
+
+    @Test
+    void nameMatchesShouldOutweighProfessionMatches() {
+        TextIndex index = index(
+                new Person(1L, "Mary Sue", 30, "Baker"),
+                new Person(2L, "Tom Baker", 30, "Doctor"));
+
+        Assertions.assertEquals(List.of(2L, 1L), ids(index.search("baker", 10)));
+    }
+
+    @Test
+    void equalScoresShouldBeOrderedById() {
+        TextIndex index = index(
+                new Person(5L, "Ann Lee", 30, "Doctor"),
+                new Person(2L, "Ann Lee", 31, "Doctor"),
+                new Person(9L, "Ann Lee", 32, "Doctor"));
+
+        Assertions.assertEquals(List.of(2L, 5L), ids(index.search("lee", 2)));
+    }
+
+    @Test
+    void shortWordsShouldNotMatchFuzzily() {
+        TextIndex index = index(new Person(1L, "Ann Lee", 30, "Doctor"));
+
+        Assertions.assertEquals(List.of(), index.search("ana", 10));
+        Assertions.assertEquals(List.of(), index.search("- ,", 10));
+        Assertions.assertEquals(List.of(1L), ids(index.search("an", 10)));
+    }
+
+    @Test
+    void updatesAndRemovalsShouldBeSearchable() {
+        TextIndex index = index(
+                new Person(1L, "John Smith", 30, "Engineer"),
+                new Person(2L, "Mary Sue", 22, "Doctor"));
+
+        index.put(new Person(1L, "John Smith", 31, "Engineer"));
+        Assertions.assertEquals(31, index.search("smith", 10).get(0).age());
+        index.put(new Person(1L, "John Baker", 31, "Engineer"));
+        Assertions.assertEquals(List.of(), index.search("smith", 10));
+        Assertions.assertEquals(List.of(1L), ids(index.search("baker", 10)));
+
+        Assertions.assertTrue(index.remove(2L));
+        Assertions.assertFalse(index.remove(2L));
+        Assertions.assertEquals(List.of(), index.search("mary", 10));
+        Assertions.assertEquals(1, index.size());
+    }
+
+    @Test
+    void writesThatArriveOutOfOrderShouldBeIgnored() {
+        TextIndex index = new TextIndex(0);
+        index.put(versioned(new Person(1L, "John Baker", 31, "Engineer"), 2));
+
+        index.put(versioned(new Person(1L, "John Smith", 30, "Engineer"), 1));
+        index.put(versioned(new Person(1L, "John Baker", 30, "Engineer"), 2));
+
+        Assertions.assertEquals(List.of(), index.search("smith", 10));
+        Assertions.assertEquals(31, index.search("baker", 10).get(0).age());
+    }
+
+    @Test
+    void retiredSlotsShouldBeCompactedAway() {
+        TextIndex index = new TextIndex(0);
+        for (long id = 1; id <= 1000; id++) {
+            index.put(new Person(id, "Person " + id, 30, "Engineer"));
+        }
+        for (int round = 0; round < 5; round++) {
+            for (long id = 1; id <= 1000; id++) {
+                index.put(new Person(id, "Person " + id + " r" + round, 30, "Engineer"));
+            }
+        }
+        for (long id = 1; id <= 900; id++) {
+            index.remove(id);
+        }
+
+        Assertions.assertEquals(100, index.size());
+        Assertions.assertEquals(List.of(950L), ids(index.search("950", 10)));
+        Assertions.assertEquals(List.of(), index.search("r3", 10));
+        Assertions.assertEquals(10, index.search("r4 engineer", 10).size());
+        // Without compaction every number and round would still be a term.
+        Assertions.assertTrue(index.terms() < 300);
+    }
+
+    private static TextIndex index(Person... people) {
+        TextIndex index = new TextIndex(people.length);
+        for (Person person : people) {
+            index.put(person);
+        }
+        return index;
+    }
+
+    private static List<Long> ids(List<PersonMatch> matches) {
+        return matches.stream().map(PersonMatch::id).toList();
+    }
+
+    private static Person versioned(Person person, long version) {
+        person.setVersion(version);
+        return person;
+    }
+}
@@ -0,0 +1,124 @@
+package com.tidz.people.service;
+
+import com.tidz.people.cache.PersonCache;
+import com.tidz.people.changes.PersonChangeLog;
+import com.tidz.people.model.Person;
+import com.tidz.people.model.ProfessionAge;
+import com.tidz.people.repository.PersonRepository;
+import com.tidz.people.response.BatchItemResult;
+import com.tidz.people.stats.PersonStatsRollup;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+public class PersonBatchServiceTest {
+
+    private PersonBatchService batchService;
+
+    @Mock
+    private PersonRepository personRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PersonCache personCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private PersonChangeLog changeLog;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        batchService = new PersonBatchService(personRepository, entityManager, personCache, transactionManager, null, null, changeLog, null, 2);
+    }
+
+    @Test
+    void saveAllShouldPersistValidPeopleAndReportInvalidOnes() {
+        Person person1 = new Person(null, "John Doe", 30, "Engineer");
+        Person person2 = new Person(null, null, 28, "Doctor");
+        Person person3 = new Person(null, "Mary Sue", 22, "Programmer");
+
+        List<BatchItemResult> results = batchService.saveAll(Arrays.asList(person1, person2, person3));
+
+        Assertions.assertEquals(3, results.size());
+        Assertions.assertEquals(BatchItemResult.Status.CREATED, results.get(0).status());
+        Assertions.assertEquals(BatchItemResult.Status.INVALID, results.get(1).status());
+        Assertions.assertEquals(BatchItemResult.Status.CREATED, results.get(2).status());
+        Assertions.assertEquals(2, results.get(2).index());
+        Mockito.verify(entityManager, Mockito.times(1)).persist(person1);
+        Mockito.verify(entityManager, Mockito.never()).persist(person2);
+        Mockito.verify(entityManager, Mockito.times(1)).persist(person3);
+        Mockito.verify(entityManager, Mockito.times(2)).flush();
+        Mockito.verify(transactionManager, Mockito.times(2)).commit(Mockito.any());
+    }
+
+    @Test
+    void saveAllShouldMarkEveryItemOfAFailedChunkAsFailed() {
+        Person person1 = new Person(null, "John Doe", 30, "Engineer");
+        Person person2 = new Person(null, "Jane Doe", 28, "Doctor");
+        Person person3 = new Person(null, "Mary Sue", 22, "Programmer");
+        Mockito.doThrow(new PersistenceException("duplicate key")).doNothing().when(entityManager).flush();
+
+        List<BatchItemResult> results = batchService.saveAll(List.of(person1, person2, person3));
+
+        Assertions.assertEquals(BatchItemResult.Status.FAILED, results.get(0).status());
+        Assertions.assertEquals(BatchItemResult.Status.FAILED, results.get(1).status());
+        Assertions.assertEquals(BatchItemResult.Status.CREATED, results.get(2).status());
+        Mockito.verify(transactionManager, Mockito.times(1)).rollback(Mockito.any());
+    }
+
+    @Test
+    void updateAllShouldUpdateFoundPeopleAndReportMissingOnes() {
+        Person existing = new Person(1L, "John Doe", 30, "Engineer");
+        Mockito.when(personRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(existing));
+
+        List<BatchItemResult> results = batchService.updateAll(List.of(
+                new Person(1L, "John Smith", 35, "Architect"),
+                new Person(2L, "Jane Doe", 28, "Doctor")));
+
+        Assertions.assertEquals(BatchItemResult.Status.UPDATED, results.get(0).status());
+        Assertions.assertEquals(BatchItemResult.Status.NOT_FOUND, results.get(1).status());
+        Assertions.assertEquals("John Smith", existing.getName());
+        Assertions.assertEquals(35, existing.getAge());
+        Assertions.assertEquals("Architect", existing.getProfession());
+    }
+
+    @Test
+    void updateAllShouldLockTheRowsTheStatsRollupIsToldAbout() {
+        PersonStatsRollup statsRollup = Mockito.mock(PersonStatsRollup.class);
+        PersonBatchService service = new PersonBatchService(personRepository, entityManager, personCache, transactionManager,
+                statsRollup, null, changeLog, null, 2);
+        Mockito.when(personRepository.lockAllByIds(List.of(1L))).thenReturn(List.of(new Person(1L, "John Doe", 30, "Engineer")));
+
+        service.updateAll(List.of(new Person(1L, "John Smith", 35, "Architect")));
+
+        Mockito.verify(personRepository, Mockito.never()).findAllById(Mockito.any());
+        Mockito.verify(statsRollup).changed(new ProfessionAge("Engineer", 30), new ProfessionAge("Architect", 35));
+    }
+
+    @Test
+    void deleteAllShouldDeleteExistingIdsInOneStatementPerChunk() {
+        Mockito.when(personRepository.findExistingIds(List.of(1L, 2L))).thenReturn(List.of(1L));
+
+        List<BatchItemResult> results = batchService.deleteAll(List.of(1L, 2L));
+
+        Assertions.assertEquals(BatchItemResult.Status.DELETED, results.get(0).status());
+        Assertions.assertEquals(BatchItemResult.Status.NOT_FOUND, results.get(1).status());
+        Mockito.verify(personRepository, Mockito.times(1)).deleteAllByIdInBatch(Set.of(1L));
+        Mockito.verify(personCache, Mockito.times(1)).evictAll(Set.of(1L));
+    }
+}
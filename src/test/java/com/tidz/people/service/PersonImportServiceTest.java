@@ -0,0 +1,96 @@
+package com.tidz.people.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tidz.people.model.Person;
+import com.tidz.people.response.BatchItemResult;
+import com.tidz.people.response.ImportProgress;
+import com.tidz.people.transfer.PersonReader;
+import com.tidz.people.transfer.TransferFormat;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class PersonImportServiceTest {
+
+    private static final String CSV = """
+            id,name,age,profession
+            1,John Doe,30,Engineer
+            2,Mary Sue,not a number,Doctor
+            3,Jane Roe,41,Architect
+            4,Max Mustermann,35,Teacher
+            5,Erika Musterfrau,29,Nurse
+            """;
+
+    private PersonImportService importService;
+
+    @Mock
+    private PersonBatchService batchService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        importService = new PersonImportService(batchService, 2);
+        Mockito.when(batchService.saveAll(Mockito.anyList())).thenAnswer(invocation -> created(invocation.getArgument(0)));
+    }
+
+    @Test
+    void importPeopleShouldWriteChunksAndReportProgressAfterEach() throws IOException {
+        List<ImportProgress> progress = new ArrayList<>();
+
+        ImportProgress result = importService.importPeople(reader(CSV), 0, progress::add);
+
+        Assertions.assertEquals(new ImportProgress(5, 4, 1, true, null), result);
+        Assertions.assertEquals(List.of(
+                ImportProgress.running(3, 2, 1),
+                ImportProgress.running(5, 4, 1),
+                result), progress);
+        Mockito.verify(batchService, Mockito.times(2)).saveAll(Mockito.anyList());
+    }
+
+    @Test
+    void importPeopleShouldSkipRecordsBeforeTheOffset() throws IOException {
+        ImportProgress result = importService.importPeople(reader(CSV), 3, progress -> {
+        });
+
+        Assertions.assertEquals(new ImportProgress(5, 2, 0, true, null), result);
+        Mockito.verify(batchService, Mockito.times(1)).saveAll(Mockito.argThat(people ->
+                people.size() == 2 && people.get(0).getName().equals("Max Mustermann")));
+    }
+
+    @Test
+    void importPeopleShouldStopAtTheLastCommittedOffsetWhenAChunkFails() throws IOException {
+        Mockito.when(batchService.saveAll(Mockito.anyList()))
+                .thenAnswer(invocation -> created(invocation.getArgument(0)))
+                .thenReturn(List.of(new BatchItemResult(0, null, BatchItemResult.Status.FAILED, "Chunk rolled back: down"),
+                        new BatchItemResult(1, null, BatchItemResult.Status.FAILED, "Chunk rolled back: down")));
+
+        ImportProgress result = importService.importPeople(reader(CSV), 0, progress -> {
+        });
+
+        Assertions.assertEquals(3, result.offset());
+        Assertions.assertEquals(2, result.imported());
+        Assertions.assertEquals("Chunk rolled back: down", result.error());
+        Mockito.verify(batchService, Mockito.times(2)).saveAll(Mockito.anyList());
+    }
+
+    private static PersonReader reader(String content) throws IOException {
+        return TransferFormat.CSV.reader(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), new ObjectMapper());
+    }
+
+    private static List<BatchItemResult> created(List<Person> people) {
+        List<BatchItemResult> results = new ArrayList<>();
+        for (int i = 0; i < people.size(); i++) {
+            results.add(BatchItemResult.of(i, (long) i + 1, BatchItemResult.Status.CREATED));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,93 @@
+package com.tidz.people.service;
+
+import com.tidz.people.model.Person;
+import com.tidz.people.model.PersonField;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SpringBootTest(properties = {"people.memory.enabled=true", "people.stats.rollup.enabled=true", "people.search.enabled=true"})
+public class PersonServiceConnectionTest {
+
+    private static final ThreadLocal<Boolean> WATCHED = ThreadLocal.withInitial(() -> false);
+    private static final AtomicInteger CONNECTIONS = new AtomicInteger();
+
+    @Autowired
+    private PersonService personService;
+
+    @Autowired
+    private PersonStatsService statsService;
+
+    @AfterEach
+    void tearDown() {
+        WATCHED.remove();
+    }
+
+    @Test
+    void readsAnsweredFromMemoryShouldTakeNoConnection() {
+        Person saved = personService.save(new Person(null, "Ignatius Quill", 30, "Engineer"));
+
+        int connections = connectionsDuring(() -> {
+            personService.getPersonById(saved.getId());
+            personService.getPersonVersion(saved.getId());
+            personService.getPersons(null, 10);
+            personService.getPersons(null, 10, PersonField.ALL);
+            personService.searchPersons("Engineer", "Ignatius", null, null, null, 10);
+            personService.searchText("quill", 10);
+            statsService.countByProfession();
+            statsService.ageStatsByProfession();
+            statsService.ageHistogram(PersonStatsService.DEFAULT_BUCKET_WIDTH);
+        });
+
+        Assertions.assertEquals(0, connections);
+        Assertions.assertTrue(connectionsDuring(() -> personService.streamAllPersons(person -> { })) > 0);
+    }
+
+    private static int connectionsDuring(Runnable reads) {
+        int before = CONNECTIONS.get();
+        WATCHED.set(true);
+        try {
+            reads.run();
+        } finally {
+            WATCHED.set(false);
+        }
+        return CONNECTIONS.get() - before;
+    }
+
+    // Only connections taken on the test thread are counted, since the change log polls on its own.
+    @TestConfiguration
+    static class CountingDataSourceConfig {
+
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource) || !"dataSource".equals(beanName)) {
+                        return bean;
+                    }
+                    return new DelegatingDataSource(dataSource) {
+                        @Override
+                        public Connection getConnection() throws SQLException {
+                            if (WATCHED.get()) {
+                                CONNECTIONS.incrementAndGet();
+                            }
+                            return super.getConnection();
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
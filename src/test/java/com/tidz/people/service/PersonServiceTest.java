@@ -1,10 +1,24 @@
 package com.tidz.people.service;
 
+import com.tidz.people.cache.PersonCache;
+import com.tidz.people.changes.PersonChangeLog;
+import com.tidz.people.exceptions.InvalidRecordException;
+import com.tidz.people.exceptions.PreconditionFailedException;
 import com.tidz.people.exceptions.ResourceNotFoundException;
+import com.tidz.people.memory.InMemoryPersonReplica;
 import com.tidz.people.model.Person;
+import com.tidz.people.model.PersonField;
+import com.tidz.people.model.PersonMatch;
+import com.tidz.people.model.PersonVersion;
+import com.tidz.people.model.PersonView;
+import com.tidz.people.model.ProfessionAge;
 import com.tidz.people.repository.PersonRepository;
+import com.tidz.people.search.PersonSearchIndex;
+import com.tidz.people.stats.PersonStatsRollup;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 
@@ -13,10 +27,19 @@ import org.junit.jupiter.api.Assertions;
 import org.mockito.Mockito;
 
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public class PersonServiceTest {
 
@@ -26,6 +49,15 @@ public class PersonServiceTest {
     @Mock
     private PersonRepository personRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PersonChangeLog changeLog;
+
+    @Spy
+    private PersonCache personCache = new PersonCache(100, Duration.ofMinutes(10), Duration.ofSeconds(30));
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -50,27 +82,79 @@ public class PersonServiceTest {
     }
 
     @Test
-    void getAllPeopleShouldReturnAListOfPeople() {
-        Person person1 = new Person();
-        person1.setName("John Doe");
-        person1.setAge(30);
-        person1.setProfession("Engineer");
+    void saveShouldRejectAnIdThatIsNotStored() {
+        Mockito.when(personRepository.existsById(42L)).thenReturn(false);
 
-        Person person2 = new Person();
-        person2.setName("Jane Doe");
-        person2.setAge(28);
-        person2.setProfession("Doctor");
+        Assertions.assertThrows(InvalidRecordException.class,
+                () -> personService.save(new Person(42L, "John Doe", 30, "Engineer")));
+        Mockito.verify(personRepository, Mockito.never()).save(Mockito.any());
+    }
 
-        List<Person> people = Arrays.asList(person1, person2);
-        Mockito.when(personRepository.findAll()).thenReturn(people);
+    @Test
+    void saveShouldReplaceTheStoredPersonWithTheGivenId() {
+        Mockito.when(personRepository.existsById(1L)).thenReturn(true);
+        Mockito.when(personRepository.updateById(1L, "John Smith", 35, "Architect", null)).thenReturn(1);
+
+        Person saved = personService.save(new Person(1L, "John Smith", 35, "Architect"));
+
+        Assertions.assertEquals(1L, saved.getId());
+        Mockito.verify(personRepository, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    void getAllPeopleShouldReturnAListOfPeople() {
+        PersonView person1 = new PersonView(1L, "John Doe", 30, "Engineer", 0L);
+        PersonView person2 = new PersonView(2L, "Jane Doe", 28, "Doctor", 0L);
 
-        List<Person> result = personService.getAllPersons();
+        List<PersonView> people = Arrays.asList(person1, person2);
+        Mockito.when(personRepository.findAllByOrderByIdAsc(Limit.of(10), PersonView.class)).thenReturn(people);
+
+        List<PersonView> result = personService.getPersons(null, 10);
 
         Assertions.assertNotNull(result);
         Assertions.assertEquals(2, result.size());
-        Assertions.assertEquals("John Doe", result.get(0).getName());
-        Assertions.assertEquals("Jane Doe", result.get(1).getName());
-        Mockito.verify(personRepository, Mockito.times(1)).findAll();
+        Assertions.assertEquals("John Doe", result.get(0).name());
+        Assertions.assertEquals("Jane Doe", result.get(1).name());
+        Mockito.verify(personRepository, Mockito.times(1)).findAllByOrderByIdAsc(Limit.of(10), PersonView.class);
+    }
+
+    @Test
+    void getPersonsShouldSeekPastTheCursorAndCapThePageSize() {
+        PersonView person = new PersonView(6L, "John Doe", 30, "Engineer", 0L);
+        Mockito.when(personRepository.findByIdGreaterThanOrderByIdAsc(5L, Limit.of(PersonService.MAX_PAGE_SIZE), PersonView.class))
+                .thenReturn(List.of(person));
+
+        List<PersonView> result = personService.getPersons(5L, PersonService.MAX_PAGE_SIZE + 1);
+
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals(6L, result.get(0).id());
+        Mockito.verify(personRepository, Mockito.never()).findAllByOrderByIdAsc(Mockito.any(Limit.class), Mockito.any());
+    }
+
+    @Test
+    void getPersonsShouldOnlySelectTheRequestedFields() {
+        Set<PersonField> fields = EnumSet.of(PersonField.ID, PersonField.NAME);
+        Mockito.when(personRepository.findViews(Mockito.any(), Mockito.eq(fields), Mockito.eq(10)))
+                .thenReturn(List.of(new PersonView(1L, "John Doe", null, null, 0L)));
+
+        List<PersonView> result = personService.getPersons(null, 10, fields);
+
+        Assertions.assertEquals("John Doe", result.get(0).name());
+        Mockito.verify(personRepository, Mockito.never()).findAllByOrderByIdAsc(Mockito.any(Limit.class), Mockito.any());
+    }
+
+    @Test
+    void streamAllPersonsShouldDetachEveryPersonAfterConsumingIt() {
+        Person person1 = new Person(1L, "John Doe", 30, "Engineer");
+        Person person2 = new Person(2L, "Jane Doe", 28, "Doctor");
+        Mockito.when(personRepository.streamAll()).thenReturn(Stream.of(person1, person2));
+
+        List<Person> consumed = new ArrayList<>();
+        personService.streamAllPersons(consumed::add);
+
+        Assertions.assertEquals(List.of(person1, person2), consumed);
+        Mockito.verify(entityManager, Mockito.times(1)).detach(person1);
+        Mockito.verify(entityManager, Mockito.times(1)).detach(person2);
     }
 
     @Test
@@ -94,45 +178,96 @@ public class PersonServiceTest {
     }
 
     @Test
-    void updateShouldUpdateThePersonWithTheProvidedId() {
-        Person person = new Person();
-        person.setName("John Doe");
-        person.setAge(30);
-        person.setProfession("Engineer");
+    void getPersonByIdShouldServeRepeatedReadsFromTheCache() {
+        Person person = new Person(1L, "John Doe", 30, "Engineer");
+        Mockito.when(personRepository.findById(1L)).thenReturn(Optional.of(person));
+
+        personService.getPersonById(1L);
+        Person personFound = personService.getPersonById(1L);
+
+        Assertions.assertSame(person, personFound);
+        Mockito.verify(personRepository, Mockito.times(1)).findById(1L);
+    }
+
+    @Test
+    void getPersonByIdShouldCacheMissingIds() {
+        Mockito.when(personRepository.findById(1L)).thenReturn(Optional.empty());
+
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> personService.getPersonById(1L));
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> personService.getPersonById(1L));
 
+        Mockito.verify(personRepository, Mockito.times(1)).findById(1L);
+    }
+
+    @Test
+    void writesShouldEvictTheCachedPerson() {
+        Person person = new Person(1L, "John Doe", 30, "Engineer");
+        Mockito.when(personRepository.findById(1L)).thenReturn(Optional.of(person));
+        Mockito.when(personRepository.updateById(1L, "John Smith", 35, "Architect", null)).thenReturn(1);
+        Mockito.when(personRepository.removeById(1L, null)).thenReturn(1);
+
+        personService.getPersonById(1L);
+        personService.update(1L, new Person(null, "John Smith", 35, "Architect"));
+        personService.getPersonById(1L);
+        personService.delete(1L);
+        personService.getPersonById(1L);
+
+        Mockito.verify(personRepository, Mockito.times(3)).findById(1L);
+        Mockito.verify(personCache, Mockito.times(2)).evict(1L);
+    }
+
+    @Test
+    void updateShouldUpdateThePersonWithTheProvidedId() {
         Person updatedPerson = new Person();
         updatedPerson.setName("John Smith");
         updatedPerson.setAge(35);
         updatedPerson.setProfession("Architect");
 
-        Mockito.when(personRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(person));
-        Mockito.when(personRepository.save(Mockito.any(Person.class))).thenReturn(updatedPerson);
+        Mockito.when(personRepository.updateById(1L, "John Smith", 35, "Architect", null)).thenReturn(1);
 
         Long id = 1L;
         Person result = personService.update(id, updatedPerson);
 
         Assertions.assertNotNull(result);
+        Assertions.assertEquals(id, result.getId());
         Assertions.assertEquals("John Smith", result.getName());
         Assertions.assertEquals(35, result.getAge());
         Assertions.assertEquals("Architect", result.getProfession());
 
-        Mockito.verify(personRepository, Mockito.times(1)).findById(id);
-        Mockito.verify(personRepository, Mockito.times(1)).save(person);
+        Mockito.verify(personRepository, Mockito.times(1)).updateById(id, "John Smith", 35, "Architect", null);
+        Mockito.verify(personRepository, Mockito.never()).findById(Mockito.anyLong());
+        Mockito.verify(personRepository, Mockito.never()).save(Mockito.any(Person.class));
+        Mockito.verify(changeLog).upserted(id);
+    }
+
+    @Test
+    void patchShouldOnlyPassTheSuppliedFields() {
+        Person changes = new Person();
+        changes.setAge(36);
+
+        Mockito.when(personRepository.patchById(1L, null, 36, null, null)).thenReturn(1);
+
+        Person result = personService.patch(1L, changes);
 
+        Assertions.assertEquals(1L, result.getId());
+        Assertions.assertEquals(36, result.getAge());
+        Assertions.assertNull(result.getName());
+        Mockito.verify(personRepository, Mockito.times(1)).patchById(1L, null, 36, null, null);
+        Mockito.verify(personRepository, Mockito.never()).findById(Mockito.anyLong());
     }
 
     @Test
     void deleteShouldDeleteThePersonWithTheProvidedId() {
         Long id = 1L;
-        Person person = new Person(id, "John Doe", 30, "Engineer");
 
-        Mockito.when(personRepository.findById(id)).thenReturn(Optional.of(person));
-        Mockito.doNothing().when(personRepository).delete(person);
+        Mockito.when(personRepository.removeById(id, null)).thenReturn(1);
 
         personService.delete(id);
 
-        Mockito.verify(personRepository, Mockito.times(1)).findById(id);
-        Mockito.verify(personRepository, Mockito.times(1)).delete(person);
+        InOrder inOrder = Mockito.inOrder(changeLog, personRepository);
+        inOrder.verify(changeLog).deleting(List.of(id));
+        inOrder.verify(personRepository, Mockito.times(1)).removeById(id, null);
+        Mockito.verify(personRepository, Mockito.never()).findById(Mockito.anyLong());
     }
 
     @Test
@@ -146,19 +281,193 @@ public class PersonServiceTest {
     void shouldThrowAnErrorIfPersonToBeUpdatedIsNotFound() {
         Person updatedPerson = new Person(1L, "John Doe", 35, "Engineer");
 
-        Mockito.when(personRepository.findById(Mockito.anyLong())).thenReturn(Optional.empty());
+        Mockito.when(personRepository.updateById(1L, "John Doe", 35, "Engineer", null)).thenReturn(0);
 
         Assertions.assertThrows(ResourceNotFoundException.class, () -> {
             personService.update(1L, updatedPerson);
         });
     }
 
+    @Test
+    void shouldThrowAnErrorIfPersonToBePatchedIsNotFound() {
+        Mockito.when(personRepository.patchById(Mockito.anyLong(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(0);
+
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+            personService.patch(1L, new Person());
+        });
+    }
+
     @Test
     void shouldThrowAnErrorIfPersonToBeDeletedIdNotFound() {
-        Mockito.when(personRepository.findById(Mockito.anyLong())).thenReturn(Optional.empty());
+        Mockito.when(personRepository.removeById(Mockito.anyLong(), Mockito.any())).thenReturn(0);
 
         Assertions.assertThrows(ResourceNotFoundException.class, () -> {
             personService.delete(1L);
         });
     }
+
+    @Test
+    void getPersonVersionShouldUseTheCachedPersonWhenPresent() {
+        Person person = new Person(1L, "John Doe", 30, "Engineer");
+        person.setVersion(4L);
+        Mockito.when(personRepository.findById(1L)).thenReturn(Optional.of(person));
+
+        personService.getPersonById(1L);
+        PersonVersion version = personService.getPersonVersion(1L);
+
+        Assertions.assertEquals(4L, version.version());
+        Mockito.verify(personRepository, Mockito.never()).findVersionById(Mockito.anyLong());
+    }
+
+    @Test
+    void getPersonVersionShouldNotLoadThePerson() {
+        Instant updatedAt = Instant.parse("2024-01-01T00:00:00Z");
+        Mockito.when(personRepository.findVersionById(1L)).thenReturn(Optional.of(new PersonVersion(2L, updatedAt)));
+
+        PersonVersion version = personService.getPersonVersion(1L);
+
+        Assertions.assertEquals(2L, version.version());
+        Assertions.assertEquals(updatedAt, version.updatedAt());
+        Mockito.verify(personRepository, Mockito.never()).findById(Mockito.anyLong());
+    }
+
+    @Test
+    void conditionalUpdateShouldReturnTheNextVersion() {
+        Mockito.when(personRepository.updateById(1L, "John Smith", 35, "Architect", 3L)).thenReturn(1);
+
+        Person result = personService.update(1L, new Person(null, "John Smith", 35, "Architect"), 3L);
+
+        Assertions.assertEquals(4L, result.getVersion());
+        Mockito.verify(personRepository, Mockito.never()).existsById(Mockito.anyLong());
+    }
+
+    @Test
+    void unconditionalWritesShouldReturnTheVersionTheyWrote() {
+        Instant updatedAt = Instant.parse("2024-01-01T10:15:30Z");
+        Mockito.when(personRepository.updateById(1L, "John Smith", 35, "Architect", null)).thenReturn(1);
+        Mockito.when(personRepository.patchById(1L, null, 36, null, null)).thenReturn(1);
+        Mockito.when(personRepository.findVersionById(1L))
+                .thenReturn(Optional.of(new PersonVersion(4L, updatedAt)), Optional.of(new PersonVersion(5L, updatedAt)));
+        Person changes = new Person();
+        changes.setAge(36);
+
+        Assertions.assertEquals(4L, personService.update(1L, new Person(null, "John Smith", 35, "Architect")).getVersion());
+        Assertions.assertEquals(5L, personService.patch(1L, changes).getVersion());
+        Mockito.verify(personRepository, Mockito.never()).findById(Mockito.anyLong());
+    }
+
+    @Test
+    void conditionalWritesShouldFailOnAStaleVersion() {
+        Mockito.when(personRepository.updateById(1L, "John Smith", 35, "Architect", 3L)).thenReturn(0);
+        Mockito.when(personRepository.removeById(1L, 3L)).thenReturn(0);
+        Mockito.when(personRepository.existsById(1L)).thenReturn(true);
+
+        Assertions.assertThrows(PreconditionFailedException.class,
+                () -> personService.update(1L, new Person(null, "John Smith", 35, "Architect"), 3L));
+        Assertions.assertThrows(PreconditionFailedException.class, () -> personService.delete(1L, 3L));
+    }
+
+    @Test
+    void conditionalWritesShouldReportMissingPersons() {
+        Mockito.when(personRepository.removeById(1L, 3L)).thenReturn(0);
+        Mockito.when(personRepository.existsById(1L)).thenReturn(false);
+
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> personService.delete(1L, 3L));
+    }
+
+    @Test
+    void writesShouldTellTheStatsRollupWhatTheyReplaced() {
+        PersonStatsRollup statsRollup = Mockito.mock(PersonStatsRollup.class);
+        PersonService service = new PersonService(personRepository, entityManager, personCache, statsRollup, null, changeLog, null);
+        Mockito.when(personRepository.lockProfessionAgeById(1L)).thenReturn(Optional.of(new ProfessionAge("Engineer", 30)));
+        Mockito.when(personRepository.updateById(1L, "John Smith", 35, "Architect", null)).thenReturn(1);
+        Mockito.when(personRepository.patchById(1L, null, 36, null, null)).thenReturn(1);
+        Mockito.when(personRepository.removeById(1L, null)).thenReturn(1);
+
+        service.update(1L, new Person(null, "John Smith", 35, "Architect"));
+        service.patch(1L, new Person(null, null, 36, null));
+        service.delete(1L);
+
+        Mockito.verify(statsRollup).changed(new ProfessionAge("Engineer", 30), new ProfessionAge("Architect", 35));
+        Mockito.verify(statsRollup).changed(new ProfessionAge("Engineer", 30), new ProfessionAge("Engineer", 36));
+        Mockito.verify(statsRollup).changed(new ProfessionAge("Engineer", 30), null);
+    }
+
+    @Test
+    void failedWritesShouldLeaveTheStatsRollupAlone() {
+        PersonStatsRollup statsRollup = Mockito.mock(PersonStatsRollup.class);
+        PersonService service = new PersonService(personRepository, entityManager, personCache, statsRollup, null, changeLog, null);
+        Mockito.when(personRepository.lockProfessionAgeById(1L)).thenReturn(Optional.of(new ProfessionAge("Engineer", 30)));
+        Mockito.when(personRepository.existsById(1L)).thenReturn(true);
+
+        Assertions.assertThrows(PreconditionFailedException.class, () -> service.delete(1L, 3L));
+        Mockito.verifyNoInteractions(statsRollup);
+    }
+
+    @Test
+    void readsShouldComeFromTheMemoryReplicaWhenEnabled() {
+        InMemoryPersonReplica memoryReplica = Mockito.mock(InMemoryPersonReplica.class);
+        PersonService service = new PersonService(personRepository, entityManager, personCache, null, memoryReplica, changeLog, null);
+        Mockito.when(memoryReplica.page(null, 2)).thenReturn(List.of(new PersonView(1L, "John Doe", 30, "Engineer", 0L)));
+        Mockito.when(memoryReplica.get(1L)).thenReturn(new Person(1L, "John Doe", 30, "Engineer"));
+
+        Assertions.assertEquals(List.of(new PersonView(1L, null, 30, null, 0L)),
+                service.getPersons(null, 2, EnumSet.of(PersonField.AGE)));
+        Assertions.assertEquals("John Doe", service.getPersonById(1L).getName());
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> service.getPersonById(2L));
+        Mockito.verify(personRepository, Mockito.never()).findViews(Mockito.any(), Mockito.any(), Mockito.anyInt());
+        Mockito.verify(personRepository, Mockito.never()).findById(Mockito.any());
+    }
+
+    @Test
+    void writesShouldBeCopiedToTheMemoryReplica() {
+        InMemoryPersonReplica memoryReplica = Mockito.mock(InMemoryPersonReplica.class);
+        PersonService service = new PersonService(personRepository, entityManager, personCache, null, memoryReplica, changeLog, null);
+        Person person = new Person(1L, "John Smith", 35, "Architect");
+        Mockito.when(personRepository.updateById(1L, "John Smith", 35, "Architect", null)).thenReturn(1);
+        Mockito.when(personRepository.findById(1L)).thenReturn(Optional.of(person));
+        Mockito.when(personRepository.removeById(1L, null)).thenReturn(1);
+
+        service.update(1L, new Person(null, "John Smith", 35, "Architect"));
+        service.delete(1L);
+
+        Mockito.verify(memoryReplica).saved(person);
+        Mockito.verify(memoryReplica).deleted(1L, null);
+    }
+
+    @Test
+    void textSearchShouldFallBackToAnUnrankedScan() {
+        Mockito.when(personRepository.findViews(Mockito.any(), Mockito.eq(PersonField.ALL), Mockito.eq(PersonService.MAX_MATCH_LIMIT)))
+                .thenReturn(List.of(new PersonView(1L, "John Doe", 30, "Engineer", 0L)));
+
+        Assertions.assertEquals(List.of(new PersonMatch(1L, "John Doe", 30, "Engineer", null)),
+                personService.searchText("doe", 10_000));
+    }
+
+    @Test
+    void textSearchShouldUseTheSearchIndexWhenEnabled() {
+        PersonSearchIndex searchIndex = Mockito.mock(PersonSearchIndex.class);
+        PersonService service = new PersonService(personRepository, entityManager, personCache, null, null, changeLog, searchIndex);
+        List<PersonMatch> matches = List.of(new PersonMatch(1L, "John Doe", 30, "Engineer", 1.5));
+        Mockito.when(searchIndex.search("jon", 5)).thenReturn(matches);
+
+        Assertions.assertEquals(matches, service.searchText("jon", 5));
+        Mockito.verify(personRepository, Mockito.never()).findViews(Mockito.any(), Mockito.any(), Mockito.anyInt());
+    }
+
+    @Test
+    void patchesShouldIndexTheWholeRowReadBack() {
+        PersonSearchIndex searchIndex = Mockito.mock(PersonSearchIndex.class);
+        PersonService service = new PersonService(personRepository, entityManager, personCache, null, null, changeLog, searchIndex);
+        Person person = new Person(1L, "John Doe", 36, "Engineer");
+        Mockito.when(personRepository.patchById(1L, null, 36, null, null)).thenReturn(1);
+        Mockito.when(personRepository.findById(1L)).thenReturn(Optional.of(person));
+        Mockito.when(personRepository.removeById(1L, null)).thenReturn(1);
+
+        service.patch(1L, new Person(null, null, 36, null));
+        service.delete(1L);
+
+        Mockito.verify(searchIndex).saved(person);
+        Mockito.verify(searchIndex).deleted(1L, null);
+    }
 }
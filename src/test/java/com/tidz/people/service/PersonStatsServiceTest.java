@@ -0,0 +1,74 @@
+package com.tidz.people.service;
+
+import com.tidz.people.exceptions.InvalidHistogramException;
+import com.tidz.people.model.AgeCount;
+import com.tidz.people.model.ProfessionCount;
+import com.tidz.people.repository.PersonRepository;
+import com.tidz.people.response.AgeBucket;
+import com.tidz.people.stats.PersonStatsRollup;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+public class PersonStatsServiceTest {
+
+    private PersonStatsService statsService;
+
+    @Mock
+    private PersonRepository personRepository;
+
+    @Mock
+    private PersonStatsRollup statsRollup;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        statsService = new PersonStatsService(personRepository, null);
+        Mockito.when(personRepository.countByAge()).thenReturn(List.of(
+                new AgeCount(17, 1), new AgeCount(18, 2), new AgeCount(29, 3), new AgeCount(47, 4)));
+    }
+
+    @Test
+    void ageHistogramShouldFillBucketsOfTheGivenWidth() {
+        Assertions.assertEquals(List.of(
+                new AgeBucket(10, 20, 3),
+                new AgeBucket(20, 30, 3),
+                new AgeBucket(30, 40, 0),
+                new AgeBucket(40, 50, 4)), statsService.ageHistogram(10));
+    }
+
+    @Test
+    void ageHistogramShouldSplitAtTheGivenBounds() {
+        Assertions.assertEquals(List.of(
+                new AgeBucket(null, 18, 1),
+                new AgeBucket(18, 30, 5),
+                new AgeBucket(30, 65, 4),
+                new AgeBucket(65, null, 0)), statsService.ageHistogram(List.of(18, 30, 65)));
+    }
+
+    @Test
+    void ageHistogramShouldRejectBadBuckets() {
+        Assertions.assertThrows(InvalidHistogramException.class, () -> statsService.ageHistogram(0));
+        Assertions.assertThrows(InvalidHistogramException.class, () -> statsService.ageHistogram(List.of()));
+        Assertions.assertThrows(InvalidHistogramException.class, () -> statsService.ageHistogram(List.of(30, 18)));
+        Mockito.when(personRepository.countByAge()).thenReturn(List.of(new AgeCount(0, 1), new AgeCount(5000, 1)));
+        Assertions.assertThrows(InvalidHistogramException.class, () -> statsService.ageHistogram(1));
+    }
+
+    @Test
+    void statsShouldComeFromTheRollupWhenEnabled() {
+        statsService = new PersonStatsService(personRepository, statsRollup);
+        Mockito.when(statsRollup.countByProfession()).thenReturn(List.of(new ProfessionCount("Engineer", 3)));
+        Mockito.when(statsRollup.countByAge()).thenReturn(List.of(new AgeCount(30, 3)));
+
+        Assertions.assertEquals(List.of(new ProfessionCount("Engineer", 3)), statsService.countByProfession());
+        Assertions.assertEquals(List.of(new AgeBucket(30, 40, 3)), statsService.ageHistogram(10));
+        Mockito.verify(personRepository, Mockito.never()).countByProfession();
+        Mockito.verify(personRepository, Mockito.never()).countByAge();
+    }
+}
@@ -0,0 +1,135 @@
+package com.tidz.people.service;
+
+import com.tidz.people.exceptions.InvalidRecordException;
+import com.tidz.people.exceptions.ResourceNotFoundException;
+import com.tidz.people.model.Person;
+import com.tidz.people.repository.ReactivePersonChangeRepository;
+import com.tidz.people.repository.ReactivePersonRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+public class ReactivePersonServiceTest {
+
+    @InjectMocks
+    private ReactivePersonService personService;
+
+    @Mock
+    private ReactivePersonRepository personRepository;
+
+    @Mock
+    private ReactivePersonChangeRepository changeRepository;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        Mockito.when(transactionalOperator.transactional(Mockito.<Mono<Object>>any())).thenAnswer(invocation -> invocation.getArgument(0));
+        Mockito.when(changeRepository.appendUpsert(Mockito.anyLong())).thenReturn(Mono.just(1L));
+        Mockito.when(changeRepository.appendDelete(Mockito.anyLong())).thenReturn(Mono.just(1L));
+    }
+
+    @Test
+    void saveShouldRecordTheInsertInTheOutbox() {
+        Mockito.when(personRepository.insert(Mockito.any())).thenReturn(Mono.just(new Person(7L, "John Doe", 30, "Engineer")));
+
+        StepVerifier.create(personService.save(new Person(null, "John Doe", 30, "Engineer")))
+                .expectNextMatches(person -> person.getId() == 7L)
+                .verifyComplete();
+
+        Mockito.verify(changeRepository, Mockito.times(1)).appendUpsert(7L);
+    }
+
+    @Test
+    void saveShouldRejectAnUnknownId() {
+        Mockito.when(personRepository.existsById(9L)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(personService.save(new Person(9L, "John Doe", 30, "Engineer")))
+                .expectError(InvalidRecordException.class)
+                .verify();
+
+        Mockito.verify(personRepository, Mockito.never()).insert(Mockito.any());
+    }
+
+    @Test
+    void saveShouldReplaceAnExistingPerson() {
+        Mockito.when(personRepository.existsById(1L)).thenReturn(Mono.just(true));
+        Mockito.when(personRepository.updateById(1L, "John Smith", 35, "Architect")).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(personService.save(new Person(1L, "John Smith", 35, "Architect")))
+                .expectNextMatches(person -> person.getName().equals("John Smith"))
+                .verifyComplete();
+
+        Mockito.verify(personRepository, Mockito.never()).insert(Mockito.any());
+        Mockito.verify(changeRepository, Mockito.times(1)).appendUpsert(1L);
+    }
+
+    @Test
+    void getPersonByIdShouldEmitThePerson() {
+        Person person = new Person(1L, "John Doe", 30, "Engineer");
+        Mockito.when(personRepository.findById(1L)).thenReturn(Mono.just(person));
+
+        StepVerifier.create(personService.getPersonById(1L))
+                .expectNext(person)
+                .verifyComplete();
+    }
+
+    @Test
+    void getPersonByIdShouldFailWhenThePersonIsMissing() {
+        Mockito.when(personRepository.findById(1L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(personService.getPersonById(1L))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void getPersonsShouldCapThePageSize() {
+        Mockito.when(personRepository.findPage(5L, PersonService.MAX_PAGE_SIZE)).thenReturn(Flux.empty());
+
+        StepVerifier.create(personService.getPersons(5L, PersonService.MAX_PAGE_SIZE + 1)).verifyComplete();
+
+        Mockito.verify(personRepository, Mockito.times(1)).findPage(5L, PersonService.MAX_PAGE_SIZE);
+    }
+
+    @Test
+    void updateShouldFailWhenNoRowWasUpdated() {
+        Mockito.when(personRepository.updateById(1L, "John Doe", 30, "Engineer")).thenReturn(Mono.just(0L));
+
+        StepVerifier.create(personService.update(1L, new Person(null, "John Doe", 30, "Engineer")))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+
+        Mockito.verify(changeRepository, Mockito.never()).appendUpsert(Mockito.anyLong());
+    }
+
+    @Test
+    void deleteShouldCompleteWhenTheRowWasDeleted() {
+        Mockito.when(personRepository.removeById(1L)).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(personService.delete(1L)).verifyComplete();
+
+        InOrder order = Mockito.inOrder(changeRepository, personRepository);
+        order.verify(changeRepository).appendDelete(1L);
+        order.verify(personRepository).removeById(1L);
+    }
+
+    @Test
+    void deleteShouldFailWhenNoRowWasDeleted() {
+        Mockito.when(personRepository.removeById(1L)).thenReturn(Mono.just(0L));
+
+        StepVerifier.create(personService.delete(1L))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+    }
+}
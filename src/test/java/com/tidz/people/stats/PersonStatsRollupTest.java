@@ -0,0 +1,95 @@
+package com.tidz.people.stats;
+
+import com.tidz.people.model.AgeCount;
+import com.tidz.people.model.ProfessionAge;
+import com.tidz.people.model.ProfessionAgeCount;
+import com.tidz.people.model.ProfessionAgeStats;
+import com.tidz.people.model.ProfessionCount;
+import com.tidz.people.repository.PersonRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+public class PersonStatsRollupTest {
+
+    private PersonStatsRollup rollup;
+
+    @BeforeEach
+    void setUp() {
+        PersonRepository repository = Mockito.mock(PersonRepository.class);
+        Mockito.when(repository.countByProfessionAndAge()).thenReturn(List.of(
+                new ProfessionAgeCount("Engineer", 30, 2),
+                new ProfessionAgeCount("Engineer", 40, 1),
+                new ProfessionAgeCount("Doctor", 50, 1)));
+        rollup = new PersonStatsRollup(repository);
+        rollup.afterSingletonsInstantiated();
+    }
+
+    @Test
+    void shouldStartFromTheGroupedTable() {
+        Assertions.assertEquals(List.of(new ProfessionCount("Engineer", 3), new ProfessionCount("Doctor", 1)),
+                rollup.countByProfession());
+        Assertions.assertEquals(List.of(new AgeCount(30, 2), new AgeCount(40, 1), new AgeCount(50, 1)), rollup.countByAge());
+        Assertions.assertEquals(List.of(new ProfessionAgeStats("Doctor", 1, 50, 50, 50),
+                new ProfessionAgeStats("Engineer", 3, 30, 100 / 3.0, 40)), rollup.ageStatsByProfession());
+    }
+
+    @Test
+    void changesShouldMoveCountsBetweenGroups() {
+        rollup.changed(new ProfessionAge("Doctor", 50), new ProfessionAge("Architect", 20));
+        rollup.changed(null, new ProfessionAge("Engineer", 60));
+        rollup.changed(new ProfessionAge("Engineer", 40), null);
+
+        Assertions.assertEquals(List.of(new ProfessionCount("Engineer", 3), new ProfessionCount("Architect", 1)),
+                rollup.countByProfession());
+        Assertions.assertEquals(List.of(new AgeCount(20, 1), new AgeCount(30, 2), new AgeCount(60, 1)), rollup.countByAge());
+        Assertions.assertEquals(List.of(new ProfessionAgeStats("Architect", 1, 20, 20, 20),
+                new ProfessionAgeStats("Engineer", 3, 30, 40, 60)), rollup.ageStatsByProfession());
+    }
+
+    @Test
+    void professionsShouldBeGroupedIgnoringCaseLikeTheDatabase() {
+        rollup.changed(null, new ProfessionAge("ENGINEER", 50));
+        rollup.changed(new ProfessionAge("engineer", 30), new ProfessionAge("doctor", 30));
+
+        Assertions.assertEquals(List.of(new ProfessionCount("Engineer", 3), new ProfessionCount("Doctor", 2)),
+                rollup.countByProfession());
+        Assertions.assertEquals(List.of(new AgeCount(30, 2), new AgeCount(40, 1), new AgeCount(50, 2)), rollup.countByAge());
+        Assertions.assertEquals(List.of(new ProfessionAgeStats("Doctor", 2, 30, 40, 50),
+                new ProfessionAgeStats("Engineer", 3, 30, 40, 50)), rollup.ageStatsByProfession());
+    }
+
+    @Test
+    void removingAPersonTheRollupNeverCountedShouldChangeNothing() {
+        rollup.changed(new ProfessionAge("Architect", 20), null);
+        rollup.changed(new ProfessionAge("Doctor", 51), null);
+
+        Assertions.assertEquals(List.of(new ProfessionCount("Engineer", 3), new ProfessionCount("Doctor", 1)),
+                rollup.countByProfession());
+        Assertions.assertEquals(List.of(new AgeCount(30, 2), new AgeCount(40, 1), new AgeCount(50, 1)), rollup.countByAge());
+
+        rollup.changed(null, new ProfessionAge("Architect", 20));
+        Assertions.assertEquals(new ProfessionCount("Architect", 1), rollup.countByProfession().get(1));
+    }
+
+    @Test
+    void changesInATransactionShouldOnlyApplyOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            rollup.changed(null, new ProfessionAge("Architect", 20));
+            rollup.changed(null, new ProfessionAge("Architect", 25));
+            Assertions.assertEquals(2, rollup.countByProfession().size());
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.getFirst().afterCommit();
+            Assertions.assertEquals(new ProfessionCount("Architect", 1), rollup.countByProfession().get(1));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
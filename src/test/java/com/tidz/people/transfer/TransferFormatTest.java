@@ -0,0 +1,88 @@
+package com.tidz.people.transfer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tidz.people.exceptions.InvalidRecordException;
+import com.tidz.people.exceptions.UnsupportedFormatException;
+import com.tidz.people.model.Person;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+public class TransferFormatTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void csvShouldRoundTripFieldsThatNeedQuoting() throws IOException {
+        Person person = new Person(7L, "Sue, \"Mary\"\nJr", 33, "Architect");
+
+        String csv = write(TransferFormat.CSV, person);
+        Person read = read(TransferFormat.CSV, csv);
+
+        Assertions.assertEquals("id,name,age,profession\n7,\"Sue, \"\"Mary\"\"\nJr\",33,Architect\n", csv);
+        Assertions.assertEquals(person.getName(), read.getName());
+        Assertions.assertEquals(33, read.getAge());
+        Assertions.assertEquals("Architect", read.getProfession());
+        Assertions.assertNull(read.getId());
+    }
+
+    @Test
+    void csvShouldMatchColumnsByHeaderAndKeepReadingAfterABadRecord() throws IOException {
+        PersonReader reader = TransferFormat.CSV.reader(input("profession,age,name\r\nEngineer,x,John\r\nDoctor,28,Mary\r\n"), objectMapper);
+
+        Assertions.assertThrows(InvalidRecordException.class, reader::next);
+        Person person = reader.next();
+
+        Assertions.assertEquals("Mary", person.getName());
+        Assertions.assertEquals(28, person.getAge());
+        Assertions.assertNull(reader.next());
+    }
+
+    @Test
+    void csvShouldRejectAHeaderWithoutTheRequiredColumns() {
+        Assertions.assertThrows(InvalidRecordException.class,
+                () -> TransferFormat.CSV.reader(input("id,name,age\n1,John,30\n"), objectMapper));
+    }
+
+    @Test
+    void ndjsonShouldRoundTripAndRejectMalformedLines() throws IOException {
+        String ndjson = write(TransferFormat.NDJSON, new Person(1L, "John Doe", 30, "Engineer"));
+        PersonReader reader = TransferFormat.NDJSON.reader(input("{oops\n\n" + ndjson), objectMapper);
+
+        Assertions.assertEquals("{\"id\":1,\"name\":\"John Doe\",\"age\":30,\"profession\":\"Engineer\"}\n", ndjson);
+        Assertions.assertThrows(InvalidRecordException.class, reader::next);
+        Assertions.assertEquals("John Doe", reader.next().getName());
+        Assertions.assertNull(reader.next());
+    }
+
+    @Test
+    void ofShouldResolveNamesFileNamesAndMediaTypes() {
+        Assertions.assertEquals(TransferFormat.CSV, TransferFormat.of("csv"));
+        Assertions.assertEquals(TransferFormat.NDJSON, TransferFormat.of("people.NDJSON.gz"));
+        Assertions.assertEquals(TransferFormat.CSV, TransferFormat.of(MediaType.parseMediaType("text/csv;charset=UTF-8")));
+        Assertions.assertThrows(UnsupportedFormatException.class, () -> TransferFormat.of("people.xml"));
+    }
+
+    private String write(TransferFormat format, Person person) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (PersonWriter writer = format.writer(outputStream, objectMapper)) {
+            writer.write(person);
+        }
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+
+    private Person read(TransferFormat format, String content) throws IOException {
+        try (PersonReader reader = format.reader(input(content), objectMapper)) {
+            return reader.next();
+        }
+    }
+
+    private static ByteArrayInputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,19 @@
+create table if not exists persons (
+    id bigint not null,
+    name varchar(255) not null,
+    age integer not null,
+    profession varchar(255) not null,
+    primary key (id)
+);
+
+alter table persons alter column id bigint not null;
+alter table persons add column if not exists version bigint not null default 0;
+alter table persons add column if not exists updated_at timestamp(6) with time zone;
+
+create index if not exists idx_persons_profession_age on persons (profession, age);
+create index if not exists idx_persons_name on persons (name);
+create index if not exists idx_persons_age on persons (age);
+create index if not exists idx_persons_updated_at on persons (updated_at);
+
+create sequence if not exists persons_seq start with 1 increment by 50;
+alter sequence persons_seq restart with (select coalesce((max(id) / 50 + 2) * 50, 1) from persons);
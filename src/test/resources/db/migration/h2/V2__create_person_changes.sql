@@ -0,0 +1,24 @@
+create table person_changes (
+    id bigint generated by default as identity,
+    seq bigint,
+    person_id bigint not null,
+    operation varchar(8) not null,
+    name varchar(255),
+    age integer,
+    profession varchar(255),
+    version bigint,
+    changed_at timestamp(6) with time zone not null,
+    primary key (id),
+    constraint idx_person_changes_seq unique (seq)
+);
+
+create index idx_person_changes_person_id_seq on person_changes (person_id, seq);
+
+create table person_change_sequence (
+    id integer not null,
+    next_seq bigint not null,
+    purged_through bigint not null,
+    primary key (id)
+);
+
+insert into person_change_sequence values (1, 1, 0);